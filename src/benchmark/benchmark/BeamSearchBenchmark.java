@@ -0,0 +1,90 @@
+package benchmark;
+
+import model.Game;
+import model.ai.BeamSearchBot;
+import model.ai.HeuristicBot;
+import model.ai.TranspositionTable;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Measures BeamSearchBot.choosePlacement on a fork/join pool with a given number of threads: each operation plans
+// two pieces ahead on the board of one game in progress. The games are played by the bot itself until their
+// stacks have some height. Since the speed of a parallel search is what matters, the benchmark prints the number of
+// boards searched per second once it is torn down; comparing it across thread counts shows how the search scales.
+// Only the allocations of the calling thread are counted.
+//
+// The bot may search with a TranspositionTable, in which case the hit rate of the table is printed too. The same
+// boards are searched over and over, so once the table is warm nearly every board is found in it: the cached
+// benchmark measures the cost of a search whose evaluations are all looked up, not the hit rate of real play.
+public class BeamSearchBenchmark extends Benchmark {
+    private static final int NUM_GAMES = 32;
+    private static final int NUM_PIECES_PLAYED = 30;
+    private static final int TABLE_CAPACITY = 1 << 16;
+
+    private final int numThreads;
+    private final boolean cached;
+    private ForkJoinPool pool;
+    private TranspositionTable table;
+    private BeamSearchBot bot;
+    private Game[] games;
+    private int nextGame;
+    private long startNodes;
+    private long startTime;
+
+    // EFFECTS: creates the benchmark, which searches with the given number of threads and no table
+    public BeamSearchBenchmark(int numThreads) {
+        this(numThreads, false);
+    }
+
+    // EFFECTS: creates the benchmark, which searches with the given number of threads, and with a transposition
+    //          table if cached is true
+    public BeamSearchBenchmark(int numThreads, boolean cached) {
+        super("BeamSearchBot.choosePlacement (" + numThreads + (numThreads == 1 ? " thread" : " threads")
+                + (cached ? ", cached)" : ")"));
+        this.numThreads = numThreads;
+        this.cached = cached;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the pool and the bot, and plays the games whose boards are searched
+    @Override
+    public void setUp() {
+        pool = new ForkJoinPool(numThreads);
+        table = cached ? new TranspositionTable(TABLE_CAPACITY, Integer.highestOneBit(numThreads) * 4) : null;
+        bot = new BeamSearchBot(pool, BeamSearchBot.DEFAULT_BEAM_WIDTH, new HeuristicBot(), table);
+        games = new Game[NUM_GAMES];
+        for (int i = 0; i < NUM_GAMES; i++) {
+            games[i] = new Game(i, 0);
+            for (int j = 0; j < NUM_PIECES_PLAYED && !games[i].isGameOver(); j++) {
+                bot.act(games[i]);
+                games[i].update();
+            }
+        }
+        startNodes = bot.getNumNodes();
+        startTime = System.nanoTime();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plans the next game's active piece
+    @Override
+    public int runOperation() {
+        Game game = games[nextGame];
+        nextGame = (nextGame + 1) % NUM_GAMES;
+        return bot.choosePlacement(game);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prints the boards searched per second since the games were played, and the hit rate of the table if
+    //          there is one, and shuts the pool down
+    @Override
+    public void tearDown() {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("%s: %.0f boards/s%n", getName(), (bot.getNumNodes() - startNodes) / seconds);
+        if (table != null) {
+            double lookups = table.getNumHits() + table.getNumMisses();
+            System.out.printf("%s: %.1f%% of %.0f lookups hit, %d evictions%n", getName(),
+                    100 * table.getNumHits() / lookups, lookups, table.getNumEvictions());
+        }
+        pool.shutdown();
+    }
+}
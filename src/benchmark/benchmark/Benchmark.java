@@ -0,0 +1,49 @@
+package benchmark;
+
+// Represents a microbenchmark of one operation. The BenchmarkRunner calls setUp once, then calls runOperation
+// many times while measuring the time taken and the memory allocated, then calls tearDown.
+public abstract class Benchmark {
+    private String name;
+
+    // EFFECTS: creates a benchmark with the given name
+    protected Benchmark(String name) {
+        this.name = name;
+    }
+
+    // EFFECTS: returns the name of this benchmark
+    public String getName() {
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prepares the state used by the benchmark. Called once before any operation is run.
+    public void setUp() throws Exception {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prepares the state used by the next operation. This is only called if preparesEachOperation()
+    //          returns true, and the time and memory it uses are not counted.
+    public void prepareOperation() throws Exception {
+    }
+
+    // EFFECTS: returns true if prepareOperation must be called before every operation. Operations are then timed
+    //          one at a time, which adds the cost of reading the clock to each measured operation.
+    public boolean preparesEachOperation() {
+        return false;
+    }
+
+    // EFFECTS: returns true if the operations must run on the Swing event dispatching thread
+    public boolean runsOnEventDispatchThread() {
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the measured operation once, and returns a value computed from its result. The runner consumes
+    //          the returned value so that the JIT compiler cannot remove the operation.
+    public abstract int runOperation() throws Exception;
+
+    // MODIFIES: this
+    // EFFECTS: releases the state used by the benchmark. Called once after all operations have run.
+    public void tearDown() throws Exception {
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+// Represents the measurements taken while running a benchmark: the number of operations run, the time they took,
+// the memory they allocated, and the garbage collections that happened meanwhile.
+public class BenchmarkResult {
+    private String name;
+    private long numOperations;
+    private long elapsedNanos;
+    private long allocatedBytes;
+    private long gcCount;
+    private long gcMillis;
+
+    // EFFECTS: creates a result for the named benchmark with no measurements
+    public BenchmarkResult(String name) {
+        this.name = name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the measurements of one measurement iteration to this result
+    public void add(long numOperations, long elapsedNanos, long allocatedBytes, long gcCount, long gcMillis) {
+        this.numOperations += numOperations;
+        this.elapsedNanos += elapsedNanos;
+        this.allocatedBytes += allocatedBytes;
+        this.gcCount += gcCount;
+        this.gcMillis += gcMillis;
+    }
+
+    // EFFECTS: returns the name of the benchmark
+    public String getName() {
+        return name;
+    }
+
+    // EFFECTS: returns the average time per operation, in nanoseconds
+    public double getNanosPerOperation() {
+        return numOperations == 0 ? 0 : (double) elapsedNanos / numOperations;
+    }
+
+    // EFFECTS: returns the number of operations per second
+    public double getOperationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : numOperations * 1e9 / elapsedNanos;
+    }
+
+    // EFFECTS: returns the average number of bytes allocated per operation
+    public double getBytesPerOperation() {
+        return numOperations == 0 ? 0 : (double) allocatedBytes / numOperations;
+    }
+
+    // EFFECTS: returns the allocation rate in megabytes per second
+    public double getAllocationRate() {
+        return elapsedNanos == 0 ? 0 : allocatedBytes * 1e9 / elapsedNanos / (1024 * 1024);
+    }
+
+    // EFFECTS: returns the column headers matching toString
+    public static String getHeader() {
+        return String.format("%-44s %14s %14s %12s %12s %8s %8s",
+                "Benchmark", "ops/s", "ns/op", "B/op", "MB/s", "gc.count", "gc.ms");
+    }
+
+    // EFFECTS: returns the measurements as one row of a table
+    @Override
+    public String toString() {
+        return String.format("%-44s %14.0f %14.1f %12.1f %12.1f %8d %8d",
+                name, getOperationsPerSecond(), getNanosPerOperation(), getBytesPerOperation(),
+                getAllocationRate(), gcCount, gcMillis);
+    }
+}
@@ -0,0 +1,165 @@
+package benchmark;
+
+import javax.swing.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs benchmarks and prints their results. Each benchmark is warmed up so that the JIT compiler has compiled the
+// measured code, then measured over several fixed-length iterations. Along with the time per operation, the runner
+// reports the bytes allocated per operation and the garbage collections during measurement, like JMH's GC profiler.
+//
+// Usage: java benchmark.BenchmarkRunner [name filter]
+// Only benchmarks whose names contain the filter are run.
+public class BenchmarkRunner {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 1000000000L;
+
+    // Number of operations between clock readings, when operations are not timed one at a time
+    private static final int OPERATIONS_PER_CHECK = 256;
+
+    // Accumulates the values returned by operations so that they cannot be optimized away
+    private static volatile int sink;
+
+    private com.sun.management.ThreadMXBean threadBean;
+
+    // EFFECTS: creates a benchmark runner
+    public BenchmarkRunner() {
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String filter = args.length > 0 ? args[0] : "";
+        BenchmarkRunner runner = new BenchmarkRunner();
+
+        System.out.println(BenchmarkResult.getHeader());
+        for (Benchmark benchmark : BenchmarkSuite.getBenchmarks()) {
+            if (benchmark.getName().contains(filter)) {
+                System.out.println(runner.run(benchmark));
+            }
+        }
+        System.exit(0);
+    }
+
+    // EFFECTS: sets up, warms up, measures and tears down the given benchmark, and returns its measurements.
+    //          If the benchmark must run on the event dispatching thread, it is measured there.
+    public BenchmarkResult run(final Benchmark benchmark) throws Exception {
+        final List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+        final List<Exception> errors = new ArrayList<Exception>();
+        Runnable measurement = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    results.add(measure(benchmark));
+                } catch (Exception e) {
+                    errors.add(e);
+                }
+            }
+        };
+
+        if (benchmark.runsOnEventDispatchThread()) {
+            SwingUtilities.invokeAndWait(measurement);
+        } else {
+            measurement.run();
+        }
+        if (!errors.isEmpty()) {
+            throw errors.get(0);
+        }
+        return results.get(0);
+    }
+
+    // EFFECTS: sets up, warms up, measures and tears down the given benchmark on the current thread
+    private BenchmarkResult measure(Benchmark benchmark) throws Exception {
+        benchmark.setUp();
+        BenchmarkResult warmup = new BenchmarkResult(benchmark.getName());
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(benchmark, warmup);
+        }
+
+        BenchmarkResult result = new BenchmarkResult(benchmark.getName());
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            runIteration(benchmark, result);
+        }
+        benchmark.tearDown();
+        return result;
+    }
+
+    // MODIFIES: result
+    // EFFECTS: runs the benchmark's operation for about ITERATION_NANOS nanoseconds, and adds the measurements
+    //          to result
+    private void runIteration(Benchmark benchmark, BenchmarkResult result) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long gcCountBefore = getGcCount();
+        long gcMillisBefore = getGcMillis();
+        long[] measurements;
+        if (benchmark.preparesEachOperation()) {
+            measurements = runPreparedOperations(benchmark, threadId);
+        } else {
+            measurements = runOperations(benchmark, threadId);
+        }
+        result.add(measurements[0], measurements[1], measurements[2],
+                getGcCount() - gcCountBefore, getGcMillis() - gcMillisBefore);
+    }
+
+    // EFFECTS: runs the benchmark's operation back to back for about ITERATION_NANOS nanoseconds, and returns the
+    //          number of operations, the nanoseconds they took, and the bytes they allocated
+    private long[] runOperations(Benchmark benchmark, long threadId) throws Exception {
+        int localSink = 0;
+        long numOperations = 0;
+        long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < OPERATIONS_PER_CHECK; i++) {
+                localSink += benchmark.runOperation();
+            }
+            numOperations += OPERATIONS_PER_CHECK;
+            elapsed = System.nanoTime() - startTime;
+        } while (elapsed < ITERATION_NANOS);
+        long bytes = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+        sink += localSink;
+        return new long[] {numOperations, elapsed, bytes};
+    }
+
+    // EFFECTS: prepares and runs the benchmark's operation one at a time until about ITERATION_NANOS nanoseconds
+    //          have been spent in the operation, and returns the number of operations, the nanoseconds they took,
+    //          and the bytes they allocated. Preparation is not counted.
+    private long[] runPreparedOperations(Benchmark benchmark, long threadId) throws Exception {
+        int localSink = 0;
+        long numOperations = 0;
+        long elapsed = 0;
+        long bytes = 0;
+        long iterationEnd = System.nanoTime() + 2 * ITERATION_NANOS;
+        while (elapsed < ITERATION_NANOS && System.nanoTime() < iterationEnd) {
+            benchmark.prepareOperation();
+            long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+            long startTime = System.nanoTime();
+            localSink += benchmark.runOperation();
+            elapsed += System.nanoTime() - startTime;
+            bytes += threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+            numOperations++;
+        }
+        sink += localSink;
+        return new long[] {numOperations, elapsed, bytes};
+    }
+
+    // EFFECTS: returns the total number of garbage collections so far
+    private static long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the total time spent in garbage collection so far, in milliseconds
+    private static long getGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,36 @@
+package benchmark;
+
+import model.Input;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Lists the benchmarks of the model and rendering hot paths
+public class BenchmarkSuite {
+
+    // EFFECTS: returns a new instance of every benchmark in the suite
+    public static List<Benchmark> getBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.add(new GameUpdateBenchmark());
+        benchmarks.add(new PieceMoveBenchmark("Piece.moveLeft/moveRight", Input.MOVE_LEFT));
+        benchmarks.add(new PieceMoveBenchmark("Piece.moveDown", Input.SOFT_DROP));
+        benchmarks.add(new PieceMoveBenchmark("Piece.rotate", Input.ROTATE));
+        benchmarks.add(new HardDropPreviewBenchmark("Piece.getHardDropTileLocations", false));
+        benchmarks.add(new HardDropPreviewBenchmark("Piece.getHardDropDistance (after move)", true));
+        benchmarks.add(new LineClearBenchmark());
+        benchmarks.add(new GameCopyBenchmark());
+        benchmarks.add(new PlacementGenerationBenchmark());
+        benchmarks.add(new BeamSearchBenchmark(1));
+        benchmarks.add(new BeamSearchBenchmark(1, true));
+        int numProcessors = Runtime.getRuntime().availableProcessors();
+        if (numProcessors > 1) {
+            benchmarks.add(new BeamSearchBenchmark(numProcessors));
+        }
+        benchmarks.add(new BoardPaintBenchmark("BoardPanel.paintComponent (Graphics)", false, false));
+        benchmarks.add(new BoardPaintBenchmark("BoardPanel.paintComponent (sprites)", false, true));
+        benchmarks.add(new BoardPaintBenchmark("BoardPanel.paintComponent (dirty, Graphics)", true, false));
+        benchmarks.add(new BoardPaintBenchmark("BoardPanel.paintComponent (dirty, sprites)", true, true));
+        benchmarks.add(new ScoreboardReadBenchmark());
+        return benchmarks;
+    }
+}
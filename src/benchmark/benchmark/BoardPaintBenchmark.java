@@ -0,0 +1,88 @@
+package benchmark;
+
+import model.Game;
+import model.Input;
+import model.loop.FrameSnapshot;
+import model.loop.GameLoop;
+import ui.graphics.BoardPanel;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Measures BoardPanel.paintComponent drawing a half-filled board into an offscreen image, either whole or clipped to
+// the cells that change when the active piece moves left, as Swing clips it when the panel repaints dirty cells.
+// The cells are painted either by copying tile sprites or with Graphics calls.
+// The game loop is never started, so the panel keeps painting the frame published when the loop was created.
+public class BoardPaintBenchmark extends Benchmark {
+    private boolean dirtyCellsOnly;
+    private boolean usesSprites;
+    private BoardPanel boardPanel;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    // EFFECTS: creates the benchmark with the given name. If dirtyCellsOnly is true, the painting is clipped to the
+    //          cells that a move of the active piece makes dirty. If usesSprites is true, the board panel paints
+    //          cells by copying sprites.
+    public BoardPaintBenchmark(String name, boolean dirtyCellsOnly, boolean usesSprites) {
+        super(name);
+        this.dirtyCellsOnly = dirtyCellsOnly;
+        this.usesSprites = usesSprites;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates a board panel for a game whose active piece has been dropped onto a pile of pieces,
+    //          and an image to paint it into
+    @Override
+    public void setUp() {
+        Game game = new Game(0, 0);
+        for (int i = 0; i < 6; i++) {
+            game.handleInput(Input.HARD_DROP);
+        }
+        GameLoop gameLoop = new GameLoop(game);
+        boardPanel = new BoardPanel(gameLoop, usesSprites);
+        boardPanel.setSize(BoardPanel.WIDTH, BoardPanel.HEIGHT);
+        image = new BufferedImage(BoardPanel.WIDTH, BoardPanel.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        if (dirtyCellsOnly) {
+            game.handleInput(Input.MOVE_LEFT);
+            graphics.setClip(getDirtyBounds(new FrameSnapshot(game, 1, gameLoop.getLatestFrame())));
+        }
+    }
+
+    // EFFECTS: returns true, since Swing components must be painted on the event dispatching thread
+    @Override
+    public boolean runsOnEventDispatchThread() {
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: paints the board panel into the image
+    @Override
+    public int runOperation() {
+        boardPanel.paintComponent(graphics);
+        return image.getRGB(0, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: releases the graphics context
+    @Override
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    // EFFECTS: returns the smallest rectangle containing the dirty cells of frame, which is the area Swing repaints
+    //          when the panel asks for each of them to be repainted
+    private static Rectangle getDirtyBounds(FrameSnapshot frame) {
+        Rectangle bounds = null;
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            for (int c = 0; c < Game.WIDTH; c++) {
+                if ((frame.getDirtyRowMask(r) & (1 << c)) != 0) {
+                    Rectangle cell = new Rectangle(c * BoardPanel.TILE_SIDE_LENGTH, r * BoardPanel.TILE_SIDE_LENGTH,
+                            BoardPanel.TILE_SIDE_LENGTH + 1, BoardPanel.TILE_SIDE_LENGTH + 1);
+                    bounds = bounds == null ? cell : bounds.union(cell);
+                }
+            }
+        }
+        return bounds;
+    }
+}
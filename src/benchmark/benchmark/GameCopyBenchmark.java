@@ -0,0 +1,46 @@
+package benchmark;
+
+import model.Game;
+import model.ai.HeuristicBot;
+
+// Measures Game.copyInto: each operation forks one of a few games in progress into the same scratch game, as a
+// rollout or a what-if preview would before playing on. The games are played by the heuristic bot until their
+// stacks have some height, which is not counted.
+public class GameCopyBenchmark extends Benchmark {
+    private static final int NUM_GAMES = 8;
+    private static final int NUM_PIECES_PLAYED = 40;
+
+    private Game[] games;
+    private Game scratch;
+    private int nextGame;
+
+    // EFFECTS: creates the benchmark
+    public GameCopyBenchmark() {
+        super("Game.copyInto");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plays the games that are copied, and makes the scratch game they are copied into
+    @Override
+    public void setUp() {
+        HeuristicBot bot = new HeuristicBot();
+        games = new Game[NUM_GAMES];
+        for (int i = 0; i < NUM_GAMES; i++) {
+            games[i] = new Game(i, 0);
+            for (int j = 0; j < NUM_PIECES_PLAYED && !games[i].isGameOver(); j++) {
+                bot.act(games[i]);
+                games[i].update();
+            }
+        }
+        scratch = new Game(NUM_GAMES, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the next game into the scratch game
+    @Override
+    public int runOperation() {
+        games[nextGame].copyInto(scratch);
+        nextGame = (nextGame + 1) % NUM_GAMES;
+        return scratch.getScore();
+    }
+}
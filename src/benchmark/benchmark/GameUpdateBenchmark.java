@@ -0,0 +1,34 @@
+package benchmark;
+
+import model.Game;
+
+// Measures Game.update(). Nothing moves the pieces sideways, so they pile up in the middle of the board until the
+// game is over; a new game is then started, which adds a small amount of allocation to the average.
+public class GameUpdateBenchmark extends Benchmark {
+    private Game game;
+    private long seed;
+
+    // EFFECTS: creates the benchmark
+    public GameUpdateBenchmark() {
+        super("Game.update");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the first game
+    @Override
+    public void setUp() {
+        game = new Game(seed, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the game, starting a new game if it is over
+    @Override
+    public int runOperation() {
+        if (game.isGameOver()) {
+            seed++;
+            game = new Game(seed, 0);
+        }
+        game.update();
+        return game.getScore();
+    }
+}
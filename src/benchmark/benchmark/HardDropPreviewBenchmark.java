@@ -0,0 +1,53 @@
+package benchmark;
+
+import model.Game;
+import model.pieces.Piece;
+import model.pieces.TPiece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures the hard drop preview that the board panel draws. The preview is either computed after the piece has
+// moved (so it cannot be reused), or requested again as a set of tile locations while nothing has changed.
+public class HardDropPreviewBenchmark extends Benchmark {
+    private boolean movesPiece;
+    private Game game;
+    private Piece piece;
+    private boolean movingLeft;
+
+    // EFFECTS: creates the benchmark. If movesPiece is true, the piece moves sideways before each preview and
+    //          getHardDropDistance is measured; otherwise getHardDropTileLocations is measured on a still piece.
+    public HardDropPreviewBenchmark(String name, boolean movesPiece) {
+        super(name);
+        this.movesPiece = movesPiece;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: places a "T" piece above a bumpy stack of tiles that covers the bottom half of the board
+    @Override
+    public void setUp() {
+        game = new Game(0, 0);
+        List<ArrayList<Boolean>> board = Game.getBlankBoard();
+        for (int r = Game.HEIGHT / 2; r < Game.HEIGHT; r++) {
+            for (int c = 0; c < Game.WIDTH; c++) {
+                board.get(r).set(c, (r + c) % 3 != 0 && r > Game.HEIGHT / 2 + c % 4);
+            }
+        }
+        game.setBoard(board);
+        piece = new TPiece(game);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: computes the hard drop preview once
+    @Override
+    public int runOperation() {
+        if (!movesPiece) {
+            return piece.getHardDropTileLocations().size();
+        }
+        boolean moved = movingLeft ? piece.moveLeft() : piece.moveRight();
+        if (!moved) {
+            movingLeft = !movingLeft;
+        }
+        return piece.getHardDropDistance();
+    }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures a Tetris line clear: an upright "I" piece is hard-dropped into the only gap of four filled rows,
+// which locks the piece, clears the four rows and spawns the next piece. Setting up the board is not counted.
+public class LineClearBenchmark extends Benchmark {
+    // With this seed, the first piece of a game is an "I" piece
+    private static final long I_PIECE_SEED = 5000;
+
+    private List<ArrayList<Boolean>> board;
+    private Game game;
+
+    // EFFECTS: creates the benchmark
+    public LineClearBenchmark() {
+        super("Game.clearLines (tetris)");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: builds a board whose bottom four rows are filled, except for the rightmost column
+    @Override
+    public void setUp() {
+        board = Game.getBlankBoard();
+        for (int r = Game.HEIGHT - 4; r < Game.HEIGHT; r++) {
+            for (int c = 0; c < Game.WIDTH - 1; c++) {
+                board.get(r).set(c, true);
+            }
+        }
+    }
+
+    // EFFECTS: returns true, since every line clear needs a new board
+    @Override
+    public boolean preparesEachOperation() {
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a game on the prepared board, with its "I" piece upright above the rightmost column
+    @Override
+    public void prepareOperation() {
+        game = new Game(I_PIECE_SEED, 0);
+        game.setBoard(board);
+        Piece piece = game.getActivePiece();
+        piece.moveDown();
+        piece.rotate();
+        for (int i = 0; i < Game.WIDTH; i++) {
+            piece.moveRight();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hard-drops the "I" piece, clearing four lines
+    @Override
+    public int runOperation() {
+        game.handleInput(Input.HARD_DROP);
+        return game.getLinesCleared();
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+import model.pieces.TPiece;
+
+// Measures one of the moves of a piece on an empty board: moving sideways, rotating, or moving down.
+// A piece moving sideways turns around when it reaches a wall. A piece moving down is replaced by a new piece at
+// the top of the board once it reaches the floor; replacing it is not counted.
+public class PieceMoveBenchmark extends Benchmark {
+    private Input move;
+    private Game game;
+    private Piece piece;
+    private boolean movingLeft;
+
+    // EFFECTS: creates a benchmark of the given move. MOVE_LEFT and MOVE_RIGHT both measure sideways moves.
+    public PieceMoveBenchmark(String name, Input move) {
+        super(name);
+        this.move = move;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: places a "T" piece a few rows down an empty board, where it can rotate
+    @Override
+    public void setUp() {
+        game = new Game(0, 0);
+        game.setBoard(Game.getBlankBoard());
+        piece = new TPiece(game);
+        piece.moveDown();
+        piece.moveDown();
+        movingLeft = move == Input.MOVE_LEFT;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the piece with a new one at the top of the board if it can no longer move down
+    @Override
+    public void prepareOperation() {
+        if (piece.getHardDropDistance() == 0) {
+            game.setBoard(Game.getBlankBoard());
+            piece = new TPiece(game);
+        }
+    }
+
+    // EFFECTS: returns true if this benchmark measures moving down, since the piece must then be replaced
+    //          every time it reaches the floor
+    @Override
+    public boolean preparesEachOperation() {
+        return move == Input.SOFT_DROP;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: performs the measured move once
+    @Override
+    public int runOperation() {
+        if (move == Input.ROTATE) {
+            return piece.rotate() ? 1 : 0;
+        } else if (move == Input.SOFT_DROP) {
+            return piece.moveDown() ? 1 : 0;
+        }
+        boolean moved = movingLeft ? piece.moveLeft() : piece.moveRight();
+        if (!moved) {
+            movingLeft = !movingLeft;
+        }
+        return moved ? 1 : 0;
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import model.Game;
+import model.Input;
+import model.ai.PlacementGenerator;
+
+import java.util.Random;
+
+// Measures PlacementGenerator.generate on the boards of games in progress: each operation finds every placement of
+// one game's active piece. The games are played by dropping pieces in random columns until their stacks are a few
+// rows high, so that the boards have holes and overhangs.
+public class PlacementGenerationBenchmark extends Benchmark {
+    private static final int NUM_GAMES = 64;
+    private static final int NUM_PIECES_DROPPED = 12;
+
+    private Game[] games;
+    private PlacementGenerator generator;
+    private int nextGame;
+
+    // EFFECTS: creates the benchmark
+    public PlacementGenerationBenchmark() {
+        super("PlacementGenerator.generate");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plays the games whose pieces are searched, and prints how many placements a search finds on average
+    @Override
+    public void setUp() {
+        Random random = new Random(0);
+        games = new Game[NUM_GAMES];
+        generator = new PlacementGenerator();
+        long numPlacements = 0;
+        for (int i = 0; i < NUM_GAMES; i++) {
+            games[i] = new Game(i, 0);
+            for (int j = 0; j < NUM_PIECES_DROPPED && !games[i].isGameOver(); j++) {
+                dropInRandomColumn(games[i], random);
+            }
+            numPlacements += generator.generate(games[i]);
+        }
+        System.out.println(getName() + ": " + (double) numPlacements / NUM_GAMES + " placements per search");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds every placement of the next game's active piece
+    @Override
+    public int runOperation() {
+        Game game = games[nextGame];
+        nextGame = (nextGame + 1) % NUM_GAMES;
+        return generator.generate(game);
+    }
+
+    // MODIFIES: game
+    // EFFECTS: rotates the active piece of the game a random number of times, moves it to a random column and hard
+    //          drops it
+    private static void dropInRandomColumn(Game game, Random random) {
+        int numRotations = random.nextInt(4);
+        for (int i = 0; i < numRotations; i++) {
+            game.handleInput(Input.ROTATE);
+        }
+        for (int i = 0; i < Game.WIDTH; i++) {
+            game.handleInput(Input.MOVE_LEFT);
+        }
+        int column = random.nextInt(Game.WIDTH);
+        for (int i = 0; i < column; i++) {
+            game.handleInput(Input.MOVE_RIGHT);
+        }
+        game.handleInput(Input.HARD_DROP);
+    }
+}
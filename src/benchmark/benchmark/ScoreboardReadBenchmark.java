@@ -0,0 +1,46 @@
+package benchmark;
+
+import model.ScoreboardEntry;
+import persistence.ScoreboardEntryFileReader;
+import persistence.Writer;
+
+import java.io.File;
+import java.io.PrintWriter;
+
+// Measures ScoreboardEntryFileReader.readInScoreboardEntries on a large scoreboard file
+public class ScoreboardReadBenchmark extends Benchmark {
+    private static final int NUM_ENTRIES = 100000;
+
+    private File file;
+
+    // EFFECTS: creates the benchmark
+    public ScoreboardReadBenchmark() {
+        super("ScoreboardEntryFileReader (" + NUM_ENTRIES + " entries)");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a temporary scoreboard file with NUM_ENTRIES entries
+    @Override
+    public void setUp() throws Exception {
+        file = File.createTempFile("scoreboardBenchmark", ".txt");
+        file.deleteOnExit();
+        Writer writer = new Writer(new PrintWriter(file));
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            writer.write(new ScoreboardEntry(i * 40, "Player " + i, i));
+        }
+        writer.close();
+    }
+
+    // EFFECTS: reads every entry in the file
+    @Override
+    public int runOperation() throws Exception {
+        return ScoreboardEntryFileReader.readInScoreboardEntries(file).getSize();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the temporary file
+    @Override
+    public void tearDown() {
+        file.delete();
+    }
+}
@@ -0,0 +1,145 @@
+package model;
+
+import exceptions.IncorrectBoardSizeException;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+// A list-of-lists view of a game's board, whose tiles are stored as row masks. The r'th element of
+// this list is an arraylist of Game.WIDTH booleans describing row r of the board.
+class BoardView extends AbstractList<ArrayList<Boolean>> {
+    private Game game;
+
+    // EFFECTS: creates a view of the board of the given game
+    BoardView(Game game) {
+        this.game = game;
+    }
+
+    // EFFECTS: returns a read-only copy of row r of the board as an arraylist of booleans. Trying to change the
+    //          returned arraylist throws UnsupportedOperationException, since it would not change the board.
+    //          Throws IndexOutOfBoundsException if r does not represent a row on the board.
+    @Override
+    public ArrayList<Boolean> get(int r) {
+        return new Row(game.getRowMask(r));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces row r of the board with the given row, and returns the row that was replaced.
+    //          Throws IncorrectBoardSizeException if row does not contain Game.WIDTH booleans.
+    //          Throws IndexOutOfBoundsException if r does not represent a row on the board.
+    @Override
+    public ArrayList<Boolean> set(int r, ArrayList<Boolean> row) {
+        if (row.size() != Game.WIDTH) {
+            throw new IncorrectBoardSizeException();
+        }
+        ArrayList<Boolean> previousRow = get(r);
+        game.setRowMask(r, Game.toRowMask(row));
+        return previousRow;
+    }
+
+    // EFFECTS: returns the number of rows on the board
+    @Override
+    public int size() {
+        return Game.HEIGHT;
+    }
+
+    // Represents a copy of a row of the board that cannot be changed. Every method of ArrayList that would change
+    // the row throws UnsupportedOperationException, including those of its iterators and sublists.
+    private static class Row extends ArrayList<Boolean> {
+        // EFFECTS: creates a row of Game.WIDTH booleans, the c'th of which is true if bit c of the mask is set
+        Row(int mask) {
+            super(Game.WIDTH);
+            for (int c = 0; c < Game.WIDTH; c++) {
+                super.add((mask & (1 << c)) != 0);
+            }
+        }
+
+        @Override
+        public Boolean set(int index, Boolean element) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean add(Boolean element) {
+            throw readOnly();
+        }
+
+        @Override
+        public void add(int index, Boolean element) {
+            throw readOnly();
+        }
+
+        @Override
+        public Boolean remove(int index) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            throw readOnly();
+        }
+
+        @Override
+        public void clear() {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Boolean> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends Boolean> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Boolean> filter) {
+            throw readOnly();
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<Boolean> operator) {
+            throw readOnly();
+        }
+
+        @Override
+        public void sort(Comparator<? super Boolean> c) {
+            throw readOnly();
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            throw readOnly();
+        }
+
+        // EFFECTS: returns a read-only view of the given range of this row
+        @Override
+        public List<Boolean> subList(int fromIndex, int toIndex) {
+            return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+        }
+
+        // EFFECTS: returns the exception thrown by every attempt to change the row
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Rows of Game.getBoard() are read-only; change the board "
+                    + "with Game.placeTileAt and Game.removeTileAt, or replace a whole row with set");
+        }
+    }
+}
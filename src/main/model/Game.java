@@ -3,15 +3,19 @@ package model;
 import exceptions.IllegalStartingLevelException;
 import exceptions.IncorrectBoardSizeException;
 import exceptions.NegativeLinesException;
+import model.event.GameEventBus;
+import model.event.GameListener;
 import model.pieces.*;
 
-import java.awt.*;
 import java.util.*;
 import java.util.List;
 
-// Represents a Tetris game. This class is a "subject" in the observer design pattern.
-// Observers are notified whenever a piece cannot move down.
-public class Game extends Observable {
+// Represents a Tetris game. This class is a "subject" in the observer design pattern: registered GameListeners
+// are told when a piece locks, lines are cleared, the level changes, a new piece spawns, and the game ends.
+//
+// The game does not depend on AWT or Swing: it is driven by calling update() to apply gravity and
+// handleInput(Input) to apply the player's actions, so it can run without a GUI.
+public class Game {
     // Number of types of Tetris pieces
     public static final int NUM_TETRIS_PIECES = 7;
 
@@ -19,6 +23,9 @@ public class Game extends Observable {
     public static final int WIDTH = 10;
     public static final int HEIGHT = 20;
 
+    // Row mask of a row whose cells are all occupied. Bit c of a row mask is set if the cell in column c is occupied.
+    public static final int FULL_ROW_MASK = (1 << WIDTH) - 1;
+
     // Points awarded for line clears
     // The values come from the table in the "Original BPS scoring system" section of https://tetris.wiki/Scoring
     public static final int SINGLE_POINTS = 40;
@@ -29,36 +36,30 @@ public class Game extends Observable {
     // The maximum starting level a player can start a game with.
     public static final int MAXIMUM_STARTING_LEVEL = 19;
 
-    // A mapping from the random integers generated by the random number generator to PieceTypes.
-    private static final Map<Integer, PieceType> RANDOM_INT_TO_PIECE_TYPE;
-
-    private Random random;
+    private PieceRandom random;
+    private PieceFactory pieceFactory;
     private Piece activePiece;
     private Piece nextPiece;
-    private List<ArrayList<Boolean>> board;
+    // The board, stored as one row mask per row. Bit c of rows[r] is set if the cell at (c, r) is occupied.
+    private int[] rows;
+    // A list-of-lists view of rows, kept for callers of getBoard()
+    private BoardView boardView;
+    // columnHeights[c] is the height of the stack of locked tiles in column c, i.e. the number of rows between the
+    // bottom of the board and the top of the highest locked tile in column c (0 if column c has no locked tiles)
+    private int[] columnHeights;
+    // Incremented whenever a cell of the board changes
+    private int boardVersion;
+    // The Zobrist hash of the occupied cells of the board (see Zobrist), kept up to date as cells change
+    private long boardHash;
+    // The cells that have changed since the dirty cells were last cleared, as one row mask per row
+    private int[] dirtyRows;
+    // Indices of the rows removed by the most recent line clear, in increasing order
+    private int[] clearedRows;
     private int score;
     private int linesCleared;
     private int startingLevel;
     private boolean gameOver;
-
-    // Initializes the RANDOM_INT_TO_PIECE_TYPE map
-    static {
-        RANDOM_INT_TO_PIECE_TYPE = new HashMap<Integer, PieceType>();
-        RANDOM_INT_TO_PIECE_TYPE.put(0, PieceType.IPIECE);
-        RANDOM_INT_TO_PIECE_TYPE.put(1, PieceType.JPIECE);
-        RANDOM_INT_TO_PIECE_TYPE.put(2, PieceType.LPIECE);
-        RANDOM_INT_TO_PIECE_TYPE.put(3, PieceType.OPIECE);
-        RANDOM_INT_TO_PIECE_TYPE.put(4, PieceType.SPIECE);
-        RANDOM_INT_TO_PIECE_TYPE.put(5, PieceType.TPIECE);
-        RANDOM_INT_TO_PIECE_TYPE.put(6, PieceType.ZPIECE);
-    }
-
-    // Used with the random number generator that chooses which type of piece to make next.
-    // Credit to https://docs.oracle.com/javase/tutorial/java/javaOO/enum.html for the tutorial
-    // on how to make enums.
-    private enum PieceType {
-        IPIECE, JPIECE, LPIECE, OPIECE, SPIECE, TPIECE, ZPIECE;
-    }
+    private GameEventBus eventBus;
 
     // EFFECTS: creates a new Tetris game, where the pieces are randomly generated with
     //          the given seed. The player starts at the given startingLevel.
@@ -76,6 +77,7 @@ public class Game extends Observable {
         }
 
         this.startingLevel = startingLevel;
+        eventBus = new GameEventBus();
         startNewGame(seed);
     }
 
@@ -85,30 +87,67 @@ public class Game extends Observable {
     //          Otherwise, if the game is not over, clears any filled rows and modifies points earned, lines
     //          cleared, and level accordingly. Then, begins dropping a new piece from the top of the board.
     //          If the game is over (because the player topped out), ends the game.
-    //          Notifies observers if the active piece could not move down one row.
+    //          Publishes the resulting events to the listeners if the active piece could not move down one row.
     //
     //          Note: if the game is already over, calling this method does nothing.
     public void update() {
         if (!gameOver) {
             boolean pieceMovedDown = activePiece.moveDown();
             if (!pieceMovedDown) {
-                clearLines();
+                int oldLevel = getLevel();
+                lockActivePiece();
+                int numRowsCleared = clearLines();
                 activePiece = nextPiece;
                 if (!addPieceToBoard(activePiece)) {
                     gameOver = true;
                 }
-                PieceType nextPieceType = RANDOM_INT_TO_PIECE_TYPE.get(random.nextInt(NUM_TETRIS_PIECES));
-                nextPiece = makePiece(nextPieceType);
+                nextPiece = makeRandomPiece(activePiece);
 
-                super.setChanged();
-                super.notifyObservers();
+                publishLockEvents(numRowsCleared, oldLevel);
             }
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: sets the board of this game. Throws an IncorrectBoardSizeException if the
-    //          board does not contain Game.HEIGHT arraylists, each of which contains Game.WIDTH booleans.
+    // EFFECTS: applies the given input to the active piece, and returns true if the active piece moved.
+    //          Rotations and moves that would make the active piece intersect a wall or an occupied cell do nothing.
+    //          A hard drop moves the active piece straight down as far as it can go, then updates the game so that
+    //          the piece locks.
+    //          Listeners are told about every rotation, move and soft drop that moved the active piece.
+    //          Note: if the game is already over, calling this method does nothing and returns false.
+    public boolean handleInput(Input input) {
+        if (gameOver) {
+            return false;
+        }
+        if (input == Input.HARD_DROP) {
+            hardDrop();
+            return true;
+        }
+        boolean moved = moveActivePiece(input);
+        if (moved) {
+            eventBus.firePieceMoved(this, input);
+        }
+        return moved;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rotates, moves or soft drops the active piece as the given input says, and returns true if it moved
+    private boolean moveActivePiece(Input input) {
+        switch (input) {
+            case ROTATE:
+                return activePiece.rotate();
+            case MOVE_LEFT:
+                return activePiece.moveLeft();
+            case MOVE_RIGHT:
+                return activePiece.moveRight();
+            default:
+                return activePiece.moveDown();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the board of this game to a copy of the given board. Throws an IncorrectBoardSizeException if
+    //          the board does not contain Game.HEIGHT arraylists, each of which contains Game.WIDTH booleans.
     public void setBoard(List<ArrayList<Boolean>> board) throws IncorrectBoardSizeException {
         if (board.size() != Game.HEIGHT) {
             throw new IncorrectBoardSizeException();
@@ -118,15 +157,34 @@ public class Game extends Observable {
                 throw new IncorrectBoardSizeException();
             }
         }
-        this.board = board;
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            int mask = toRowMask(board.get(r));
+            dirtyRows[r] |= rows[r] ^ mask;
+            boardHash ^= Zobrist.hashRow(r, rows[r]) ^ Zobrist.hashRow(r, mask);
+            rows[r] = mask;
+        }
+        boardVersion++;
+        updateColumnHeights();
     }
 
     // EFFECTS: returns the board, represented as a list of arraylists of booleans
     //          The c'th element in the r'th arraylist is true if the cell at coordinates
     //          (c, r) is occupied by a tile, and false otherwise (where c and r are indexed
     //          starting from 0).
+    //          The returned list is a view of this game's board: replacing one of its rows with set
+    //          changes the board. The rows it returns are read-only copies of the board at the time they were
+    //          retrieved, so changing a single cell through them throws UnsupportedOperationException instead of
+    //          silently doing nothing; use placeTileAt and removeTileAt, or replace the whole row, instead.
     public List<ArrayList<Boolean>> getBoard() {
-        return board;
+        return boardView;
+    }
+
+    // EFFECTS: returns the row mask of row y of the board. Bit c of the mask is set if the cell
+    //          at coordinates (c, y) is occupied by a tile.
+    //          Throws IndexOutOfBoundsException if y does not represent a row on the board.
+    public int getRowMask(int y) {
+        checkRowInBounds(y);
+        return rows[y];
     }
 
     // EFFECTS: returns true if the board cell at coordinates (x, y) is occupied by a tile. The cell in the upper-left
@@ -134,7 +192,8 @@ public class Game extends Observable {
     //          y-coordinate increases as one travels down.
     //          Throws IndexOutOfBoundsException if the coordinates (x, y) do not represent a cell on the board.
     public boolean isCellOccupied(int x, int y) {
-        return board.get(y).get(x);
+        checkCellInBounds(x, y);
+        return (rows[y] & (1 << x)) != 0;
     }
 
     // MODIFIES: this
@@ -143,7 +202,9 @@ public class Game extends Observable {
     //          increases as one travels down.
     //          Throws IndexOutOfBoundsException if the coordinates (x, y) do not represent a cell on the board.
     public void placeTileAt(int x, int y) {
-        board.get(y).set(x, true);
+        placePieceTileAt(x, y);
+        dirtyRows[y] |= 1 << x;
+        columnHeights[x] = Math.max(columnHeights[x], Game.HEIGHT - y);
     }
 
     // MODIFIES: this
@@ -152,7 +213,139 @@ public class Game extends Observable {
     //          to the right, while the y-coordinate increases as one travels down.
     //          Throws IndexOutOfBoundsException if the coordinates (x, y) do not represent a cell on the board.
     public void removeTileAt(int x, int y) {
-        board.get(y).set(x, false);
+        removePieceTileAt(x, y);
+        dirtyRows[y] |= 1 << x;
+        if (columnHeights[x] == Game.HEIGHT - y) {
+            updateColumnHeight(x, y + 1, true);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as placeTileAt, except that the tile is treated as a tile of a piece that has not locked yet:
+    //          the column heights do not change and the cell is not marked as dirty (see getDirtyRowMask).
+    //          Pieces use this method to move their tiles around the board.
+    //          Throws IndexOutOfBoundsException if the coordinates (x, y) do not represent a cell on the board.
+    public void placePieceTileAt(int x, int y) {
+        checkCellInBounds(x, y);
+        if ((rows[y] & (1 << x)) == 0) {
+            rows[y] |= 1 << x;
+            boardHash ^= Zobrist.getCellKey(x, y);
+        }
+        boardVersion++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as removeTileAt, except that the tile is treated as a tile of a piece that has not locked yet:
+    //          the column heights do not change and the cell is not marked as dirty (see getDirtyRowMask).
+    //          Pieces use this method to move their tiles around the board.
+    //          Throws IndexOutOfBoundsException if the coordinates (x, y) do not represent a cell on the board.
+    public void removePieceTileAt(int x, int y) {
+        checkCellInBounds(x, y);
+        if ((rows[y] & (1 << x)) != 0) {
+            rows[y] &= ~(1 << x);
+            boardHash ^= Zobrist.getCellKey(x, y);
+        }
+        boardVersion++;
+    }
+
+    // EFFECTS: returns the height of the stack of locked tiles in column x: the number of rows between the bottom of
+    //          the board and the top of the highest locked tile in that column, or 0 if the column has none.
+    //          Tiles of pieces that have not locked yet (see placePieceTileAt) are not counted, and neither are
+    //          tiles that setBoard or a row of getBoard puts in the cells of the active piece, since those cells
+    //          belong to the piece until it locks.
+    //          Throws IndexOutOfBoundsException if x does not represent a column on the board.
+    public int getColumnHeight(int x) {
+        checkCellInBounds(x, 0);
+        return columnHeights[x];
+    }
+
+    // EFFECTS: returns a number that changes whenever any cell of the board changes. Comparing the numbers returned
+    //          by two calls tells whether the board may have changed in between.
+    public int getBoardVersion() {
+        return boardVersion;
+    }
+
+    // EFFECTS: returns the Zobrist hash of the board (see Zobrist): the XOR of the keys of every occupied cell,
+    //          including the cells of the active piece. Equal boards have equal hashes. The hash is kept up to date
+    //          as cells change, so this takes constant time.
+    public long getBoardHash() {
+        return boardHash;
+    }
+
+    // EFFECTS: returns the Zobrist hash of the board without the tiles of the active piece, which is the hash of
+    //          the board the active piece will lock into. Takes constant time.
+    //          The game must not be over, since the active piece may overlap locked tiles once it is.
+    public long getLockedBoardHash() {
+        long hash = boardHash;
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            hash ^= Zobrist.getCellKey(activePiece.getTileX(i), activePiece.getTileY(i));
+        }
+        return hash;
+    }
+
+    // MODIFIES: scratch
+    // EFFECTS: makes scratch a copy of this game that plays on independently: its board, active and next pieces,
+    //          score, lines cleared, starting level, whether it is over, and its random number generator, so that
+    //          scratch draws the same pieces as this game from now on. Takes O(Game.HEIGHT) time, and does not
+    //          allocate once scratch has made pieces of every shape. Any game can be reused as scratch.
+    //          scratch keeps its own listeners, which are not told about the copy. Does nothing if scratch is this.
+    public void copyInto(Game scratch) {
+        if (scratch == this) {
+            return;
+        }
+        copyBoardInto(scratch);
+        scratch.activePiece = scratch.pieceFactory.makePiece(activePiece.getShape(), null);
+        scratch.activePiece.copyPositionFrom(activePiece);
+        scratch.nextPiece = scratch.pieceFactory.makePiece(nextPiece.getShape(), scratch.activePiece);
+        scratch.nextPiece.copyPositionFrom(nextPiece);
+        random.copyInto(scratch.random);
+        scratch.score = score;
+        scratch.linesCleared = linesCleared;
+        scratch.startingLevel = startingLevel;
+        scratch.gameOver = gameOver;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers listener to receive the events of this game.
+    //          Throws NullPointerException if listener is null.
+    public void addListener(GameListener listener) {
+        eventBus.addListener(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops listener from receiving the events of this game, if it was registered
+    public void removeListener(GameListener listener) {
+        eventBus.removeListener(listener);
+    }
+
+    // EFFECTS: returns the number of listeners registered with this game
+    public int getNumListeners() {
+        return eventBus.getNumListeners();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unregisters every listener of this game, so that the game no longer keeps the views that listened to
+    //          it alive. The game can still be read and played, but its events are not published to anyone until a
+    //          listener is registered again.
+    public void dispose() {
+        eventBus.removeAllListeners();
+    }
+
+    // EFFECTS: returns the row mask of the cells of row y that have changed since the last call to clearDirtyCells
+    //          (or since the game was created). Bit c of the mask is set if the cell at (c, y) has changed.
+    //          A cell that changed and then changed back is still counted. Moves of the active piece are not
+    //          counted, since a renderer already compares the piece's tiles from one frame to the next.
+    //          Throws IndexOutOfBoundsException if y does not represent a row on the board.
+    public int getDirtyRowMask(int y) {
+        checkRowInBounds(y);
+        return dirtyRows[y];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks every cell of the board as unchanged. A renderer calls this after it has captured the cells
+    //          that changed, so that the next frame only needs to redraw the cells changed after that.
+    public void clearDirtyCells() {
+        Arrays.fill(dirtyRows, 0);
     }
 
     // EFFECTS: returns the active piece
@@ -198,6 +391,25 @@ public class Game extends Observable {
         }
     }
 
+    // EFFECTS: returns the number of milliseconds between consecutive gravity updates at the current level.
+    //          We will refer to this number as MSPU (milliseconds per update). Generally,
+    //          as the game level increases, the MSPU decreases in order to make pieces
+    //          fall faster. The MSPU decreases linearly from levels 0 to 18, is held constant
+    //          between levels 19 and 28, and reaches its lowest value at level 29.
+    //
+    //          The MSPU values are very loosely based on the "frames per gridcell" values given
+    //          in the Details section of the following webpage: https://tetris.wiki/Tetris_(NES,_Nintendo)
+    public int getMillisecondsPerUpdate() {
+        int level = getLevel();
+        if (0 <= level && level <= 18) {
+            return 1000 - 52 * level;
+        } else if (19 <= level && level <= 28) {
+            return 40;
+        } else {
+            return 20;
+        }
+    }
+
     // EFFECTS: returns true if the game is over, false otherwise
     public boolean isGameOver() {
         return gameOver;
@@ -217,18 +429,44 @@ public class Game extends Observable {
         return blankBoard;
     }
 
+    // EFFECTS: returns the row mask of the given row of booleans. Bit c of the mask is set if the c'th
+    //          element of the row is true.
+    static int toRowMask(List<Boolean> row) {
+        int mask = 0;
+        for (int c = 0; c < row.size(); c++) {
+            if (row.get(c)) {
+                mask |= 1 << c;
+            }
+        }
+        return mask;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets row y of the board to the given row mask
+    void setRowMask(int y, int mask) {
+        checkRowInBounds(y);
+        dirtyRows[y] |= rows[y] ^ (mask & FULL_ROW_MASK);
+        boardHash ^= Zobrist.hashRow(y, rows[y]) ^ Zobrist.hashRow(y, mask);
+        rows[y] = mask & FULL_ROW_MASK;
+        boardVersion++;
+        updateColumnHeights();
+    }
+
     // MODIFIES: this
     // EFFECTS: Starts a new game. Pieces are randomly generated using the given seed.
     //          Randomly generates an active piece and a next piece. The active piece
     //          spawns at the top of the board.
     private void startNewGame(long seed) {
-        random = new Random(seed);
-        PieceType pieceType1 = RANDOM_INT_TO_PIECE_TYPE.get(random.nextInt(NUM_TETRIS_PIECES));
-        activePiece = makePiece(pieceType1);
-
-        PieceType pieceType2 = RANDOM_INT_TO_PIECE_TYPE.get(random.nextInt(NUM_TETRIS_PIECES));
-        nextPiece = makePiece(pieceType2);
-        board = getBlankBoard();
+        random = new PieceRandom(seed);
+        pieceFactory = new PieceFactory(this);
+        activePiece = makeRandomPiece(null);
+        nextPiece = makeRandomPiece(activePiece);
+        rows = new int[Game.HEIGHT];
+        boardHash = 0;
+        boardView = new BoardView(this);
+        columnHeights = new int[Game.WIDTH];
+        dirtyRows = new int[Game.HEIGHT];
+        clearedRows = new int[PieceShape.BOX_SIDE_LENGTH];
         score = 0;
         linesCleared = 0;
         gameOver = false;
@@ -236,24 +474,22 @@ public class Game extends Observable {
         addPieceToBoard(activePiece);
     }
 
-    // EFFECTS: returns a new piece in this game that corresponds to the given PieceType
-    //          (for example, if pieceType == PieceType.IPIECE, then returns a new IPiece).
-    private Piece makePiece(PieceType pieceType) {
-        if (pieceType == PieceType.IPIECE) {
-            return new IPiece(this);
-        } else if (pieceType == PieceType.JPIECE) {
-            return new JPiece(this);
-        } else if (pieceType == PieceType.LPIECE) {
-            return new LPiece(this);
-        } else if (pieceType == PieceType.OPIECE) {
-            return new OPiece(this);
-        } else if (pieceType == PieceType.SPIECE) {
-            return new SPiece(this);
-        } else if (pieceType == PieceType.TPIECE) {
-            return new TPiece(this);
-        } else {
-            return new ZPiece(this);
+    // MODIFIES: this
+    // EFFECTS: returns a piece of a randomly chosen shape at the top of the board, which is not the given piece in
+    //          use (which may be null). The piece may be one that this game used before.
+    private Piece makeRandomPiece(Piece pieceInUse) {
+        return pieceFactory.makePiece(PieceFactory.getShape(random.nextInt(NUM_TETRIS_PIECES)), pieceInUse);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: immediately drops the active piece straight down as far as it can go, then updates the game.
+    //          In Tetris, we call this action a "hard drop".
+    private void hardDrop() {
+        boolean movedDown = activePiece.moveDown();
+        while (movedDown) {
+            movedDown = activePiece.moveDown();
         }
+        update();
     }
 
     // MODIFIES: this
@@ -263,36 +499,89 @@ public class Game extends Observable {
     //          on the board (within the bounds of the board).
     private boolean addPieceToBoard(Piece piece) {
         boolean noIntersection = true;
-        for (Point p : piece.getTileLocations()) {
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            int x = piece.getTileX(i);
+            int y = piece.getTileY(i);
             // The addPieceToBoard method is only called when spawning a new piece into the board.
             // The only reason a piece could fail to spawn is if it is forced to intersect
             // with a tile.
-            if (board.get(p.y).get(p.x)) {
+            if (isCellOccupied(x, y)) {
                 noIntersection = false;
             }
-            board.get(p.y).set(p.x, true);
+            placePieceTileAt(x, y);
         }
         return noIntersection;
     }
 
     // MODIFIES: this
-    // EFFECTS: clears any filled rows and moves the tiles in above rows downward
-    //          by the appropriate number of rows. In particular, if n rows below a particular
-    //          row, R, are cleared, then R will be moved down n rows.
-    //          Changes the number of lines cleared and the player's score accordingly.
-    private void clearLines() {
-        List<Integer> rowsCleared = getFilledRowsIndices();
-
-        for (int i = 0; i < rowsCleared.size(); i++) {
-            ArrayList<Boolean> blankRow = new ArrayList<Boolean>();
-            for (int j = 0; j < Game.WIDTH; j++) {
-                blankRow.add(false);
+    // EFFECTS: adds the tiles of the active piece, which can no longer move down, to the column heights
+    private void lockActivePiece() {
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            int x = activePiece.getTileX(i);
+            columnHeights[x] = Math.max(columnHeights[x], Game.HEIGHT - activePiece.getTileY(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the height of every column from the locked tiles on the board, which are all of its tiles
+    //          except those in the cells of the active piece
+    private void updateColumnHeights() {
+        int columnsFound = 0;
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            int newColumns = rows[r] & ~getActivePieceRowMask(r) & ~columnsFound;
+            for (int c = 0; c < Game.WIDTH; c++) {
+                if ((newColumns & (1 << c)) != 0) {
+                    columnHeights[c] = Game.HEIGHT - r;
+                }
+            }
+            columnsFound |= newColumns;
+        }
+        for (int c = 0; c < Game.WIDTH; c++) {
+            if ((columnsFound & (1 << c)) == 0) {
+                columnHeights[c] = 0;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the height of column x to the height of its highest tile at or below row fromRow. If
+    //          skipActivePiece is true, the tiles in the cells of the active piece, which has not locked yet, are not
+    //          counted; otherwise the active piece has locked, and every tile is counted.
+    private void updateColumnHeight(int x, int fromRow, boolean skipActivePiece) {
+        columnHeights[x] = 0;
+        for (int r = fromRow; r < Game.HEIGHT; r++) {
+            int lockedTiles = skipActivePiece ? rows[r] & ~getActivePieceRowMask(r) : rows[r];
+            if ((lockedTiles & (1 << x)) != 0) {
+                columnHeights[x] = Game.HEIGHT - r;
+                return;
+            }
+        }
+    }
+
+    // EFFECTS: returns the mask of the cells of row r occupied by the active piece
+    private int getActivePieceRowMask(int r) {
+        int mask = 0;
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            if (activePiece.getTileY(i) == r) {
+                mask |= 1 << activePiece.getTileX(i);
             }
-            board.remove((int) rowsCleared.get(i));
-            board.add(0, blankRow);
+        }
+        return mask;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: clears any filled rows among the rows occupied by the active piece, which has just locked, and moves
+    //          the tiles in above rows downward by the appropriate number of rows. In particular, if n rows below a
+    //          particular row, R, are cleared, then R will be moved down n rows.
+    //          Changes the number of lines cleared and the player's score accordingly, and returns the number of
+    //          rows cleared. The indices of the cleared rows are left in clearedRows.
+    private int clearLines() {
+        // A row can only become filled when a piece locks into it, so only the active piece's rows are checked
+        int numRowsCleared = findFilledRows();
+        if (numRowsCleared > 0) {
+            removeFilledRows(numRowsCleared);
         }
 
-        int numRowsCleared = rowsCleared.size();
         linesCleared += numRowsCleared;
         if (numRowsCleared == 1) {
             score += SINGLE_POINTS;
@@ -303,27 +592,119 @@ public class Game extends Observable {
         } else if (numRowsCleared == 4) {
             score += TETRIS_POINTS;
         }
+        return numRowsCleared;
     }
 
-    // EFFECTS: returns a list of indices of rows that are currently completely
-    //          filled with tiles
-    private List<Integer> getFilledRowsIndices() {
-        List<Integer> rowsCleared = new ArrayList<Integer>();
+    // EFFECTS: publishes the events caused by the active piece locking, given the number of rows the lock cleared
+    //          and the level before the lock
+    private void publishLockEvents(int numRowsCleared, int oldLevel) {
+        eventBus.firePieceLocked(this);
+        if (numRowsCleared > 0) {
+            eventBus.fireLinesCleared(this, clearedRows, numRowsCleared);
+        }
+        int newLevel = getLevel();
+        if (newLevel != oldLevel) {
+            eventBus.fireLevelChanged(this, newLevel);
+        }
+        if (gameOver) {
+            eventBus.fireGameOver(this);
+        } else {
+            eventBus.firePieceSpawned(this, activePiece);
+        }
+    }
 
-        for (int i = 0; i < Game.HEIGHT; i++) {
-            List<Boolean> row = board.get(i);
-            boolean rowCompletelyFilled = true;
-            for (Boolean cellOccupied : row) {
-                if (!cellOccupied) {
-                    rowCompletelyFilled = false;
-                    break;
-                }
+    // MODIFIES: this
+    // EFFECTS: stores the indices of the filled rows occupied by the active piece in clearedRows, in increasing order,
+    //          and returns the number of such rows
+    private int findFilledRows() {
+        int topRow = Game.HEIGHT;
+        int bottomRow = -1;
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            topRow = Math.min(topRow, activePiece.getTileY(i));
+            bottomRow = Math.max(bottomRow, activePiece.getTileY(i));
+        }
+
+        int numFilledRows = 0;
+        for (int r = topRow; r <= bottomRow; r++) {
+            if (rows[r] == FULL_ROW_MASK) {
+                clearedRows[numFilledRows] = r;
+                numFilledRows++;
             }
-            if (rowCompletelyFilled) {
-                rowsCleared.add(i);
+        }
+        return numFilledRows;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the first numRowsCleared rows listed in clearedRows from the board in a single pass, moving
+    //          the rows above them down and filling the top of the board with empty rows.
+    //          Then updates the column heights.
+    private void removeFilledRows(int numRowsCleared) {
+        int nextClearedRow = numRowsCleared - 1;
+        int destination = clearedRows[nextClearedRow];
+        // Every row from the top of the board down to the lowest cleared row may change, so their cells are taken
+        // out of the hash before they move and put back in afterwards
+        boardHash ^= hashRowsAbove(destination);
+        for (int r = destination; r >= 0; r--) {
+            if (nextClearedRow >= 0 && r == clearedRows[nextClearedRow]) {
+                nextClearedRow--;
+            } else {
+                rows[destination] = rows[r];
+                destination--;
             }
         }
+        Arrays.fill(rows, 0, destination + 1, 0);
+        // Every row from the top of the board down to the lowest cleared row may have moved
+        for (int r = clearedRows[numRowsCleared - 1]; r >= 0; r--) {
+            dirtyRows[r] = FULL_ROW_MASK;
+            boardHash ^= Zobrist.hashRow(r, rows[r]);
+        }
+        boardVersion++;
+
+        // Every cleared row was filled, so it was at or below the top of every column
+        for (int c = 0; c < Game.WIDTH; c++) {
+            columnHeights[c] -= numRowsCleared;
+            if (columnHeights[c] > 0 && (rows[Game.HEIGHT - columnHeights[c]] & (1 << c)) == 0) {
+                updateColumnHeight(c, Game.HEIGHT - columnHeights[c], false);
+            }
+        }
+    }
+
+    // MODIFIES: scratch
+    // EFFECTS: copies the board of this game, which includes the tiles of the active piece, and its column heights
+    //          and hash into scratch, and marks the cells of scratch that changed as dirty
+    private void copyBoardInto(Game scratch) {
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            scratch.dirtyRows[r] |= scratch.rows[r] ^ rows[r];
+        }
+        System.arraycopy(rows, 0, scratch.rows, 0, Game.HEIGHT);
+        System.arraycopy(columnHeights, 0, scratch.columnHeights, 0, Game.WIDTH);
+        System.arraycopy(clearedRows, 0, scratch.clearedRows, 0, clearedRows.length);
+        scratch.boardHash = boardHash;
+        // The version is not copied, since the pieces of scratch cache hard drop distances by its own versions
+        scratch.boardVersion++;
+    }
 
-        return rowsCleared;
+    // EFFECTS: returns the XOR of the Zobrist keys of the occupied cells in rows 0 to lastRow
+    private long hashRowsAbove(int lastRow) {
+        long hash = 0;
+        for (int r = 0; r <= lastRow; r++) {
+            hash ^= Zobrist.hashRow(r, rows[r]);
+        }
+        return hash;
+    }
+
+    // EFFECTS: throws IndexOutOfBoundsException if the coordinates (x, y) do not represent a cell on the board
+    private static void checkCellInBounds(int x, int y) {
+        if (x < 0 || x >= Game.WIDTH) {
+            throw new IndexOutOfBoundsException("Column " + x + " is not on the board");
+        }
+        checkRowInBounds(y);
+    }
+
+    // EFFECTS: throws IndexOutOfBoundsException if y does not represent a row on the board
+    private static void checkRowInBounds(int y) {
+        if (y < 0 || y >= Game.HEIGHT) {
+            throw new IndexOutOfBoundsException("Row " + y + " is not on the board");
+        }
     }
 }
@@ -0,0 +1,15 @@
+package model;
+
+// Represents an action a player can take on the active piece of a game
+public enum Input {
+    // Rotates the active piece 90 degrees clockwise
+    ROTATE,
+    // Moves the active piece one column left
+    MOVE_LEFT,
+    // Moves the active piece one column right
+    MOVE_RIGHT,
+    // Moves the active piece one row down
+    SOFT_DROP,
+    // Drops the active piece straight down as far as it can go, then locks it
+    HARD_DROP
+}
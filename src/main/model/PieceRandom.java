@@ -0,0 +1,50 @@
+package model;
+
+// The random number generator that chooses a game's pieces. It is the linear congruential generator of
+// java.util.Random, and draws exactly the numbers a java.util.Random with the same seed would, so games keep their
+// piece sequences. Unlike java.util.Random, its state can be copied into another generator (see Game.copyInto),
+// which then draws the same numbers as this one from that point on.
+final class PieceRandom {
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long seed;
+
+    // EFFECTS: creates a generator that draws the numbers a java.util.Random made with the given seed draws
+    PieceRandom(long seed) {
+        this.seed = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a random number from 0 to bound - 1, the same as java.util.Random.nextInt(bound).
+    //          bound must be positive.
+    int nextInt(int bound) {
+        int r = next(31);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31);
+        }
+        // Numbers from the incomplete last multiple of bound are drawn again, so every result is equally likely
+        int u = r;
+        r = u % bound;
+        while (u - r + m < 0) {
+            u = next(31);
+            r = u % bound;
+        }
+        return r;
+    }
+
+    // MODIFIES: other
+    // EFFECTS: makes other draw the same numbers as this generator from now on
+    void copyInto(PieceRandom other) {
+        other.seed = seed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances the generator and returns its given number of highest bits
+    private int next(int bits) {
+        seed = (seed * MULTIPLIER + ADDEND) & MASK;
+        return (int) (seed >>> (48 - bits));
+    }
+}
@@ -0,0 +1,58 @@
+package model;
+
+// The keys of the Zobrist hash of a board: every cell of the board has a random 64-bit key, and the hash of a board
+// is the XOR of the keys of its occupied cells. Filling or emptying a cell changes the hash by XORing in the cell's
+// key, so a board's hash can be kept up to date as tiles are placed and removed, without rereading the board.
+// Two different boards have the same hash with a probability of about 2^-64.
+//
+// The keys are generated from a fixed seed, so the same board has the same hash in every run of the program.
+public final class Zobrist {
+    private static final long SEED = 0x5EED7E7215L;
+
+    // CELL_KEYS[y * Game.WIDTH + x] is the key of the cell at (x, y)
+    private static final long[] CELL_KEYS = makeCellKeys();
+
+    // EFFECTS: this class only has static members, so no instance can be made
+    private Zobrist() {
+    }
+
+    // EFFECTS: returns the key of the cell at (x, y). The coordinates must be on the board.
+    public static long getCellKey(int x, int y) {
+        return CELL_KEYS[y * Game.WIDTH + x];
+    }
+
+    // EFFECTS: returns the XOR of the keys of the occupied cells of row y, whose row mask is the given one
+    public static long hashRow(int y, int rowMask) {
+        long hash = 0;
+        int remaining = rowMask & Game.FULL_ROW_MASK;
+        while (remaining != 0) {
+            int x = Integer.numberOfTrailingZeros(remaining);
+            hash ^= CELL_KEYS[y * Game.WIDTH + x];
+            remaining &= remaining - 1;
+        }
+        return hash;
+    }
+
+    // EFFECTS: returns the hash of the board with the given row masks, one per row from the top
+    public static long hashRows(int[] rowMasks) {
+        long hash = 0;
+        for (int y = 0; y < Game.HEIGHT; y++) {
+            hash ^= hashRow(y, rowMasks[y]);
+        }
+        return hash;
+    }
+
+    // EFFECTS: returns a random key for every cell, generated with SplitMix64 from SEED
+    private static long[] makeCellKeys() {
+        long[] keys = new long[Game.WIDTH * Game.HEIGHT];
+        long state = SEED;
+        for (int i = 0; i < keys.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            long key = state;
+            key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+            key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+            keys[i] = key ^ (key >>> 31);
+        }
+        return keys;
+    }
+}
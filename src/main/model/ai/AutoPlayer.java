@@ -0,0 +1,76 @@
+package model.ai;
+
+import model.Game;
+import model.Input;
+import model.event.GameAdapter;
+import model.loop.GameLoop;
+import model.pieces.Piece;
+import model.simulation.Distribution;
+
+// Plays a game running on a game loop with a heuristic bot, in place of the keyboard. Whenever a piece spawns, the
+// bot chooses a placement for it on the loop thread, and the inputs that take the piece there are queued on the loop
+// to be applied at the start of the next tick. The soft drops at the end of the path are left out, so the piece
+// falls the rest of the way under gravity, like a piece moved by a player.
+//
+// Since the loop takes key events from one thread only, the game's keys must not also be bound to the keyboard.
+// The inputs queued while the loop is paused are discarded (see GameLoop.pause), so a piece that spawns just before
+// a pause falls where gravity takes it.
+public class AutoPlayer extends GameAdapter {
+    // Decision times are counted in buckets of 10 microseconds, up to 20 milliseconds: the time between gravity
+    // updates at the fastest level
+    private static final int DECISION_TIME_BUCKET_MICROSECONDS = 10;
+    private static final int NUM_DECISION_TIME_BUCKETS = 2000;
+
+    private final GameLoop gameLoop;
+    private final HeuristicBot bot;
+    private final Distribution decisionTimes;
+
+    // EFFECTS: creates an auto player that plays the game run by the given loop with the given bot
+    public AutoPlayer(GameLoop gameLoop, HeuristicBot bot) {
+        this.gameLoop = gameLoop;
+        this.bot = bot;
+        decisionTimes = new Distribution(DECISION_TIME_BUCKET_MICROSECONDS, NUM_DECISION_TIME_BUCKETS);
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: starts playing the given game, which must be the one the loop runs: plans the path of its active
+    //          piece now, and of every piece that spawns from now on. Must be called before the loop is started.
+    public void start(Game game) {
+        game.addListener(this);
+        play(game);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plans the path of the piece that spawned and queues its inputs on the loop
+    @Override
+    public void pieceSpawned(Game game, Piece piece) {
+        play(game);
+    }
+
+    // EFFECTS: returns a copy of the times, in microseconds, that the bot took to choose each placement
+    public synchronized Distribution getDecisionTimes() {
+        Distribution copy = new Distribution(DECISION_TIME_BUCKET_MICROSECONDS, NUM_DECISION_TIME_BUCKETS);
+        copy.merge(decisionTimes);
+        return copy;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: has the bot choose a placement for the game's active piece, and queues the inputs of its path
+    //          without the soft drops at the end
+    private void play(Game game) {
+        long startTime = System.nanoTime();
+        if (bot.choosePlacement(game) == HeuristicBot.NO_PLACEMENT) {
+            return;
+        }
+        synchronized (this) {
+            decisionTimes.add((int) ((System.nanoTime() - startTime) / 1000));
+        }
+        int length = bot.getPlanLength();
+        while (length > 0 && bot.getPlanInput(length - 1) == Input.SOFT_DROP) {
+            length--;
+        }
+        for (int i = 0; i < length; i++) {
+            gameLoop.submitInput(bot.getPlanInput(i));
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package model.ai;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+import model.simulation.InputPolicy;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// A bot that plans two pieces ahead: it places the active piece in every way it can reach, then places the next
+// piece in every way it can reach on each of the resulting boards, and chooses the placement of the active piece
+// that leads to the best board after both. Boards are judged by a heuristic bot's evaluation, counting the lines
+// cleared by both pieces.
+//
+// The search is a beam search: after each piece, only the beamWidth best boards are expanded with the next piece.
+// The boards of a beam are split into a fixed number of chunks, and the chunks are expanded in parallel on a
+// fork/join pool. Each chunk has its own placement generator and its own arrays for the boards it makes, which are
+// kept from one search to the next, so the threads share nothing while they expand. The children are then merged
+// on the calling thread: a child whose board has already been made by another path (for example, the same two
+// pieces placed in the other order) is dropped by looking up its 64-bit board hash in a LongHashSet, and the best
+// of the rest form the next beam. Since the chunks and their order do not depend on which threads run them, the
+// bot chooses the same placements on a pool of any size.
+//
+// The bot may be given a TranspositionTable to share between its chunks, which caches the part of each board's
+// score that depends only on its tiles, so a board that is reached again, by another path or in a later search, is
+// not evaluated again. Cached values are exact, so the bot chooses the same placements with or without a table.
+public class BeamSearchBot implements InputPolicy {
+    public static final int DEFAULT_BEAM_WIDTH = 32;
+
+    // Returned by choosePlacement when the piece has nowhere to go
+    public static final int NO_PLACEMENT = HeuristicBot.NO_PLACEMENT;
+
+    // Number of chunks the beam is split into per thread of the pool, so that a thread that finishes its chunks
+    // early can take chunks from the others
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final int beamWidth;
+    private final HeuristicBot evaluator;
+    private final TranspositionTable table;
+
+    private final PlacementGenerator rootGenerator;
+    private final int[] rootRows;
+
+    // The beam being expanded, and the beam its best children form
+    private Beam beam;
+    private Beam nextBeam;
+
+    // The chunks the beam is expanded in, and the piece they place
+    private final Chunk[] chunks;
+    private Piece levelPiece;
+
+    // The boards kept from the current expansion, and a min-heap of the best children that are not duplicates, as
+    // a chunk and the index of the child in it
+    private final LongHashSet seenBoards;
+    private final double[] heapScores;
+    private final int[] heapChunks;
+    private final int[] heapChildren;
+    private int heapSize;
+
+    private long numNodes;
+    private long numDuplicates;
+
+    private final Input[] plan;
+    private int planLength;
+
+    // EFFECTS: creates a bot that searches on the given pool, keeping the given number of boards after each piece,
+    //          and judges boards by the default weights of HeuristicBot.
+    //          Throws IllegalArgumentException if beamWidth < 1.
+    public BeamSearchBot(ForkJoinPool pool, int beamWidth) {
+        this(pool, beamWidth, new HeuristicBot());
+    }
+
+    // EFFECTS: creates a bot that searches on the given pool, keeping the given number of boards after each piece,
+    //          and judges boards with the given bot's evaluation.
+    //          Throws IllegalArgumentException if beamWidth < 1.
+    public BeamSearchBot(ForkJoinPool pool, int beamWidth, HeuristicBot evaluator) {
+        this(pool, beamWidth, evaluator, null);
+    }
+
+    // EFFECTS: creates a bot that searches on the given pool, keeping the given number of boards after each piece,
+    //          and judges boards with the given bot's evaluation, looking them up in the given table first and
+    //          storing them there. The table may be null, in which case every board is evaluated. A table must only
+    //          be shared by bots that have evaluators with the same weights.
+    //          Throws IllegalArgumentException if beamWidth < 1.
+    public BeamSearchBot(ForkJoinPool pool, int beamWidth, HeuristicBot evaluator, TranspositionTable table) {
+        if (beamWidth < 1) {
+            throw new IllegalArgumentException("The beam must hold at least one board");
+        }
+        this.pool = pool;
+        this.beamWidth = beamWidth;
+        this.evaluator = evaluator;
+        this.table = table;
+        rootGenerator = new PlacementGenerator();
+        rootRows = new int[Game.HEIGHT];
+        beam = new Beam(beamWidth);
+        nextBeam = new Beam(beamWidth);
+        chunks = new Chunk[pool.getParallelism() * CHUNKS_PER_THREAD];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk(evaluator, table);
+        }
+        seenBoards = new LongHashSet(beamWidth * 64);
+        heapScores = new double[beamWidth];
+        heapChunks = new int[beamWidth];
+        heapChildren = new int[beamWidth];
+        plan = new Input[PlacementGenerator.NUM_STATES];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: chooses the placement of the game's active piece that leads to the best board once the next piece is
+    //          placed too, plans the inputs that take the active piece there (see getPlanLength and getPlanInput),
+    //          and returns the placement's state (see PlacementGenerator.packState). If the next piece cannot be
+    //          placed after any placement, the best board after the active piece alone is chosen. Returns
+    //          NO_PLACEMENT and plans no inputs if the game is over or the active piece has nowhere to go. The game
+    //          is not changed.
+    public int choosePlacement(Game game) {
+        planLength = 0;
+        if (game.isGameOver()) {
+            return NO_PLACEMENT;
+        }
+        PlacementGenerator.getLockedRows(game, rootRows);
+        beam.setRoot(rootRows);
+        if (!expand(game.getActivePiece())) {
+            return NO_PLACEMENT;
+        }
+        expand(game.getNextPiece());
+        int placement = beam.roots[beam.getBest()];
+        rootGenerator.generate(game);
+        planLength = rootGenerator.getInputs(placement, plan);
+        return placement;
+    }
+
+    // EFFECTS: returns the number of inputs planned by the latest choosePlacement
+    public int getPlanLength() {
+        return planLength;
+    }
+
+    // EFFECTS: returns the i'th input planned by the latest choosePlacement, where 0 <= i < getPlanLength()
+    public Input getPlanInput(int i) {
+        if (i >= planLength) {
+            throw new IndexOutOfBoundsException("Input " + i + " of " + planLength);
+        }
+        return plan[i];
+    }
+
+    // EFFECTS: returns the number of boards the bot has made and evaluated in all of its searches
+    public long getNumNodes() {
+        return numNodes;
+    }
+
+    // EFFECTS: returns the number of boards the bot has dropped because another path had already made them
+    public long getNumDuplicates() {
+        return numDuplicates;
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: chooses a placement for the active piece and gives the game the inputs that move the piece there,
+    //          so that the next update locks it. Does nothing if the game is over.
+    @Override
+    public void act(Game game) {
+        choosePlacement(game);
+        for (int i = 0; i < planLength; i++) {
+            game.handleInput(plan[i]);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: places a piece of the given piece's shape, starting where the piece is, in every way it can reach on
+    //          every board of the beam, and replaces the beam with the best children that are not duplicates.
+    //          Returns true if there were any children; otherwise returns false and keeps the beam.
+    private boolean expand(Piece piece) {
+        levelPiece = piece;
+        pool.invoke(new ExpandTask(0, chunks.length));
+        seenBoards.clear();
+        heapSize = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            numNodes += chunk.size;
+            for (int i = 0; i < chunk.size; i++) {
+                if (seenBoards.add(chunk.hashes[i])) {
+                    offer(chunk.scores[i], c, i);
+                } else {
+                    numDuplicates++;
+                }
+            }
+        }
+        if (heapSize == 0) {
+            return false;
+        }
+        fillNextBeam();
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the children in the heap the new beam
+    private void fillNextBeam() {
+        nextBeam.size = heapSize;
+        for (int k = 0; k < heapSize; k++) {
+            Chunk chunk = chunks[heapChunks[k]];
+            int child = heapChildren[k];
+            int parentRoot = beam.roots[chunk.parents[child]];
+            nextBeam.boards[k].copyFrom(chunk.boards[child]);
+            nextBeam.roots[k] = parentRoot == NO_PLACEMENT ? chunk.placements[child] : parentRoot;
+            nextBeam.lines[k] = chunk.lines[child];
+            nextBeam.scores[k] = heapScores[k];
+        }
+        Beam oldBeam = beam;
+        beam = nextBeam;
+        nextBeam = oldBeam;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given child to the heap if the heap is not full, or replaces the worst child in it if the
+    //          given child has a higher score
+    private void offer(double score, int chunk, int child) {
+        if (heapSize < beamWidth) {
+            int k = heapSize++;
+            setHeapEntry(k, score, chunk, child);
+            while (k > 0 && heapScores[(k - 1) / 2] > heapScores[k]) {
+                swapHeapEntries(k, (k - 1) / 2);
+                k = (k - 1) / 2;
+            }
+        } else if (score > heapScores[0]) {
+            setHeapEntry(0, score, chunk, child);
+            int k = 0;
+            int smallest = getSmallestOfFamily(k);
+            while (smallest != k) {
+                swapHeapEntries(k, smallest);
+                k = smallest;
+                smallest = getSmallestOfFamily(k);
+            }
+        }
+    }
+
+    // EFFECTS: returns whichever of heap entry k and its children has the lowest score, preferring k
+    private int getSmallestOfFamily(int k) {
+        int smallest = k;
+        for (int child = 2 * k + 1; child <= 2 * k + 2 && child < heapSize; child++) {
+            if (heapScores[child] < heapScores[smallest]) {
+                smallest = child;
+            }
+        }
+        return smallest;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets heap entry k to the given child
+    private void setHeapEntry(int k, double score, int chunk, int child) {
+        heapScores[k] = score;
+        heapChunks[k] = chunk;
+        heapChildren[k] = child;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: swaps heap entries i and j
+    private void swapHeapEntries(int i, int j) {
+        double score = heapScores[i];
+        int chunk = heapChunks[i];
+        int child = heapChildren[i];
+        setHeapEntry(i, heapScores[j], heapChunks[j], heapChildren[j]);
+        setHeapEntry(j, score, chunk, child);
+    }
+
+    // Expands the boards of the beam that belong to a range of chunks, splitting the range in half until it holds
+    // one chunk
+    private class ExpandTask extends RecursiveAction {
+        private final int firstChunk;
+        private final int numChunks;
+
+        // EFFECTS: creates a task that expands numChunks chunks starting from firstChunk
+        ExpandTask(int firstChunk, int numChunks) {
+            this.firstChunk = firstChunk;
+            this.numChunks = numChunks;
+        }
+
+        // MODIFIES: BeamSearchBot.this
+        // EFFECTS: expands the chunks of this task
+        @Override
+        protected void compute() {
+            if (numChunks == 1) {
+                int from = (int) ((long) firstChunk * beam.size / chunks.length);
+                int to = (int) ((long) (firstChunk + 1) * beam.size / chunks.length);
+                chunks[firstChunk].expand(beam, from, to, levelPiece);
+                return;
+            }
+            int firstHalf = numChunks / 2;
+            invokeAll(new ExpandTask(firstChunk, firstHalf),
+                    new ExpandTask(firstChunk + firstHalf, numChunks - firstHalf));
+        }
+    }
+
+    // Represents the boards of a beam, each with the placement of the active piece it descends from (NO_PLACEMENT
+    // for the board the search starts from), the lines cleared on the way, and its score
+    private static class Beam {
+        private final BoardFeatures[] boards;
+        private final int[] roots;
+        private final int[] lines;
+        private final double[] scores;
+        private int size;
+
+        // EFFECTS: creates an empty beam that can hold the given number of boards
+        Beam(int capacity) {
+            boards = new BoardFeatures[capacity];
+            for (int i = 0; i < capacity; i++) {
+                boards[i] = new BoardFeatures();
+            }
+            roots = new int[capacity];
+            lines = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: makes the beam hold only the board with the given rows, where the search starts
+        void setRoot(int[] rows) {
+            boards[0].setRows(rows);
+            roots[0] = NO_PLACEMENT;
+            lines[0] = 0;
+            scores[0] = 0;
+            size = 1;
+        }
+
+        // EFFECTS: returns the index of the board with the highest score, or the first of them if there is a tie
+        int getBest() {
+            int best = 0;
+            for (int i = 1; i < size; i++) {
+                if (scores[i] > scores[best]) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+
+    // Represents the children that one task made from a range of boards of the beam, with the generator and rows it
+    // made them with, and the evaluator and table (which may be null) it scored them with. The arrays grow when a
+    // search makes more children than any before it.
+    private static class Chunk {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final HeuristicBot evaluator;
+        private final TranspositionTable table;
+        private final PlacementGenerator generator;
+        private final int[] rows;
+        private BoardFeatures[] boards;
+        private long[] hashes;
+        private double[] scores;
+        private int[] parents;
+        private int[] placements;
+        private int[] lines;
+        private int size;
+
+        // EFFECTS: creates a chunk with no children that scores its children with the given evaluator and table
+        Chunk(HeuristicBot evaluator, TranspositionTable table) {
+            this.evaluator = evaluator;
+            this.table = table;
+            generator = new PlacementGenerator();
+            rows = new int[Game.HEIGHT];
+            boards = new BoardFeatures[0];
+            allocate(INITIAL_CAPACITY);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: replaces the children with those made by placing a piece of the given piece's shape, starting
+        //          where the piece is, in every way it can reach on boards from to to - 1 of the beam, and scores them
+        void expand(Beam beam, int from, int to, Piece piece) {
+            size = 0;
+            for (int parent = from; parent < to; parent++) {
+                beam.boards[parent].getRows(rows);
+                int numPlacements = generator.generate(rows, piece.getShape(), piece.getRotationReferenceX(),
+                        piece.getRotationReferenceY(), piece.getOrientation());
+                if (size + numPlacements > boards.length) {
+                    allocate(Math.max(2 * boards.length, size + numPlacements));
+                }
+                for (int i = 0; i < numPlacements; i++) {
+                    addChild(beam, parent, generator.getPlacement(i), piece);
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the child made by placing the piece at the given placement on the given board of the beam
+        private void addChild(Beam beam, int parent, int placement, Piece piece) {
+            BoardFeatures board = boards[size];
+            board.copyFrom(beam.boards[parent]);
+            int linesCleared = beam.lines[parent] + board.addPiece(piece.getShape(),
+                    PlacementGenerator.getX(placement), PlacementGenerator.getY(placement),
+                    PlacementGenerator.getOrientation(placement));
+            hashes[size] = board.getHash();
+            scores[size] = evaluateBoard(board, hashes[size]) + evaluator.evaluateLines(linesCleared);
+            parents[size] = parent;
+            placements[size] = placement;
+            lines[size] = linesCleared;
+            size++;
+        }
+
+        // MODIFIES: table
+        // EFFECTS: returns the evaluation of the given board's tiles, which has the given hash, from the table if it
+        //          holds it, and otherwise evaluates it and stores it in the table
+        private double evaluateBoard(BoardFeatures board, long hash) {
+            if (table == null) {
+                return evaluator.evaluateBoard(board);
+            }
+            double value = table.get(hash);
+            if (Double.isNaN(value)) {
+                value = evaluator.evaluateBoard(board);
+                table.put(hash, value);
+            }
+            return value;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: grows the arrays to the given capacity, keeping the children already made
+        private void allocate(int capacity) {
+            int oldCapacity = boards.length;
+            boards = Arrays.copyOf(boards, capacity);
+            for (int i = oldCapacity; i < capacity; i++) {
+                boards[i] = new BoardFeatures();
+            }
+            hashes = oldCapacity == 0 ? new long[capacity] : Arrays.copyOf(hashes, capacity);
+            scores = oldCapacity == 0 ? new double[capacity] : Arrays.copyOf(scores, capacity);
+            parents = oldCapacity == 0 ? new int[capacity] : Arrays.copyOf(parents, capacity);
+            placements = oldCapacity == 0 ? new int[capacity] : Arrays.copyOf(placements, capacity);
+            lines = oldCapacity == 0 ? new int[capacity] : Arrays.copyOf(lines, capacity);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package model.ai;
+
+import model.Game;
+import model.Zobrist;
+import model.pieces.PieceShape;
+
+import java.util.Arrays;
+
+// Represents the locked tiles of a board together with the features a bot judges the board by: the aggregate
+// height of the columns, the number of holes (empty cells below the top of their column), the bumpiness (the sum of
+// the height differences of neighbouring columns), the total depth of the wells (columns lower than both of their
+// neighbours, where a wall counts as a full column), and the lines cleared by the latest piece added.
+//
+// The board is stored both as row masks, which find full rows, and as column masks, whose height and holes are a
+// couple of bit operations each. Adding a piece only updates the columns the piece touches, and the sums are
+// updated by the change in each of those columns, so the board is never scanned again unless lines are cleared,
+// which shifts every column.
+public class BoardFeatures {
+    private final int[] rows;
+    // Bit (Game.HEIGHT - 1 - y) of columns[x] is set if the cell at (x, y) is occupied, so that the bits of a
+    // column count up from the floor
+    private final int[] columns;
+    private final int[] heights;
+    private final int[] holes;
+    private int aggregateHeight;
+    private int numHoles;
+    private int bumpiness;
+    private int wellDepth;
+    private int linesCleared;
+    // The Zobrist hash of the board (see Zobrist), updated by the cells each piece and line clear changes
+    private long hash;
+
+    // EFFECTS: creates the features of an empty board
+    public BoardFeatures() {
+        rows = new int[Game.HEIGHT];
+        columns = new int[Game.WIDTH];
+        heights = new int[Game.WIDTH];
+        holes = new int[Game.WIDTH];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this board and its features the same as other's
+    public void copyFrom(BoardFeatures other) {
+        System.arraycopy(other.rows, 0, rows, 0, Game.HEIGHT);
+        System.arraycopy(other.columns, 0, columns, 0, Game.WIDTH);
+        System.arraycopy(other.heights, 0, heights, 0, Game.WIDTH);
+        System.arraycopy(other.holes, 0, holes, 0, Game.WIDTH);
+        aggregateHeight = other.aggregateHeight;
+        numHoles = other.numHoles;
+        bumpiness = other.bumpiness;
+        wellDepth = other.wellDepth;
+        linesCleared = other.linesCleared;
+        hash = other.hash;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the board with the given row masks, one per row from the top, and computes its features
+    //          from scratch. The lines cleared become 0.
+    //          Throws IllegalArgumentException if rowMasks does not hold Game.HEIGHT rows.
+    public void setRows(int[] rowMasks) {
+        if (rowMasks.length != Game.HEIGHT) {
+            throw new IllegalArgumentException("The board must have " + Game.HEIGHT + " rows");
+        }
+        Arrays.fill(columns, 0);
+        for (int y = 0; y < Game.HEIGHT; y++) {
+            rows[y] = rowMasks[y] & Game.FULL_ROW_MASK;
+            for (int x = 0; x < Game.WIDTH; x++) {
+                if ((rows[y] & (1 << x)) != 0) {
+                    columns[x] |= 1 << (Game.HEIGHT - 1 - y);
+                }
+            }
+        }
+        aggregateHeight = 0;
+        numHoles = 0;
+        for (int x = 0; x < Game.WIDTH; x++) {
+            heights[x] = getHeight(columns[x]);
+            holes[x] = heights[x] - Integer.bitCount(columns[x]);
+            aggregateHeight += heights[x];
+            numHoles += holes[x];
+        }
+        computeNeighbourFeatures();
+        linesCleared = 0;
+        hash = Zobrist.hashRows(rows);
+    }
+
+    // EFFECTS: returns true if the board's row masks are the given ones, one per row from the top
+    public boolean hasRows(int[] rowMasks) {
+        for (int y = 0; y < Game.HEIGHT; y++) {
+            if (rows[y] != rowMasks[y]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: locks a piece of the given shape into the board with its rotation reference point at (x, y) in the
+    //          given orientation, clears the rows it fills, and updates the features. Returns the number of lines
+    //          cleared. The piece must fit on the board there (see PlacementGenerator).
+    public int addPiece(PieceShape shape, int x, int y, int orientation) {
+        int filledRows = addToRows(shape, x, y, orientation);
+        int changedColumns = addToColumns(shape, x, y, orientation);
+        linesCleared = Integer.bitCount(filledRows);
+        if (linesCleared > 0) {
+            clearRows(filledRows, y);
+            changedColumns = Game.FULL_ROW_MASK;
+        }
+        for (int c = 0; c < Game.WIDTH; c++) {
+            if ((changedColumns & (1 << c)) != 0) {
+                updateColumn(c);
+            }
+        }
+        return linesCleared;
+    }
+
+    // EFFECTS: returns the sum of the heights of the columns
+    public int getAggregateHeight() {
+        return aggregateHeight;
+    }
+
+    // EFFECTS: returns the number of empty cells that have an occupied cell somewhere above them in their column
+    public int getNumHoles() {
+        return numHoles;
+    }
+
+    // EFFECTS: returns the sum of the absolute height differences between neighbouring columns
+    public int getBumpiness() {
+        return bumpiness;
+    }
+
+    // EFFECTS: returns the sum over the columns of how far each column is below the lower of its two neighbours,
+    //          where a wall counts as a neighbour of height Game.HEIGHT
+    public int getWellDepth() {
+        return wellDepth;
+    }
+
+    // EFFECTS: returns the number of lines the latest piece added cleared, or 0 if no piece has been added since
+    //          the rows were set
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    // EFFECTS: returns the height of column x: the number of rows from the floor to the top of its highest tile
+    public int getColumnHeight(int x) {
+        return heights[x];
+    }
+
+    // EFFECTS: returns the row mask of row y
+    public int getRowMask(int y) {
+        return rows[y];
+    }
+
+    // MODIFIES: rowMasks
+    // EFFECTS: copies the board's row masks, one per row from the top, into the start of rowMasks
+    public void getRows(int[] rowMasks) {
+        System.arraycopy(rows, 0, rowMasks, 0, Game.HEIGHT);
+    }
+
+    // EFFECTS: returns the Zobrist hash of the board (see Zobrist). Equal boards have equal hashes, and different
+    //          boards are very unlikely to. It is the same as Game.getLockedBoardHash() for a game whose locked tiles
+    //          are this board.
+    public long getHash() {
+        return hash;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the row bits of the tiles of the given piece, whose reference point is at (x, y), and returns a
+    //          mask with bit r set if row y + r is now full
+    private int addToRows(PieceShape shape, int x, int y, int orientation) {
+        int filledRows = 0;
+        for (int r = 0; r < PieceShape.BOX_SIDE_LENGTH; r++) {
+            int mask = shape.getRowMask(orientation, r);
+            if (mask != 0) {
+                rows[y + r] |= x >= 0 ? mask << x : mask >> -x;
+                if (rows[y + r] == Game.FULL_ROW_MASK) {
+                    filledRows |= 1 << r;
+                }
+            }
+        }
+        return filledRows;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the column bits of the tiles of the given piece, whose reference point is at (x, y), and returns
+    //          a mask with bit c set if the piece has a tile in column c. Adds the tiles' keys to the hash.
+    private int addToColumns(PieceShape shape, int x, int y, int orientation) {
+        int changedColumns = 0;
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            int tileX = x + shape.getTileX(orientation, i);
+            int tileY = y + shape.getTileY(orientation, i);
+            columns[tileX] |= 1 << (Game.HEIGHT - 1 - tileY);
+            changedColumns |= 1 << tileX;
+            hash ^= Zobrist.getCellKey(tileX, tileY);
+        }
+        return changedColumns;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the rows y + r for every bit r set in filledRows, moving the rows above them down
+    private void clearRows(int filledRows, int y) {
+        // Only the rows down to the lowest cleared one move, so only their cells are rehashed
+        int lowestCleared = y + Integer.SIZE - 1 - Integer.numberOfLeadingZeros(filledRows);
+        hash ^= hashRowsAbove(lowestCleared);
+        int to = Game.HEIGHT - 1;
+        for (int from = Game.HEIGHT - 1; from >= 0; from--) {
+            int r = from - y;
+            if (r < 0 || r >= PieceShape.BOX_SIDE_LENGTH || (filledRows & (1 << r)) == 0) {
+                rows[to] = rows[from];
+                to--;
+            }
+        }
+        while (to >= 0) {
+            rows[to] = 0;
+            to--;
+        }
+        hash ^= hashRowsAbove(lowestCleared);
+        // The highest cleared row is removed from the columns first, so that the bits of the lower ones stay put
+        for (int r = 0; r < PieceShape.BOX_SIDE_LENGTH; r++) {
+            if ((filledRows & (1 << r)) != 0) {
+                int bit = Game.HEIGHT - 1 - (y + r);
+                for (int c = 0; c < Game.WIDTH; c++) {
+                    columns[c] = (columns[c] & ((1 << bit) - 1)) | ((columns[c] >>> (bit + 1)) << bit);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns the XOR of the Zobrist keys of the occupied cells in rows 0 to lastRow
+    private long hashRowsAbove(int lastRow) {
+        long rowsHash = 0;
+        for (int r = 0; r <= lastRow; r++) {
+            rowsHash ^= Zobrist.hashRow(r, rows[r]);
+        }
+        return rowsHash;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the height and holes of column c from its mask, and updates the features by how much
+    //          they changed
+    private void updateColumn(int c) {
+        int newHeight = getHeight(columns[c]);
+        int newHoles = newHeight - Integer.bitCount(columns[c]);
+        numHoles += newHoles - holes[c];
+        holes[c] = newHoles;
+        if (newHeight == heights[c]) {
+            return;
+        }
+        aggregateHeight += newHeight - heights[c];
+        int neighbourFeatures = getNeighbourFeatures(c);
+        bumpiness -= neighbourFeatures >> 16;
+        wellDepth -= neighbourFeatures & 0xFFFF;
+        heights[c] = newHeight;
+        neighbourFeatures = getNeighbourFeatures(c);
+        bumpiness += neighbourFeatures >> 16;
+        wellDepth += neighbourFeatures & 0xFFFF;
+    }
+
+    // EFFECTS: returns the bumpiness of the column pairs that include column c in the upper 16 bits, and the well
+    //          depths of columns c - 1, c and c + 1 in the lower 16 bits
+    private int getNeighbourFeatures(int c) {
+        int pairBumpiness = 0;
+        if (c > 0) {
+            pairBumpiness += Math.abs(heights[c - 1] - heights[c]);
+        }
+        if (c < Game.WIDTH - 1) {
+            pairBumpiness += Math.abs(heights[c] - heights[c + 1]);
+        }
+        int wells = getWellDepth(c);
+        if (c > 0) {
+            wells += getWellDepth(c - 1);
+        }
+        if (c < Game.WIDTH - 1) {
+            wells += getWellDepth(c + 1);
+        }
+        return (pairBumpiness << 16) | wells;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: computes the bumpiness and well depth from the column heights
+    private void computeNeighbourFeatures() {
+        bumpiness = 0;
+        wellDepth = 0;
+        for (int c = 0; c < Game.WIDTH; c++) {
+            if (c > 0) {
+                bumpiness += Math.abs(heights[c - 1] - heights[c]);
+            }
+            wellDepth += getWellDepth(c);
+        }
+    }
+
+    // EFFECTS: returns how far column c is below the lower of its neighbours, or 0 if it is not below both
+    private int getWellDepth(int c) {
+        int left = c > 0 ? heights[c - 1] : Game.HEIGHT;
+        int right = c < Game.WIDTH - 1 ? heights[c + 1] : Game.HEIGHT;
+        return Math.max(0, Math.min(left, right) - heights[c]);
+    }
+
+    // EFFECTS: returns the height of the column with the given mask
+    private static int getHeight(int columnMask) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(columnMask);
+    }
+}
@@ -0,0 +1,192 @@
+package model.ai;
+
+import model.Game;
+import model.Input;
+import model.pieces.PieceShape;
+import model.simulation.InputPolicy;
+import model.simulation.InputPolicyFactory;
+
+// A bot that plays Tetris by trying every placement of the active piece (see PlacementGenerator) and choosing the
+// one that leaves the best board, judged by a weighted sum of the board's features (see BoardFeatures): fewer lines
+// of height, holes, bumps and wells, and more lines cleared.
+//
+// The bot keeps the features of the board it is playing on. Each placement is judged by copying those features and
+// adding the piece to the copy, which only updates the columns the piece touches. The features of the chosen
+// placement are kept, so once the piece locks, the bot already has the features of the new board: it only checks
+// that the game's rows are the ones it expected, and only computes the features from scratch if they are not (for
+// example, when the piece did not end up where the bot planned). Choosing a placement does not allocate.
+//
+// As an input policy, the bot moves the active piece all the way to its placement before every update, so a batch
+// of games plays one piece per update.
+public class HeuristicBot implements InputPolicy {
+    // Weights of the features found to clear the most lines in batches of simulated games
+    public static final double DEFAULT_HEIGHT_WEIGHT = -0.51;
+    public static final double DEFAULT_LINES_WEIGHT = 0.76;
+    public static final double DEFAULT_HOLES_WEIGHT = -0.5;
+    public static final double DEFAULT_BUMPINESS_WEIGHT = -0.18;
+    public static final double DEFAULT_WELLS_WEIGHT = -0.05;
+
+    // Returned by choosePlacement when the piece has nowhere to go
+    public static final int NO_PLACEMENT = -1;
+
+    private final double heightWeight;
+    private final double linesWeight;
+    private final double holesWeight;
+    private final double bumpinessWeight;
+    private final double wellsWeight;
+
+    private final PlacementGenerator generator;
+    // The features of the board the bot last chose a placement on, of a candidate placement, and of the board the
+    // chosen placement leaves
+    private final BoardFeatures features;
+    private final BoardFeatures candidate;
+    private final BoardFeatures expected;
+    private final int[] lockedRows;
+    private int numRebuilds;
+
+    private final Input[] plan;
+    private int planLength;
+
+    // EFFECTS: creates a bot with the default weights
+    public HeuristicBot() {
+        this(DEFAULT_HEIGHT_WEIGHT, DEFAULT_LINES_WEIGHT, DEFAULT_HOLES_WEIGHT, DEFAULT_BUMPINESS_WEIGHT,
+                DEFAULT_WELLS_WEIGHT);
+    }
+
+    // EFFECTS: creates a bot that judges a board by the sum of each feature times its given weight
+    public HeuristicBot(double heightWeight, double linesWeight, double holesWeight, double bumpinessWeight,
+                        double wellsWeight) {
+        this.heightWeight = heightWeight;
+        this.linesWeight = linesWeight;
+        this.holesWeight = holesWeight;
+        this.bumpinessWeight = bumpinessWeight;
+        this.wellsWeight = wellsWeight;
+        generator = new PlacementGenerator();
+        features = new BoardFeatures();
+        candidate = new BoardFeatures();
+        expected = new BoardFeatures();
+        lockedRows = new int[Game.HEIGHT];
+        plan = new Input[PlacementGenerator.NUM_STATES];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: chooses the best placement the game's active piece can reach, plans the inputs that take the piece
+    //          there (see getPlanLength and getPlanInput), and returns the placement's state (see
+    //          PlacementGenerator.packState). Returns NO_PLACEMENT and plans no inputs if the game is over or the
+    //          piece has nowhere to go. The game is not changed.
+    public int choosePlacement(Game game) {
+        planLength = 0;
+        if (game.isGameOver()) {
+            return NO_PLACEMENT;
+        }
+        updateFeatures(game);
+        int numPlacements = generator.generate(game);
+        int bestPlacement = findBestPlacement(game.getActivePiece().getShape(), numPlacements);
+        if (bestPlacement != NO_PLACEMENT) {
+            planLength = generator.getInputs(bestPlacement, plan);
+        }
+        return bestPlacement;
+    }
+
+    // EFFECTS: returns the weighted sum of the given board's features. Higher is better.
+    public double evaluate(BoardFeatures board) {
+        return evaluate(board, board.getLinesCleared());
+    }
+
+    // EFFECTS: returns the weighted sum of the given board's features, counting the given number of lines cleared
+    //          (for example, by every piece placed during a search) instead of those cleared by its latest piece.
+    //          Higher is better. Only reads the weights, so any number of threads may evaluate boards at once.
+    public double evaluate(BoardFeatures board, int linesCleared) {
+        return evaluateBoard(board) + evaluateLines(linesCleared);
+    }
+
+    // EFFECTS: returns the weighted sum of the features of the given board's tiles, leaving out the lines cleared.
+    //          It depends only on which cells are occupied, so it may be cached by the board's hash (see
+    //          TranspositionTable).
+    public double evaluateBoard(BoardFeatures board) {
+        return heightWeight * board.getAggregateHeight() + holesWeight * board.getNumHoles()
+                + bumpinessWeight * board.getBumpiness() + wellsWeight * board.getWellDepth();
+    }
+
+    // EFFECTS: returns the weighted value of clearing the given number of lines
+    public double evaluateLines(int linesCleared) {
+        return linesWeight * linesCleared;
+    }
+
+    // EFFECTS: returns the number of inputs planned by the latest choosePlacement
+    public int getPlanLength() {
+        return planLength;
+    }
+
+    // EFFECTS: returns the i'th input planned by the latest choosePlacement, where 0 <= i < getPlanLength()
+    public Input getPlanInput(int i) {
+        if (i >= planLength) {
+            throw new IndexOutOfBoundsException("Input " + i + " of " + planLength);
+        }
+        return plan[i];
+    }
+
+    // EFFECTS: returns the number of times the bot has had to compute the features of a board from scratch because
+    //          it was not the board the bot expected
+    public int getNumRebuilds() {
+        return numRebuilds;
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: chooses a placement for the active piece and gives the game the inputs that move the piece there,
+    //          so that the next update locks it. Does nothing if the game is over.
+    @Override
+    public void act(Game game) {
+        choosePlacement(game);
+        for (int i = 0; i < planLength; i++) {
+            game.handleInput(plan[i]);
+        }
+    }
+
+    // EFFECTS: returns a factory that makes bots with the default weights. Bots do not use the game's seed.
+    public static InputPolicyFactory factory() {
+        return new InputPolicyFactory() {
+            @Override
+            public InputPolicy create(long gameSeed) {
+                return new HeuristicBot();
+            }
+        };
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the best of the placements of a piece of the given shape found by the generator, or
+    //          NO_PLACEMENT if there are none, and makes expected hold the features of the board it leaves
+    private int findBestPlacement(PieceShape shape, int numPlacements) {
+        int bestPlacement = NO_PLACEMENT;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numPlacements; i++) {
+            int placement = generator.getPlacement(i);
+            candidate.copyFrom(features);
+            candidate.addPiece(shape, PlacementGenerator.getX(placement), PlacementGenerator.getY(placement),
+                    PlacementGenerator.getOrientation(placement));
+            double score = evaluate(candidate);
+            if (score > bestScore) {
+                bestScore = score;
+                bestPlacement = placement;
+                expected.copyFrom(candidate);
+            }
+        }
+        return bestPlacement;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes features hold the features of the game's board without its active piece, taking those of the
+    //          board the previous placement was expected to leave if the game's board is that board
+    private void updateFeatures(Game game) {
+        PlacementGenerator.getLockedRows(game, lockedRows);
+        if (features.hasRows(lockedRows)) {
+            return;
+        }
+        if (expected.hasRows(lockedRows)) {
+            features.copyFrom(expected);
+        } else {
+            features.setRows(lockedRows);
+            numRebuilds++;
+        }
+    }
+}
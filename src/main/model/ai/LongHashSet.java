@@ -0,0 +1,105 @@
+package model.ai;
+
+import java.util.Arrays;
+
+// A set of long values, such as board hashes, stored in a primitive array with open addressing and linear probing.
+// Unlike a HashSet<Long>, adding a value does not box it, so a set that has grown to the size it needs does not
+// allocate. The table is kept at most half full, and doubles in size when it would become fuller.
+//
+// Empty slots hold 0, so whether 0 itself is in the set is recorded separately.
+public class LongHashSet {
+    private static final int MIN_CAPACITY = 16;
+    // Multiplier of Fibonacci hashing, which spreads values that differ only in a few bits across the table
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long[] slots;
+    private int shift;
+    private int size;
+    private boolean containsZero;
+
+    // EFFECTS: creates an empty set with room for at least the given number of values before it grows
+    public LongHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * expectedSize) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given value to the set, and returns true if it was not already in it
+    public boolean add(long value) {
+        if (value == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            size += added ? 1 : 0;
+            return added;
+        }
+        int slot = findSlot(slots, shift, value);
+        if (slots[slot] == value) {
+            return false;
+        }
+        slots[slot] = value;
+        size++;
+        if (2 * size > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    // EFFECTS: returns true if the given value is in the set
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        return slots[findSlot(slots, shift, value)] == value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every value from the set, keeping its capacity
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+        containsZero = false;
+    }
+
+    // EFFECTS: returns the number of values in the set
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns the number of slots in the table
+    int getCapacity() {
+        return slots.length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the values into a table twice the size
+    private void grow() {
+        long[] oldSlots = slots;
+        allocate(oldSlots.length * 2);
+        for (long value : oldSlots) {
+            if (value != 0) {
+                slots[findSlot(slots, shift, value)] = value;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the table an empty array of the given capacity, which is a power of 2
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    // EFFECTS: returns the slot of the given table that holds the given non-zero value, or the empty slot where it
+    //          belongs if the table does not hold it
+    private static int findSlot(long[] slots, int shift, long value) {
+        int mask = slots.length - 1;
+        int slot = (int) ((value * HASH_MULTIPLIER) >>> shift);
+        while (slots[slot] != 0 && slots[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
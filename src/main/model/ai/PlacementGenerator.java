@@ -0,0 +1,301 @@
+package model.ai;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+import model.pieces.PieceShape;
+
+import java.util.Arrays;
+
+// Finds every placement a piece can reach: every place it can come to rest by rotating, moving left, moving right
+// and moving down from where it is now, under the same rules as Piece (clockwise rotation with no wall kicks). This
+// includes placements that are only reachable by sliding under an overhang ("tucks") or rotating into a slot
+// ("spins"). Gravity is not simulated: the piece is assumed to be able to make any number of moves before it falls.
+//
+// The search is a breadth-first search over states, where a state is a piece position packed into one int (see
+// packState). The board is a copy of the game's row masks without the piece's own tiles, so checking whether the
+// piece fits anywhere takes at most four mask operations. A placement is a state in which the piece cannot move
+// down. Placements that cover the same cells as an earlier placement (the orientations of I, S, Z and O pieces
+// that look the same) are only listed once.
+//
+// The generator reuses its arrays from one search to the next, so searching does not allocate. Since the breadth-
+// first search finds each state by the fewest inputs, getInputs gives the shortest way to reach each placement.
+public class PlacementGenerator {
+    // Reference points of positions the search may visit. A piece's tiles are at most BOX_SIDE_LENGTH - 1 cells
+    // right of and below its reference point, so every position with a tile on the board is in range.
+    private static final int MIN_X = 1 - PieceShape.BOX_SIDE_LENGTH;
+    private static final int MIN_Y = 1 - PieceShape.BOX_SIDE_LENGTH;
+    private static final int NUM_XS = Game.WIDTH - MIN_X;
+    private static final int NUM_YS = Game.HEIGHT - MIN_Y;
+
+    // Number of states, and therefore the most placements or inputs a search can produce
+    public static final int NUM_STATES = NUM_XS * NUM_YS * PieceShape.NUM_ORIENTATIONS;
+
+    // Parent of the state the search started from
+    private static final int NO_PARENT = -1;
+
+    private static final Input[] INPUTS = Input.values();
+
+    // The board being searched, without the piece, as one row mask per row
+    private final int[] rows;
+
+    // The states found by the current search, in the order they were found. The queue of the breadth-first search
+    // is the part of this array after queueHead.
+    private final int[] queue;
+    private int queueHead;
+    private int queueTail;
+
+    // A state was found by the current search if visited[state] == searchNumber; it was then reached from
+    // parents[state] by parentInputs[state]. The same holds for placedCells and the placements found.
+    private final int[] visited;
+    private final int[] parents;
+    private final byte[] parentInputs;
+    private final int[] placedCells;
+    private int searchNumber;
+
+    private final int[] placements;
+    private int numPlacements;
+
+    // The shape of the piece being searched, and for each orientation, the first orientation whose tiles are in the
+    // same places
+    private PieceShape shape;
+    private final int[] sameCellsOrientations;
+
+    // EFFECTS: creates a generator with no placements
+    public PlacementGenerator() {
+        rows = new int[Game.HEIGHT];
+        queue = new int[NUM_STATES];
+        visited = new int[NUM_STATES];
+        parents = new int[NUM_STATES];
+        parentInputs = new byte[NUM_STATES];
+        placedCells = new int[NUM_STATES];
+        placements = new int[NUM_STATES];
+        sameCellsOrientations = new int[PieceShape.NUM_ORIENTATIONS];
+    }
+
+    // EFFECTS: returns the state in which a piece's rotation reference point is at (x, y) and its orientation is
+    //          the given one. Returns a number from 0 to NUM_STATES - 1 if a piece at that position could have a tile
+    //          on the board.
+    public static int packState(int x, int y, int orientation) {
+        return ((y - MIN_Y) * NUM_XS + x - MIN_X) * PieceShape.NUM_ORIENTATIONS + orientation;
+    }
+
+    // EFFECTS: returns the x-coordinate of the rotation reference point in the given state
+    public static int getX(int state) {
+        return state / PieceShape.NUM_ORIENTATIONS % NUM_XS + MIN_X;
+    }
+
+    // EFFECTS: returns the y-coordinate of the rotation reference point in the given state
+    public static int getY(int state) {
+        return state / (PieceShape.NUM_ORIENTATIONS * NUM_XS) + MIN_Y;
+    }
+
+    // EFFECTS: returns the orientation in the given state
+    public static int getOrientation(int state) {
+        return state % PieceShape.NUM_ORIENTATIONS;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds every placement the active piece of the given game can reach from where it is now, and returns
+    //          the number of placements found. The game is not changed. Returns 0 if the game is over.
+    public int generate(Game game) {
+        if (game.isGameOver()) {
+            numPlacements = 0;
+            return 0;
+        }
+        Piece piece = game.getActivePiece();
+        getLockedRows(game, rows);
+        return search(piece.getShape(), piece.getRotationReferenceX(), piece.getRotationReferenceY(),
+                piece.getOrientation());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds every placement that a piece of the given shape can reach on a board with the given row masks,
+    //          starting with its rotation reference point at (x, y) in the given orientation, and returns the number
+    //          of placements found. Returns 0 if the piece does not fit on the board there.
+    //          Throws IllegalArgumentException if rowMasks does not hold Game.HEIGHT rows.
+    public int generate(int[] rowMasks, PieceShape shape, int x, int y, int orientation) {
+        if (rowMasks.length != Game.HEIGHT) {
+            throw new IllegalArgumentException("The board must have " + Game.HEIGHT + " rows");
+        }
+        System.arraycopy(rowMasks, 0, rows, 0, Game.HEIGHT);
+        return search(shape, x, y, orientation);
+    }
+
+    // MODIFIES: rowMasks
+    // EFFECTS: copies the row masks of the game's board without the tiles of its active piece, one per row from the
+    //          top, into the start of rowMasks. The game must not be over.
+    static void getLockedRows(Game game, int[] rowMasks) {
+        for (int y = 0; y < Game.HEIGHT; y++) {
+            rowMasks[y] = game.getRowMask(y);
+        }
+        Piece piece = game.getActivePiece();
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            rowMasks[piece.getTileY(i)] &= ~(1 << piece.getTileX(i));
+        }
+    }
+
+    // EFFECTS: returns the number of placements found by the latest search
+    public int getNumPlacements() {
+        return numPlacements;
+    }
+
+    // EFFECTS: returns the state of the i'th placement found by the latest search, where 0 <= i < getNumPlacements()
+    public int getPlacement(int i) {
+        if (i >= numPlacements) {
+            throw new IndexOutOfBoundsException("Placement " + i + " of " + numPlacements);
+        }
+        return placements[i];
+    }
+
+    // EFFECTS: returns the number of states the latest search visited
+    public int getNumStatesVisited() {
+        return queueTail;
+    }
+
+    // MODIFIES: inputs
+    // EFFECTS: writes the shortest sequence of inputs (rotations, moves and soft drops) that takes the piece from
+    //          where the latest search started to the given state into the start of inputs, and returns its length.
+    //          Throws IllegalArgumentException if the latest search did not reach the state.
+    //          Throws ArrayIndexOutOfBoundsException if inputs is too short to hold the sequence.
+    public int getInputs(int state, Input[] inputs) {
+        if (state < 0 || state >= NUM_STATES || visited[state] != searchNumber) {
+            throw new IllegalArgumentException("The latest search did not reach state " + state);
+        }
+        int length = 0;
+        for (int s = state; parents[s] != NO_PARENT; s = parents[s]) {
+            length++;
+        }
+        int i = length;
+        for (int s = state; parents[s] != NO_PARENT; s = parents[s]) {
+            i--;
+            inputs[i] = INPUTS[parentInputs[s]];
+        }
+        return length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs a breadth-first search from the given position over the board in rows, recording every state
+    //          found and every placement among them, and returns the number of placements
+    private int search(PieceShape shape, int x, int y, int orientation) {
+        startSearch(shape);
+        if (!fits(x, y, orientation)) {
+            return 0;
+        }
+        visit(packState(x, y, orientation), NO_PARENT, null);
+        while (queueHead < queueTail) {
+            int state = queue[queueHead++];
+            int stateX = getX(state);
+            int stateY = getY(state);
+            int stateOrientation = getOrientation(state);
+            if (!tryVisit(state, stateX, stateY + 1, stateOrientation, Input.SOFT_DROP)) {
+                addPlacement(state, stateX, stateY, stateOrientation);
+            }
+            tryVisit(state, stateX - 1, stateY, stateOrientation, Input.MOVE_LEFT);
+            tryVisit(state, stateX + 1, stateY, stateOrientation, Input.MOVE_RIGHT);
+            tryVisit(state, stateX, stateY, (stateOrientation + 1) % PieceShape.NUM_ORIENTATIONS, Input.ROTATE);
+        }
+        return numPlacements;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the states and placements of the previous search, and prepares to search with the given shape
+    private void startSearch(PieceShape shape) {
+        searchNumber++;
+        if (searchNumber == 0) {
+            // After 2^32 searches the numbers wrap around, so the old marks must be cleared once
+            Arrays.fill(visited, 0);
+            Arrays.fill(placedCells, 0);
+            searchNumber = 1;
+        }
+        queueHead = 0;
+        queueTail = 0;
+        numPlacements = 0;
+        if (this.shape != shape) {
+            this.shape = shape;
+            findSameCellsOrientations();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds, for each orientation of the shape, the first orientation whose tiles are in the same places
+    private void findSameCellsOrientations() {
+        for (int o = 0; o < PieceShape.NUM_ORIENTATIONS; o++) {
+            sameCellsOrientations[o] = o;
+            for (int earlier = o - 1; earlier >= 0; earlier--) {
+                if (haveSameCells(earlier, o)) {
+                    sameCellsOrientations[o] = earlier;
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns true if the shape's tiles are in the same places in both orientations
+    private boolean haveSameCells(int orientation1, int orientation2) {
+        for (int r = 0; r < PieceShape.BOX_SIDE_LENGTH; r++) {
+            if (shape.getRowMask(orientation1, r) != shape.getRowMask(orientation2, r)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the piece fits at the given position, finds its state from the given parent state by the given
+    //          input unless the state has already been found, and returns true. Returns false if it does not fit.
+    private boolean tryVisit(int parent, int x, int y, int orientation, Input input) {
+        if (!fits(x, y, orientation)) {
+            return false;
+        }
+        int state = packState(x, y, orientation);
+        if (visited[state] != searchNumber) {
+            visit(state, parent, input);
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the given state as found from the given parent state by the given input, and queues it
+    private void visit(int state, int parent, Input input) {
+        visited[state] = searchNumber;
+        parents[state] = parent;
+        parentInputs[state] = (byte) (input == null ? 0 : input.ordinal());
+        queue[queueTail++] = state;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given state to the placements, unless an earlier placement covers the same cells
+    private void addPlacement(int state, int x, int y, int orientation) {
+        int cellsState = packState(x, y, sameCellsOrientations[orientation]);
+        if (placedCells[cellsState] != searchNumber) {
+            placedCells[cellsState] = searchNumber;
+            placements[numPlacements++] = state;
+        }
+    }
+
+    // EFFECTS: returns true if every tile of the piece would be on the board and in an empty cell if its rotation
+    //          reference point were at (x, y) in the given orientation
+    private boolean fits(int x, int y, int orientation) {
+        for (int r = 0; r < PieceShape.BOX_SIDE_LENGTH; r++) {
+            int mask = shape.getRowMask(orientation, r);
+            if (mask != 0) {
+                int row = y + r;
+                if (row < 0 || row >= Game.HEIGHT) {
+                    return false;
+                }
+                int shiftedMask;
+                if (x >= 0) {
+                    shiftedMask = mask << x;
+                } else if ((mask & ((1 << -x) - 1)) != 0) {
+                    return false;
+                } else {
+                    shiftedMask = mask >> -x;
+                }
+                if ((shiftedMask & ~Game.FULL_ROW_MASK) != 0 || (rows[row] & shiftedMask) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
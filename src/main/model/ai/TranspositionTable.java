@@ -0,0 +1,199 @@
+package model.ai;
+
+import java.util.Arrays;
+
+// A bounded cache of board evaluations, keyed by the boards' Zobrist hashes (see model.Zobrist), that the threads
+// of a search share so that a board reached again, by another path or in a later search, is not evaluated again.
+//
+// The table is set-associative: a hash can only be stored in the BUCKET_SIZE entries of the bucket its low bits
+// pick, and when the bucket is full the entry used least recently is evicted. So the table never holds more than
+// its capacity, and finding an entry reads at most BUCKET_SIZE slots of primitive arrays, without boxing.
+//
+// The buckets are split between a number of stripes, each with its own lock, so threads that look up boards in
+// different stripes do not wait for each other. Each stripe counts its own hits, misses and evictions.
+public class TranspositionTable {
+    // Returned by get when the table does not hold the hash
+    public static final double MISSING = Double.NaN;
+
+    // Number of entries a hash may be stored in
+    public static final int BUCKET_SIZE = 4;
+
+    private final long[] hashes;
+    private final double[] values;
+    // lastUsed[i] is the time, on its stripe's clock, when entry i was last read or written, or 0 if it is empty
+    private final long[] lastUsed;
+    private final int bucketMask;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    // EFFECTS: creates an empty table that holds at most capacity evaluations, with buckets split between the given
+    //          number of locks.
+    //          Throws IllegalArgumentException if capacity is not a power of 2 of at least BUCKET_SIZE, or if
+    //          numStripes is not a power of 2 of at most capacity / BUCKET_SIZE.
+    public TranspositionTable(int capacity, int numStripes) {
+        if (Integer.bitCount(capacity) != 1 || capacity < BUCKET_SIZE) {
+            throw new IllegalArgumentException("The capacity must be a power of 2 of at least " + BUCKET_SIZE);
+        }
+        if (Integer.bitCount(numStripes) != 1 || numStripes > capacity / BUCKET_SIZE) {
+            throw new IllegalArgumentException("The number of stripes must be a power of 2 of at most "
+                    + capacity / BUCKET_SIZE);
+        }
+        hashes = new long[capacity];
+        values = new double[capacity];
+        lastUsed = new long[capacity];
+        bucketMask = capacity / BUCKET_SIZE - 1;
+        stripes = new Stripe[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = numStripes - 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the value stored for the given hash, or MISSING if the table does not hold it
+    public double get(long hash) {
+        int bucket = (int) hash & bucketMask;
+        Stripe stripe = stripes[bucket & stripeMask];
+        synchronized (stripe) {
+            int entry = findEntry(bucket, hash);
+            if (entry < 0) {
+                stripe.numMisses++;
+                return MISSING;
+            }
+            stripe.numHits++;
+            lastUsed[entry] = ++stripe.clock;
+            return values[entry];
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores the given value for the given hash, replacing any value already stored for it. If the hash's
+    //          bucket is full, evicts the entry in it that was used least recently.
+    //          Throws IllegalArgumentException if value is NaN, which get uses to mean MISSING.
+    public void put(long hash, double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN cannot be stored");
+        }
+        int bucket = (int) hash & bucketMask;
+        Stripe stripe = stripes[bucket & stripeMask];
+        synchronized (stripe) {
+            int entry = findEntry(bucket, hash);
+            if (entry < 0) {
+                entry = findLeastRecentlyUsed(bucket);
+                if (lastUsed[entry] == 0) {
+                    stripe.size++;
+                } else {
+                    stripe.numEvictions++;
+                }
+                hashes[entry] = hash;
+            }
+            values[entry] = value;
+            lastUsed[entry] = ++stripe.clock;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every entry and resets the counters
+    public void clear() {
+        for (int s = 0; s < stripes.length; s++) {
+            synchronized (stripes[s]) {
+                for (int bucket = s; bucket <= bucketMask; bucket += stripes.length) {
+                    Arrays.fill(lastUsed, bucket * BUCKET_SIZE, (bucket + 1) * BUCKET_SIZE, 0);
+                }
+                stripes[s].reset();
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of evaluations the table holds
+    public int size() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size;
+            }
+        }
+        return (int) total;
+    }
+
+    // EFFECTS: returns the most evaluations the table can hold
+    public int getCapacity() {
+        return hashes.length;
+    }
+
+    // EFFECTS: returns the number of calls to get that found their hash
+    public long getNumHits() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.numHits;
+            }
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the number of calls to get that did not find their hash
+    public long getNumMisses() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.numMisses;
+            }
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the number of entries that were replaced to make room for another hash
+    public long getNumEvictions() {
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.numEvictions;
+            }
+        }
+        return total;
+    }
+
+    // EFFECTS: returns the index of the entry of the given bucket that holds the given hash, or -1 if none does.
+    //          The caller must hold the bucket's stripe lock.
+    private int findEntry(int bucket, long hash) {
+        for (int entry = bucket * BUCKET_SIZE; entry < (bucket + 1) * BUCKET_SIZE; entry++) {
+            if (lastUsed[entry] != 0 && hashes[entry] == hash) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the index of the entry of the given bucket that was used least recently, which is an empty
+    //          entry if there is one. The caller must hold the bucket's stripe lock.
+    private int findLeastRecentlyUsed(int bucket) {
+        int oldest = bucket * BUCKET_SIZE;
+        for (int entry = oldest + 1; entry < (bucket + 1) * BUCKET_SIZE; entry++) {
+            if (lastUsed[entry] < lastUsed[oldest]) {
+                oldest = entry;
+            }
+        }
+        return oldest;
+    }
+
+    // Represents the lock of the buckets whose index has the same low bits, with a clock that orders the uses of
+    // their entries and counters of what happened to them
+    private static class Stripe {
+        private long clock;
+        private long size;
+        private long numHits;
+        private long numMisses;
+        private long numEvictions;
+
+        // MODIFIES: this
+        // EFFECTS: resets the clock and the counters
+        void reset() {
+            clock = 0;
+            size = 0;
+            numHits = 0;
+            numMisses = 0;
+            numEvictions = 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package model.event;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+
+// A GameListener whose methods do nothing. Subclasses override only the events they react to, like the adapter
+// classes in java.awt.event.
+public abstract class GameAdapter implements GameListener {
+    @Override
+    public void pieceLocked(Game game) {
+    }
+
+    @Override
+    public void pieceMoved(Game game, Input input) {
+    }
+
+    @Override
+    public void linesCleared(Game game, int[] rows) {
+    }
+
+    @Override
+    public void levelChanged(Game game, int newLevel) {
+    }
+
+    @Override
+    public void pieceSpawned(Game game, Piece piece) {
+    }
+
+    @Override
+    public void gameOver(Game game) {
+    }
+}
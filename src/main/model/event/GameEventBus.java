@@ -0,0 +1,100 @@
+package model.event;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+
+import java.util.Arrays;
+
+// Publishes the events of a Tetris game to its listeners.
+//
+// The listeners are kept in a copy-on-write array: adding or removing a listener replaces the array, and publishing
+// an event reads the current array once and calls each listener in it without locking or copying. Events can
+// therefore be published from any thread (for example, a simulation thread) while listeners are added or removed
+// on another, and publishing with no listeners costs a single volatile read.
+public class GameEventBus {
+    private static final GameListener[] NO_LISTENERS = new GameListener[0];
+
+    private volatile GameListener[] listeners = NO_LISTENERS;
+
+    // MODIFIES: this
+    // EFFECTS: registers listener to receive events, after the listeners already registered.
+    //          Throws NullPointerException if listener is null.
+    public synchronized void addListener(GameListener listener) {
+        if (listener == null) {
+            throw new NullPointerException();
+        }
+        GameListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unregisters the first registration of listener, if there is one. Otherwise, does nothing.
+    public synchronized void removeListener(GameListener listener) {
+        GameListener[] oldListeners = listeners;
+        for (int i = 0; i < oldListeners.length; i++) {
+            if (oldListeners[i] == listener) {
+                GameListener[] newListeners = new GameListener[oldListeners.length - 1];
+                System.arraycopy(oldListeners, 0, newListeners, 0, i);
+                System.arraycopy(oldListeners, i + 1, newListeners, i, oldListeners.length - i - 1);
+                listeners = newListeners;
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unregisters every listener
+    public synchronized void removeAllListeners() {
+        listeners = NO_LISTENERS;
+    }
+
+    // EFFECTS: returns the number of registered listeners
+    public int getNumListeners() {
+        return listeners.length;
+    }
+
+    // EFFECTS: tells every listener that the active piece of game has locked
+    public void firePieceLocked(Game game) {
+        for (GameListener listener : listeners) {
+            listener.pieceLocked(game);
+        }
+    }
+
+    // EFFECTS: tells every listener that the first numRows rows listed in rows have been cleared from game's board.
+    //          Each listener receives its own copy of the row indices.
+    public void fireLinesCleared(Game game, int[] rows, int numRows) {
+        for (GameListener listener : listeners) {
+            listener.linesCleared(game, Arrays.copyOf(rows, numRows));
+        }
+    }
+
+    // EFFECTS: tells every listener that the level of game has changed to newLevel
+    public void fireLevelChanged(Game game, int newLevel) {
+        for (GameListener listener : listeners) {
+            listener.levelChanged(game, newLevel);
+        }
+    }
+
+    // EFFECTS: tells every listener that the player's input has moved the active piece of game
+    public void firePieceMoved(Game game, Input input) {
+        for (GameListener listener : listeners) {
+            listener.pieceMoved(game, input);
+        }
+    }
+
+    // EFFECTS: tells every listener that piece has spawned as the active piece of game
+    public void firePieceSpawned(Game game, Piece piece) {
+        for (GameListener listener : listeners) {
+            listener.pieceSpawned(game, piece);
+        }
+    }
+
+    // EFFECTS: tells every listener that game is over
+    public void fireGameOver(Game game) {
+        for (GameListener listener : listeners) {
+            listener.gameOver(game);
+        }
+    }
+}
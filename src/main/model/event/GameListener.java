@@ -0,0 +1,34 @@
+package model.event;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+
+// Listens for the events of a Tetris game. Listeners are registered with Game.addListener, and are called on the
+// thread that updates the game, after the game has finished changing its state. When a piece locks, the events are
+// published in this order: pieceLocked, linesCleared (if any lines were cleared), levelChanged (if the level
+// changed), then pieceSpawned, or gameOver if the next piece could not spawn.
+//
+// The pieceMoved event is published far more often than the others (up to every auto repeat of a held key), so
+// listeners should handle it quickly and without allocating.
+public interface GameListener {
+    // EFFECTS: called when the active piece of the game could not move down and locked into the board
+    void pieceLocked(Game game);
+
+    // EFFECTS: called when the player's input rotated, moved or soft dropped the active piece. A hard drop is
+    //          published as pieceLocked instead.
+    void pieceMoved(Game game, Input input);
+
+    // EFFECTS: called when rows of the board are cleared. rows holds the indices the cleared rows had before they were
+    //          removed, in increasing order. The array belongs to the listener.
+    void linesCleared(Game game, int[] rows);
+
+    // EFFECTS: called when the level of the game changes to newLevel
+    void levelChanged(Game game, int newLevel);
+
+    // EFFECTS: called when a new active piece spawns at the top of the board. The game's next piece has also changed.
+    void pieceSpawned(Game game, Piece piece);
+
+    // EFFECTS: called when the game ends because the player topped out
+    void gameOver(Game game);
+}
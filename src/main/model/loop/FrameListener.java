@@ -0,0 +1,8 @@
+package model.loop;
+
+// Listens for the frames published by a GameLoop
+public interface FrameListener {
+    // EFFECTS: called on the game loop thread whenever the loop publishes a new frame. The listener must not block,
+    //          since the next tick waits for it; a renderer would typically just schedule a repaint.
+    void frameReady(FrameSnapshot frame);
+}
@@ -0,0 +1,146 @@
+package model.loop;
+
+import model.Game;
+import model.pieces.Piece;
+import model.pieces.PieceShape;
+
+// An immutable picture of a game at the end of a tick. The game loop thread captures a snapshot whenever the game
+// changes and hands it to the renderer, so the renderer never reads the game while the loop is changing it.
+// The board, the active piece and its hard drop preview are each stored as one row mask per row:
+// bit c of a row mask is set if the cell in column c is filled.
+//
+// A snapshot also records its dirty cells: the cells that may look different from the previous snapshot, because
+// the board changed there (as reported by Game.getDirtyRowMask), or the active piece or its hard drop preview
+// moved into or out of them. A renderer that has drawn the previous snapshot only needs to redraw those cells.
+// Every cell is dirty when the loop is paused or resumed, so that a renderer can cover or uncover the whole board.
+public class FrameSnapshot {
+    private final long tick;
+    private final int[] rows;
+    private final int[] pieceRows;
+    private final int[] ghostRows;
+    private final int[] dirtyRows;
+    private final int score;
+    private final int linesCleared;
+    private final int level;
+    private final boolean gameOver;
+    private final boolean paused;
+
+    // EFFECTS: captures the current state of game, which was reached at the end of the given tick, while the loop
+    //          is not paused. The dirty cells are found by comparing with previous, the snapshot captured before;
+    //          if previous is null, every cell is dirty. The dirty cells of game are not cleared.
+    public FrameSnapshot(Game game, long tick, FrameSnapshot previous) {
+        this(game, tick, false, previous);
+    }
+
+    // EFFECTS: captures the current state of game, which was reached at the end of the given tick, and whether the
+    //          loop running the game is paused. The dirty cells are found by comparing with previous, the snapshot
+    //          captured before; if previous is null or was captured in the other paused state, every cell is dirty.
+    //          The dirty cells of game are not cleared.
+    public FrameSnapshot(Game game, long tick, boolean paused, FrameSnapshot previous) {
+        this.tick = tick;
+        this.paused = paused;
+        rows = new int[Game.HEIGHT];
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            rows[r] = game.getRowMask(r);
+        }
+
+        pieceRows = new int[Game.HEIGHT];
+        ghostRows = new int[Game.HEIGHT];
+        Piece activePiece = game.getActivePiece();
+        int hardDropDistance = activePiece.getHardDropDistance();
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            int x = activePiece.getTileX(i);
+            int y = activePiece.getTileY(i);
+            pieceRows[y] |= 1 << x;
+            ghostRows[y + hardDropDistance] |= 1 << x;
+        }
+
+        dirtyRows = findDirtyRows(game, previous);
+        score = game.getScore();
+        linesCleared = game.getLinesCleared();
+        level = game.getLevel();
+        gameOver = game.isGameOver();
+    }
+
+    // EFFECTS: returns the number of the tick at whose end this snapshot was captured
+    public long getTick() {
+        return tick;
+    }
+
+    // EFFECTS: returns true if the board cell at (x, y) was occupied by a tile, including tiles of the active piece.
+    //          Throws IndexOutOfBoundsException if (x, y) does not represent a cell on the board.
+    public boolean isCellOccupied(int x, int y) {
+        checkCellInBounds(x, y);
+        return (rows[y] & (1 << x)) != 0;
+    }
+
+    // EFFECTS: returns true if one of the active piece's tiles was at (x, y).
+    //          Throws IndexOutOfBoundsException if (x, y) does not represent a cell on the board.
+    public boolean hasPieceTileAt(int x, int y) {
+        checkCellInBounds(x, y);
+        return (pieceRows[y] & (1 << x)) != 0;
+    }
+
+    // EFFECTS: returns true if one of the active piece's tiles would have been at (x, y) if the piece were
+    //          hard-dropped. Throws IndexOutOfBoundsException if (x, y) does not represent a cell on the board.
+    public boolean hasHardDropTileAt(int x, int y) {
+        checkCellInBounds(x, y);
+        return (ghostRows[y] & (1 << x)) != 0;
+    }
+
+    // EFFECTS: returns the row mask of the dirty cells of row y. Bit c of the mask is set if the cell at (c, y) may
+    //          look different from the previous snapshot.
+    //          Throws IndexOutOfBoundsException if y does not represent a row on the board.
+    public int getDirtyRowMask(int y) {
+        checkCellInBounds(0, y);
+        return dirtyRows[y];
+    }
+
+    // EFFECTS: returns the player's score
+    public int getScore() {
+        return score;
+    }
+
+    // EFFECTS: returns the number of lines cleared
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    // EFFECTS: returns the level of the game
+    public int getLevel() {
+        return level;
+    }
+
+    // EFFECTS: returns true if the game was over
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    // EFFECTS: returns true if the loop running the game was paused
+    public boolean isPaused() {
+        return paused;
+    }
+
+    // EFFECTS: returns the dirty cells of this snapshot of game, as one row mask per row, by comparing it with
+    //          previous, the snapshot captured before
+    private int[] findDirtyRows(Game game, FrameSnapshot previous) {
+        int[] dirty = new int[Game.HEIGHT];
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            if (previous == null || previous.paused != paused) {
+                dirty[r] = Game.FULL_ROW_MASK;
+            } else {
+                dirty[r] = game.getDirtyRowMask(r)
+                        | (pieceRows[r] ^ previous.pieceRows[r])
+                        | (ghostRows[r] ^ previous.ghostRows[r]);
+            }
+        }
+        return dirty;
+    }
+
+    // EFFECTS: throws IndexOutOfBoundsException if (x, y) does not represent a cell on the board
+    private static void checkCellInBounds(int x, int y) {
+        if (x < 0 || x >= Game.WIDTH || y < 0 || y >= Game.HEIGHT) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is not a cell on the board");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package model.loop;
+
+import model.simulation.Distribution;
+
+// Paces the frames of an active renderer to the refresh interval of a display, and measures how well it keeps up.
+// The renderer records the time at which it shows each frame. The time between two frames is added to a histogram,
+// and every refresh interval that passed between them without a frame being shown counts as a dropped frame.
+// The methods may be called from any thread.
+public class FrameTimer {
+    // Refresh rate assumed when the display does not report one
+    public static final int DEFAULT_REFRESH_RATE = 60;
+
+    // Buckets of the frame times, which are measured in microseconds
+    private static final int FRAME_TIME_BUCKET_MICROSECONDS = 100;
+    private static final int NUM_FRAME_TIME_BUCKETS = 1000;
+
+    private final long refreshNanoseconds;
+
+    // Guarded by this
+    private Distribution frameTimes;
+    private long numFrames;
+    private long numFramesDropped;
+    private long previousFrameTime;
+    private boolean hasPreviousFrame;
+
+    // EFFECTS: creates a timer for a display that refreshes refreshRate times per second.
+    //          Throws IllegalArgumentException if refreshRate < 1.
+    public FrameTimer(int refreshRate) {
+        if (refreshRate < 1) {
+            throw new IllegalArgumentException("The refresh rate must be at least 1");
+        }
+        refreshNanoseconds = 1000000000L / refreshRate;
+        frameTimes = new Distribution(FRAME_TIME_BUCKET_MICROSECONDS, NUM_FRAME_TIME_BUCKETS);
+    }
+
+    // EFFECTS: returns the time between two refreshes of the display, in nanoseconds
+    public long getRefreshNanoseconds() {
+        return refreshNanoseconds;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that a frame was shown at the given System.nanoTime. Unless it is the first frame since the
+    //          timer was created or restarted, the time since the previous frame is added to the frame times, and the
+    //          refreshes missed in between, rounded to the nearest whole refresh, are counted as dropped frames.
+    public synchronized void recordFrame(long time) {
+        if (hasPreviousFrame) {
+            long frameTime = time - previousFrameTime;
+            frameTimes.add((int) Math.min(Integer.MAX_VALUE, frameTime / 1000));
+            long numRefreshes = (frameTime + refreshNanoseconds / 2) / refreshNanoseconds;
+            numFramesDropped += Math.max(0, numRefreshes - 1);
+        }
+        numFrames++;
+        previousFrameTime = time;
+        hasPreviousFrame = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the previous frame, so that the time until the next frame is neither counted as a frame time
+    //          nor as dropped frames. A renderer calls this when it stops showing frames on purpose, for example
+    //          while the game is paused or its window is hidden.
+    public synchronized void restart() {
+        hasPreviousFrame = false;
+    }
+
+    // EFFECTS: returns the System.nanoTime at which the next frame should be shown, given the current time: one
+    //          refresh interval after the previous frame, or if that time has already passed, the first refresh after
+    //          the current time that lines up with the previous frame. Returns the current time if no frame has been
+    //          recorded since the timer was created or restarted.
+    public synchronized long getNextFrameTime(long now) {
+        if (!hasPreviousFrame) {
+            return now;
+        }
+        long nextFrameTime = previousFrameTime + refreshNanoseconds;
+        if (nextFrameTime <= now) {
+            long numRefreshesMissed = (now - previousFrameTime) / refreshNanoseconds;
+            nextFrameTime = previousFrameTime + (numRefreshesMissed + 1) * refreshNanoseconds;
+        }
+        return nextFrameTime;
+    }
+
+    // EFFECTS: returns the times between consecutive frames so far, in microseconds
+    public synchronized Distribution getFrameTimes() {
+        Distribution copy = new Distribution(FRAME_TIME_BUCKET_MICROSECONDS, NUM_FRAME_TIME_BUCKETS);
+        copy.merge(frameTimes);
+        return copy;
+    }
+
+    // EFFECTS: returns the number of frames shown so far
+    public synchronized long getNumFrames() {
+        return numFrames;
+    }
+
+    // EFFECTS: returns the number of refreshes so far at which no new frame was shown
+    public synchronized long getNumFramesDropped() {
+        return numFramesDropped;
+    }
+
+    // EFFECTS: returns a one-line summary of the frame times and dropped frames
+    @Override
+    public synchronized String toString() {
+        return numFrames + " frames (" + frameTimes + " microseconds between frames), "
+                + numFramesDropped + " dropped";
+    }
+}
@@ -0,0 +1,384 @@
+package model.loop;
+
+import model.Game;
+import model.Input;
+import model.simulation.Distribution;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a Tetris game on its own thread at a fixed tick rate.
+//
+// The loop measures time with System.nanoTime and accumulates the time that has passed; every TICK_NANOSECONDS of
+// accumulated time runs one tick. A tick handles the key presses and releases queued since the previous tick and
+// the auto-repeat of held keys (see InputProcessor), then counts down to the next gravity update. Every gravity
+// interval returned by Game.getMillisecondsPerUpdate is a whole number of ticks, so gravity is exact in game time,
+// and in wall-clock time it is off by no more than the lateness of a tick.
+// Between ticks the thread is parked, not spinning.
+//
+// The game belongs to the loop thread once the loop has started: another thread queues key events, and reads the game
+// through the immutable FrameSnapshots that the loop publishes whenever the game changes. Game events are
+// published on the loop thread. The loop ends by itself when the game is over.
+//
+// Usage: java model.loop.GameLoop [level] [seconds]
+// Plays games at the given level (29 by default) without input for the given number of seconds (10 by default),
+// and prints how late the ticks ran and how far the gravity updates were from their intervals.
+public class GameLoop {
+    // Length of a tick
+    public static final int TICK_MILLISECONDS = 4;
+    public static final long TICK_NANOSECONDS = TICK_MILLISECONDS * 1000000L;
+
+    // Time between the start of the loop and the first gravity update
+    public static final int INITIAL_DELAY_MILLISECONDS = 2000;
+
+    // Default delayed auto shift and auto repeat rate of held keys
+    public static final int DEFAULT_DAS_MILLISECONDS = 168;
+    public static final int DEFAULT_ARR_MILLISECONDS = 32;
+
+    // Number of key events that can be queued between two ticks; further events are dropped
+    private static final int INPUT_BUFFER_CAPACITY = 256;
+
+    // If the loop falls further behind than this (for example, while the computer was asleep), the missed ticks are
+    // skipped rather than run back to back
+    private static final long MAX_CATCH_UP_NANOSECONDS = 250 * 1000000L;
+
+    // Buckets of the timing statistics, which are measured in microseconds
+    private static final int TIMING_BUCKET_MICROSECONDS = 50;
+    private static final int NUM_TIMING_BUCKETS = 200;
+
+    private final Game game;
+    private final InputRingBuffer inputEvents;
+    private final InputProcessor inputProcessor;
+    private volatile FrameSnapshot latestFrame;
+    private volatile FrameListener frameListener;
+    private volatile boolean running;
+    private volatile boolean paused;
+    private Thread thread;
+
+    // State used only by the loop thread (or by the caller of tick, before the loop starts)
+    private long tickCount;
+    private int ticksUntilUpdate;
+    private int ticksPerUpdate;
+    private int publishedBoardVersion;
+
+    // Timing statistics, guarded by this
+    private Distribution tickLateness;
+    private Distribution gravityError;
+    private long numTicksSkipped;
+
+    // EFFECTS: creates a loop that will run the given game with the default delayed auto shift and auto repeat
+    //          rate, and publishes a frame of the game's current state. The loop does not run until start is called.
+    public GameLoop(Game game) {
+        this(game, DEFAULT_DAS_MILLISECONDS, DEFAULT_ARR_MILLISECONDS);
+    }
+
+    // EFFECTS: creates a loop that will run the given game, and publishes a frame of the game's current state.
+    //          Held keys repeat after dasMilliseconds, then every arrMilliseconds, both rounded up to whole ticks.
+    //          The loop does not run until start is called.
+    //          Throws IllegalArgumentException if dasMilliseconds < 0 or arrMilliseconds < 0.
+    public GameLoop(Game game, int dasMilliseconds, int arrMilliseconds) {
+        this.game = game;
+        inputEvents = new InputRingBuffer(INPUT_BUFFER_CAPACITY);
+        inputProcessor = new InputProcessor(toTicks(dasMilliseconds), toTicks(arrMilliseconds));
+        ticksUntilUpdate = INITIAL_DELAY_MILLISECONDS / TICK_MILLISECONDS;
+        tickLateness = new Distribution(TIMING_BUCKET_MICROSECONDS, NUM_TIMING_BUCKETS);
+        gravityError = new Distribution(TIMING_BUCKET_MICROSECONDS, NUM_TIMING_BUCKETS);
+        publishFrame();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int level = args.length > 0 ? Integer.parseInt(args[0]) : 29;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+
+        Distribution lateness = new Distribution(TIMING_BUCKET_MICROSECONDS, NUM_TIMING_BUCKETS);
+        Distribution error = new Distribution(TIMING_BUCKET_MICROSECONDS, NUM_TIMING_BUCKETS);
+        int startingLevel = Math.min(level, Game.MAXIMUM_STARTING_LEVEL);
+        long end = System.nanoTime() + seconds * 1000000000L;
+        for (long seed = 0; System.nanoTime() < end; seed++) {
+            Game game = new Game(seed, startingLevel);
+            game.setLinesCleared(10 * (level - startingLevel) + (level > startingLevel ? 130 : 0));
+            GameLoop loop = new GameLoop(game);
+            loop.start();
+            loop.thread.join(Math.max(1, (end - System.nanoTime()) / 1000000));
+            loop.stop();
+            lateness.merge(loop.getTickLateness());
+            error.merge(loop.getGravityError());
+        }
+
+        System.out.println("Level " + level + ", " + TICK_MILLISECONDS + " ms ticks, times in microseconds");
+        System.out.println("Tick lateness: " + lateness);
+        System.out.println("Gravity error: " + error + " (" + error.getCount() + " gravity updates)");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts running the game on a new daemon thread.
+    //          Throws IllegalStateException if the loop has already been started.
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("The game loop has already been started");
+        }
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runLoop();
+            }
+        }, "Game loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the loop and waits for its thread to finish. Does nothing if the loop is not running.
+    public void stop() {
+        running = false;
+        Thread loopThread;
+        synchronized (this) {
+            loopThread = thread;
+        }
+        if (loopThread == null || loopThread == Thread.currentThread()) {
+            return;
+        }
+        LockSupport.unpark(loopThread);
+        try {
+            loopThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pauses the loop. Once the loop thread notices, it releases every held key, publishes a paused frame
+    //          and parks until resume or stop is called, so a paused game uses no CPU. Gravity and the timers of
+    //          held keys stand still while paused. Has no effect if the loop is already paused.
+    public void pause() {
+        paused = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: resumes the loop if it is paused: the loop thread publishes a frame that is not paused and continues
+    //          ticking from where it stopped, without catching up the time spent paused
+    public void resume() {
+        paused = false;
+        Thread loopThread;
+        synchronized (this) {
+            loopThread = thread;
+        }
+        if (loopThread != null) {
+            LockSupport.unpark(loopThread);
+        }
+    }
+
+    // EFFECTS: returns true if the loop is paused (see pause)
+    public boolean isPaused() {
+        return paused;
+    }
+
+    // EFFECTS: returns true if the loop thread has been started and has not finished
+    public synchronized boolean isRunning() {
+        return thread != null && thread.isAlive();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues a press of the key of the given input, which is handled at the start of the next tick.
+    //          Returns false if the event was dropped because too many events are queued.
+    //          Key events must be queued by one thread at a time (normally the event dispatching thread).
+    public boolean pressInput(Input input) {
+        return inputEvents.offer(InputProcessor.pressEvent(input));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues a release of the key of the given input, which is handled at the start of the next tick.
+    //          Returns false if the event was dropped because too many events are queued.
+    //          Key events must be queued by one thread at a time (normally the event dispatching thread).
+    public boolean releaseInput(Input input) {
+        return inputEvents.offer(InputProcessor.releaseEvent(input));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues a press of the key of the given input followed by its release, so that the input is applied
+    //          once at the start of the next tick. Returns false if the events could not both be queued.
+    //          Key events must be queued by one thread at a time (normally the event dispatching thread).
+    public boolean submitInput(Input input) {
+        return pressInput(input) && releaseInput(input);
+    }
+
+    // EFFECTS: returns the most recently published frame
+    public FrameSnapshot getLatestFrame() {
+        return latestFrame;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the listener that is told about every frame published from now on, replacing any previous one.
+    //          A null listener stops the notifications.
+    public void setFrameListener(FrameListener frameListener) {
+        this.frameListener = frameListener;
+    }
+
+    // EFFECTS: returns how late the ticks have run so far, in microseconds after the time they were due
+    public synchronized Distribution getTickLateness() {
+        return copyOf(tickLateness);
+    }
+
+    // EFFECTS: returns how far the wall-clock time between consecutive gravity updates has been from the gravity
+    //          interval of the game's level so far, in microseconds
+    public synchronized Distribution getGravityError() {
+        return copyOf(gravityError);
+    }
+
+    // EFFECTS: returns the number of ticks the loop thread has run so far
+    public synchronized long getNumTicks() {
+        return tickLateness.getCount();
+    }
+
+    // EFFECTS: returns the number of ticks skipped so far because the loop fell too far behind
+    public synchronized long getNumTicksSkipped() {
+        return numTicksSkipped;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs one tick: handles the key events queued since the previous tick and the auto-repeat of held keys,
+    //          then applies gravity if the gravity interval has elapsed. Publishes a frame if the game changed.
+    //          Returns true if gravity was applied in this tick.
+    boolean tick() {
+        tickCount++;
+        int event = inputEvents.poll();
+        while (event != InputRingBuffer.EMPTY) {
+            inputProcessor.handleEvent(event, game);
+            event = inputEvents.poll();
+        }
+        inputProcessor.applyAutoRepeat(game);
+
+        boolean gravityApplied = false;
+        ticksUntilUpdate--;
+        if (ticksUntilUpdate <= 0) {
+            game.update();
+            ticksPerUpdate = game.getMillisecondsPerUpdate() / TICK_MILLISECONDS;
+            ticksUntilUpdate = ticksPerUpdate;
+            gravityApplied = true;
+        }
+
+        if (game.getBoardVersion() != publishedBoardVersion || game.isGameOver()) {
+            publishFrame();
+        }
+        return gravityApplied;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the game until the loop is stopped or the game is over, waiting without using the CPU while the
+    //          loop is paused
+    private void runLoop() {
+        while (running && !game.isGameOver()) {
+            if (paused) {
+                waitWhilePaused();
+            } else {
+                runTicks();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs ticks at the fixed tick rate until the loop is stopped or paused, or the game is over. The time
+    //          that passed before this call is not caught up, and the first gravity update is not timed, since the
+    //          wall-clock time before it may include a pause.
+    private void runTicks() {
+        long previousTime = System.nanoTime();
+        long accumulator = 0;
+        long previousGravityTime = 0;
+        boolean gravityTimed = false;
+        while (running && !paused && !game.isGameOver()) {
+            long now = System.nanoTime();
+            accumulator = limitCatchUp(accumulator + now - previousTime);
+            previousTime = now;
+            while (accumulator >= TICK_NANOSECONDS && running && !paused && !game.isGameOver()) {
+                int expectedGravityTicks = gravityTimed ? ticksPerUpdate : 0;
+                boolean gravityApplied = tick();
+                long lateness = accumulator - TICK_NANOSECONDS;
+                accumulator -= TICK_NANOSECONDS;
+                recordTick(lateness, gravityApplied, now - previousGravityTime, expectedGravityTicks);
+                if (gravityApplied) {
+                    previousGravityTime = now;
+                    gravityTimed = true;
+                }
+            }
+            LockSupport.parkNanos(TICK_NANOSECONDS - accumulator);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the given accumulated time, unless it is more than MAX_CATCH_UP_NANOSECONDS; then the ticks
+    //          it is behind by, except one, are counted as skipped, and the time of a single tick is returned
+    private long limitCatchUp(long accumulator) {
+        if (accumulator > MAX_CATCH_UP_NANOSECONDS) {
+            recordSkippedTicks(accumulator / TICK_NANOSECONDS - 1);
+            return TICK_NANOSECONDS;
+        }
+        return accumulator;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: releases every held key and publishes a paused frame, then parks the loop thread until the loop is
+    //          resumed or stopped. The key events queued while the loop was paused are discarded, so that keys
+    //          pressed during the pause do not move the piece when the game resumes. Finally publishes a frame that
+    //          shows whether the loop is still paused.
+    private void waitWhilePaused() {
+        inputProcessor.releaseAll();
+        publishFrame();
+        while (paused && running) {
+            LockSupport.park(this);
+        }
+        int event = inputEvents.poll();
+        while (event != InputRingBuffer.EMPTY) {
+            event = inputEvents.poll();
+        }
+        publishFrame();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the lateness of a tick to the timing statistics. If gravity was applied in the tick, and the
+    //          previous gravity update was expectedGravityTicks ticks before it, also adds the difference between
+    //          gravityInterval and the expected interval.
+    private synchronized void recordTick(long lateness, boolean gravityApplied, long gravityInterval,
+                                         int expectedGravityTicks) {
+        tickLateness.add((int) (lateness / 1000));
+        if (gravityApplied && expectedGravityTicks > 0) {
+            long expectedInterval = expectedGravityTicks * TICK_NANOSECONDS;
+            gravityError.add((int) (Math.abs(gravityInterval - expectedInterval) / 1000));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given number of skipped ticks to the timing statistics
+    private synchronized void recordSkippedTicks(long numTicks) {
+        numTicksSkipped += numTicks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: captures the game's current state as the latest frame, with the cells that changed since the previous
+    //          frame as its dirty cells, and tells the frame listener about it
+    private void publishFrame() {
+        FrameSnapshot frame = new FrameSnapshot(game, tickCount, paused, latestFrame);
+        game.clearDirtyCells();
+        publishedBoardVersion = game.getBoardVersion();
+        latestFrame = frame;
+        FrameListener listener = frameListener;
+        if (listener != null) {
+            listener.frameReady(frame);
+        }
+    }
+
+    // EFFECTS: returns the number of ticks in the given number of milliseconds, rounded up.
+    //          Throws IllegalArgumentException if milliseconds < 0.
+    private static int toTicks(int milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("Durations must not be negative");
+        }
+        return (milliseconds + TICK_MILLISECONDS - 1) / TICK_MILLISECONDS;
+    }
+
+    // EFFECTS: returns a copy of the given timing distribution
+    private static Distribution copyOf(Distribution distribution) {
+        Distribution copy = new Distribution(distribution.getBucketWidth(), distribution.getNumBuckets());
+        copy.merge(distribution);
+        return copy;
+    }
+}
@@ -0,0 +1,148 @@
+package model.loop;
+
+import model.Game;
+import model.Input;
+
+// Turns the key presses and releases queued for a game loop into inputs for its game, tick by tick.
+//
+// Pressing a key applies its input at once. Holding the left or right key repeats the move by itself: the first
+// repeat comes after the delayed auto shift (DAS), and the following ones come every auto repeat rate (ARR) ticks.
+// An ARR of 0 moves the piece as far as it can go in each tick. If both horizontal keys are held, the one pressed
+// last wins; releasing it hands over to the other one, which starts its DAS again. Holding the soft drop key
+// repeats the soft drop every ARR ticks (at least every tick) without a delay. Rotations and hard drops never repeat.
+// Presses of a key that is already held, such as the operating system's key repeats, are ignored.
+//
+// Since the inputs only depend on the events and the ticks in which they are handled, feeding the same events in the
+// same ticks to a game created with the same seed always plays the same game.
+public class InputProcessor {
+    private static final Input[] INPUTS = Input.values();
+
+    private final int dasTicks;
+    private final int arrTicks;
+    private final boolean[] held;
+
+    // The horizontal input that is auto-shifting, or null if neither horizontal key is held
+    private Input horizontalInput;
+    // Ticks since horizontalInput started auto-shifting, counting from 0 in the tick it started
+    private int horizontalTicks;
+    // Ticks since the soft drop key was pressed, counting from 0 in the tick of the press
+    private int softDropTicks;
+
+    // EFFECTS: creates a processor with no keys held, whose delayed auto shift lasts dasTicks ticks and whose
+    //          auto repeat rate is one move every arrTicks ticks.
+    //          Throws IllegalArgumentException if dasTicks < 0 or arrTicks < 0.
+    public InputProcessor(int dasTicks, int arrTicks) {
+        if (dasTicks < 0 || arrTicks < 0) {
+            throw new IllegalArgumentException("DAS and ARR must not be negative");
+        }
+        this.dasTicks = dasTicks;
+        this.arrTicks = arrTicks;
+        held = new boolean[INPUTS.length];
+    }
+
+    // EFFECTS: returns the event for pressing the key of the given input
+    public static int pressEvent(Input input) {
+        return input.ordinal() * 2 + 1;
+    }
+
+    // EFFECTS: returns the event for releasing the key of the given input
+    public static int releaseEvent(Input input) {
+        return input.ordinal() * 2;
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: handles the given press or release event, applying the pressed input to game
+    public void handleEvent(int event, Game game) {
+        Input input = INPUTS[event / 2];
+        if (event % 2 == 1) {
+            press(input, game);
+        } else {
+            release(input);
+        }
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: applies the auto-repeated inputs of the held keys to game. Called once per tick, after the tick's
+    //          events have been handled.
+    public void applyAutoRepeat(Game game) {
+        if (horizontalInput != null) {
+            horizontalTicks++;
+            // The first repeat never comes in the tick of the press itself
+            int ticksSinceDas = horizontalTicks - Math.max(1, dasTicks);
+            if (ticksSinceDas >= 0) {
+                repeat(horizontalInput, ticksSinceDas, game);
+            }
+        }
+        if (held[Input.SOFT_DROP.ordinal()]) {
+            softDropTicks++;
+            if (softDropTicks > 0 && softDropTicks % Math.max(1, arrTicks) == 0) {
+                game.handleInput(Input.SOFT_DROP);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: treats every key as released, stopping all auto-repeats
+    public void releaseAll() {
+        for (int i = 0; i < held.length; i++) {
+            held[i] = false;
+        }
+        horizontalInput = null;
+    }
+
+    // EFFECTS: returns true if the key of the given input is held
+    public boolean isHeld(Input input) {
+        return held[input.ordinal()];
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: applies input to game if its key was not already held, and starts auto-repeating it if it repeats
+    private void press(Input input, Game game) {
+        if (held[input.ordinal()]) {
+            return;
+        }
+        held[input.ordinal()] = true;
+        game.handleInput(input);
+        if (input == Input.MOVE_LEFT || input == Input.MOVE_RIGHT) {
+            startAutoShift(input);
+        } else if (input == Input.SOFT_DROP) {
+            softDropTicks = -1;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops auto-repeating input. If input was auto-shifting and the other horizontal key is held, the
+    //          other key starts auto-shifting.
+    private void release(Input input) {
+        held[input.ordinal()] = false;
+        if (input == horizontalInput) {
+            Input other = input == Input.MOVE_LEFT ? Input.MOVE_RIGHT : Input.MOVE_LEFT;
+            if (held[other.ordinal()]) {
+                startAutoShift(other);
+            } else {
+                horizontalInput = null;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes input the auto-shifting horizontal input, starting its delayed auto shift in this tick
+    private void startAutoShift(Input input) {
+        horizontalInput = input;
+        horizontalTicks = -1;
+    }
+
+    // MODIFIES: game
+    // EFFECTS: applies input to game if ticksSinceDas is a multiple of the auto repeat rate. With an auto repeat
+    //          rate of 0, applies input until it has no effect.
+    private void repeat(Input input, int ticksSinceDas, Game game) {
+        if (arrTicks == 0) {
+            boolean moved = game.handleInput(input);
+            while (moved) {
+                moved = game.handleInput(input);
+            }
+        } else if (ticksSinceDas % arrTicks == 0) {
+            game.handleInput(input);
+        }
+    }
+}
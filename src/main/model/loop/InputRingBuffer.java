@@ -0,0 +1,72 @@
+package model.loop;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// A bounded first-in-first-out queue of int events that passes events from one producer thread to one consumer
+// thread without locks. The events are stored in an array used as a ring; the producer only advances the write
+// count and the consumer only advances the read count, so neither ever waits for the other. Offering an event to a
+// full buffer fails instead of blocking.
+//
+// At most one thread may offer events at a time, and at most one thread may poll them at a time.
+public class InputRingBuffer {
+    // Returned by poll when the buffer is empty. Events must not be negative.
+    public static final int EMPTY = -1;
+
+    private final int[] events;
+    private final int mask;
+
+    // Number of events ever offered and ever polled. The event with number n is stored in events[n & mask].
+    private final AtomicLong writeCount;
+    private final AtomicLong readCount;
+
+    // EFFECTS: creates an empty buffer that holds up to capacity events.
+    //          Throws IllegalArgumentException if capacity is not a positive power of 2.
+    public InputRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a positive power of 2");
+        }
+        events = new int[capacity];
+        mask = capacity - 1;
+        writeCount = new AtomicLong();
+        readCount = new AtomicLong();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds event to the back of the buffer and returns true, or returns false if the buffer is full.
+    //          Throws IllegalArgumentException if event < 0.
+    public boolean offer(int event) {
+        if (event < 0) {
+            throw new IllegalArgumentException("Events must not be negative");
+        }
+        long write = writeCount.get();
+        if (write - readCount.get() == events.length) {
+            return false;
+        }
+        events[(int) write & mask] = event;
+        // The ordered write makes the event visible to the consumer before the new count is
+        writeCount.lazySet(write + 1);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes and returns the event at the front of the buffer, or returns EMPTY if the buffer is empty
+    public int poll() {
+        long read = readCount.get();
+        if (read == writeCount.get()) {
+            return EMPTY;
+        }
+        int event = events[(int) read & mask];
+        readCount.lazySet(read + 1);
+        return event;
+    }
+
+    // EFFECTS: returns the number of events in the buffer
+    public int size() {
+        return (int) (writeCount.get() - readCount.get());
+    }
+
+    // EFFECTS: returns the maximum number of events the buffer can hold
+    public int getCapacity() {
+        return events.length;
+    }
+}
@@ -13,26 +13,83 @@ import java.util.*;
 public abstract class Piece {
     protected Game game;
 
-    // Maps orientation to locations of tiles relative to rotationReferencePoint
-    protected Map<Integer, Set<Point>> orientationToTileRelativeLocation;
+    // The shape of this piece, which gives the locations of its tiles relative to the rotation reference point
+    protected PieceShape shape;
 
     // Every piece rotates inside a box, as seen in these diagrams:
     // https://strategywiki.org/wiki/File:Tetris_rotation_Sega.png
-    // rotationReferencePoint is the top left corner of that box.
-    protected Point rotationReferencePoint;
+    // The rotation reference point, (rotationReferenceX, rotationReferenceY), is the top left corner of that box.
+    protected int rotationReferenceX;
+    protected int rotationReferenceY;
 
     // This is an integer from 0 to 3
     protected int orientation;
 
-    // EFFECTS: creates a piece in the given game with the given rotation reference point.
-    //          The piece is in its default orientation.
+    // Where the rotation reference point is when the piece spawns
+    private final int spawnReferenceX;
+    private final int spawnReferenceY;
+
+    // The hard drop distance of this piece, which is valid while the piece and the game's board have not changed
+    // since it was computed (see getHardDropDistance)
+    private int cachedHardDropDistance;
+    private int cachedHardDropBoardVersion;
+    private int cachedHardDropReferenceX;
+    private int cachedHardDropReferenceY;
+    private int cachedHardDropOrientation;
+
+    // EFFECTS: creates a piece with the given shape in the given game, whose rotation reference point
+    //          is at (rotationReferenceX, rotationReferenceY). The piece is in its default orientation.
     //          Note: the constructor does not put the piece on the game board.
-    public Piece(Game game, Point rotationReferencePoint) {
+    public Piece(Game game, PieceShape shape, int rotationReferenceX, int rotationReferenceY) {
         this.game = game;
-        initOrientationToRelativeLocation();
+        this.shape = shape;
+
+        this.spawnReferenceX = rotationReferenceX;
+        this.spawnReferenceY = rotationReferenceY;
+        reset();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the piece back to where it was created, in its default orientation, so that the piece can be
+    //          spawned again. Like the constructor, this does not put the piece on the game board, nor does it
+    //          remove the piece's tiles from it.
+    public void reset() {
+        orientation = 0;
+        rotationReferenceX = spawnReferenceX;
+        rotationReferenceY = spawnReferenceY;
+        cachedHardDropDistance = -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves this piece's rotation reference point and orientation to where other's are, so that this piece
+    //          can stand in for other in a copy of other's game. Like reset, this does not change the game board.
+    //          other must have the same shape as this piece.
+    public void copyPositionFrom(Piece other) {
+        orientation = other.orientation;
+        rotationReferenceX = other.rotationReferenceX;
+        rotationReferenceY = other.rotationReferenceY;
+        cachedHardDropDistance = -1;
+    }
+
+    // EFFECTS: returns the shape of this piece
+    public PieceShape getShape() {
+        return shape;
+    }
+
+    // EFFECTS: returns the x-coordinate of this piece's rotation reference point
+    public int getRotationReferenceX() {
+        return rotationReferenceX;
+    }
 
-        this.orientation = 0;
-        this.rotationReferencePoint = rotationReferencePoint;
+    // EFFECTS: returns the y-coordinate of this piece's rotation reference point
+    public int getRotationReferenceY() {
+        return rotationReferenceY;
+    }
+
+    // EFFECTS: returns the orientation of this piece, from 0 to 3. Each clockwise rotation adds 1, wrapping from 3
+    //          back to 0.
+    public int getOrientation() {
+        return orientation;
     }
 
     // MODIFIES: this
@@ -42,181 +99,176 @@ public abstract class Piece {
     public boolean rotate() {
         // The rotation rules I used are found at https://strategywiki.org/wiki/Tetris/Rotation_systems
         // in the Sega rotation system section.
-        Set<Point> previousTileLocations = getTileLocations();
-        changeToNextOrientation();
-
-        if (cannotExecuteMove(previousTileLocations)) {
-            changeToPreviousOrientation();
-            return false;
-        }
-
-        updateBoard(previousTileLocations);
-        return true;
+        return tryMoveTo(rotationReferenceX, rotationReferenceY, getNextOrientation());
     }
 
     // MODIFIES: this
     // EFFECTS: moves this piece one column left if there is space. Returns true
     //          if the move is successful; otherwise, does nothing and returns false.
     public boolean moveLeft() {
-        Set<Point> previousTileLocations = getTileLocations();
-        rotationReferencePoint.x -= 1;
-
-        if (cannotExecuteMove(previousTileLocations)) {
-            rotationReferencePoint.x += 1;
-            return false;
-        }
-
-        updateBoard(previousTileLocations);
-        return true;
+        return tryMoveTo(rotationReferenceX - 1, rotationReferenceY, orientation);
     }
 
     // MODIFIES: this
     // EFFECTS: moves this piece one column right if there is space. Returns true
     //          if the move is successful; otherwise, does nothing and returns false.
     public boolean moveRight() {
-        Set<Point> previousTileLocations = getTileLocations();
-        rotationReferencePoint.x += 1;
-
-        if (cannotExecuteMove(previousTileLocations)) {
-            rotationReferencePoint.x -= 1;
-            return false;
-        }
-
-        updateBoard(previousTileLocations);
-        return true;
+        return tryMoveTo(rotationReferenceX + 1, rotationReferenceY, orientation);
     }
 
     // MODIFIES: this
     // EFFECTS: moves this piece one row down if there is space. Returns true
     //          if the move is successful; otherwise, does nothing and returns false.
     public boolean moveDown() {
-        Set<Point> previousTileLocations = getTileLocations();
-        rotationReferencePoint.y += 1;
-
-        if (cannotExecuteMove(previousTileLocations)) {
-            rotationReferencePoint.y -= 1;
-            return false;
-        }
-
-        updateBoard(previousTileLocations);
-        return true;
+        return tryMoveTo(rotationReferenceX, rotationReferenceY + 1, orientation);
     }
 
     // EFFECTS: returns a set containing the locations (as points) of each of the piece's tiles.
     //          Changing this set does not change the location of the tiles.
     public Set<Point> getTileLocations() {
         Set<Point> tileAbsoluteLocations = new HashSet<>();
-        for (Point p : orientationToTileRelativeLocation.get(orientation)) {
-            tileAbsoluteLocations.add(new Point(p.x + rotationReferencePoint.x,
-                    p.y + rotationReferencePoint.y));
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            tileAbsoluteLocations.add(new Point(shape.getTileX(orientation, i) + rotationReferenceX,
+                    shape.getTileY(orientation, i) + rotationReferenceY));
         }
         return tileAbsoluteLocations;
     }
 
+    // EFFECTS: returns the x-coordinate of the given tile of this piece, where 0 <= tile < PieceShape.NUM_TILES
+    public int getTileX(int tile) {
+        return rotationReferenceX + shape.getTileX(orientation, tile);
+    }
+
+    // EFFECTS: returns the y-coordinate of the given tile of this piece, where 0 <= tile < PieceShape.NUM_TILES
+    public int getTileY(int tile) {
+        return rotationReferenceY + shape.getTileY(orientation, tile);
+    }
+
+    // EFFECTS: returns true if one of this piece's tiles is at (x, y), and false otherwise
+    public boolean hasTileAt(int x, int y) {
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            if (getTileX(i) == x && getTileY(i) == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the number of rows this piece would move down if it were "hard-dropped" (i.e. if the piece
+    //          were dropped straight down as far as it can go). Neither the piece nor the board is changed.
+    //          The result is remembered until the piece moves or the board changes, so calling this method again
+    //          in between is cheap.
+    public int getHardDropDistance() {
+        if (cachedHardDropDistance < 0
+                || cachedHardDropBoardVersion != game.getBoardVersion()
+                || cachedHardDropReferenceX != rotationReferenceX
+                || cachedHardDropReferenceY != rotationReferenceY
+                || cachedHardDropOrientation != orientation) {
+            cachedHardDropDistance = computeHardDropDistance();
+            cachedHardDropBoardVersion = game.getBoardVersion();
+            cachedHardDropReferenceX = rotationReferenceX;
+            cachedHardDropReferenceY = rotationReferenceY;
+            cachedHardDropOrientation = orientation;
+        }
+        return cachedHardDropDistance;
+    }
+
+    // EFFECTS: returns true if one of this piece's tiles would be at (x, y) if the piece were hard-dropped,
+    //          and false otherwise. Neither the piece nor the board is changed.
+    public boolean hasHardDropTileAt(int x, int y) {
+        return hasTileAt(x, y - getHardDropDistance());
+    }
+
     // EFFECTS: returns a set containing the locations (as points) of each of the piece's tiles
     //          if the piece were to be "hard-dropped" (i.e. if the piece were dropped straight
     //          down as far as it can go).
     // NOTE: this method does not actually hard drop the piece. It is only meant to give a preview
     //       of where the piece would land if it were hard dropped.
     public Set<Point> getHardDropTileLocations() {
-        Point rotationReferencePointCopy = new Point(rotationReferencePoint);
-
-        // Move the piece as far down as possible.
-        boolean canMoveDown;
-        do {
-            canMoveDown = this.moveDown();
-        } while (canMoveDown);
-
-        Set<Point> hardDropTileLocations = this.getTileLocations();
-
-        // Reset rotationReferencePoint to what it was before (thus resetting the piece's position).
-        this.rotationReferencePoint = rotationReferencePointCopy;
-
-        // We now make sure the game board is reset to how it was before this method was called, since the
-        // moveDown() method modifies the board. We have reset this piece's tile locations to where they were before,
-        // but the piece tiles still appear at the hardDropTileLocations on the game's board. We update the board
-        // to reflect this piece's current tile locations.
-        updateBoard(hardDropTileLocations);
-
+        int hardDropDistance = getHardDropDistance();
+        Set<Point> hardDropTileLocations = new HashSet<>();
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            hardDropTileLocations.add(new Point(getTileX(i), getTileY(i) + hardDropDistance));
+        }
         return hardDropTileLocations;
     }
 
-    // EFFECTS: returns a set of the tile locations of this piece relative to rotationReferencePoint
-    //          for orientation 0
-    protected abstract Set<Point> getOrientation0RelativeLocations();
-
-    // EFFECTS: returns a set of the tile locations of this piece relative to rotationReferencePoint
-    //          for orientation 1
-    protected abstract Set<Point> getOrientation1RelativeLocations();
-
-    // EFFECTS: returns a set of the tile locations of this piece relative to rotationReferencePoint
-    //          for orientation 2
-    protected abstract Set<Point> getOrientation2RelativeLocations();
-
-    // EFFECTS: returns a set of the tile locations of this piece relative to rotationReferencePoint
-    //          for orientation 3
-    protected abstract Set<Point> getOrientation3RelativeLocations();
-
-    // MODIFIES: this
-    // EFFECTS: initializes Map object that maps orientation to tile location relative to rotationReferencePoint
-    private void initOrientationToRelativeLocation() {
-        orientationToTileRelativeLocation = new HashMap<Integer, Set<Point>>();
-
-        orientationToTileRelativeLocation.put(0, getOrientation0RelativeLocations());
-        orientationToTileRelativeLocation.put(1, getOrientation1RelativeLocations());
-        orientationToTileRelativeLocation.put(2, getOrientation2RelativeLocations());
-        orientationToTileRelativeLocation.put(3, getOrientation3RelativeLocations());
+    // EFFECTS: computes the number of rows this piece would move down if it were hard-dropped.
+    //          If every tile of this piece is above the stack of locked tiles in its column, the column heights
+    //          tracked by the game give the distance directly. The distance is then extended row by row until the
+    //          piece is obstructed, which also covers pieces that have been moved underneath other tiles.
+    private int computeHardDropDistance() {
+        int distance = Game.HEIGHT;
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            int stackTop = Game.HEIGHT - game.getColumnHeight(getTileX(i));
+            distance = Math.min(distance, stackTop - 1 - getTileY(i));
+        }
+        if (distance < 0 || isObstructed(rotationReferenceX, rotationReferenceY + distance, orientation)) {
+            distance = 0;
+        }
+        while (!isObstructed(rotationReferenceX, rotationReferenceY + distance + 1, orientation)) {
+            distance++;
+        }
+        return distance;
     }
 
-    // MODIFIES: this
-    // EFFECTS: changes orientation to next orientation
-    private void changeToNextOrientation() {
+    // EFFECTS: returns the orientation that follows this piece's orientation in a clockwise rotation
+    private int getNextOrientation() {
         if (orientation == 3) {
-            orientation = 0;
+            return 0;
         } else {
-            orientation++;
+            return orientation + 1;
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: changes orientation to previous orientation
-    private void changeToPreviousOrientation() {
-        if (orientation == 0) {
-            orientation = 3;
-        } else {
-            orientation--;
+    // EFFECTS: moves this piece so that its rotation reference point is at (newReferenceX, newReferenceY) and its
+    //          orientation is newOrientation, then returns true. If the piece's tiles would intersect a wall or an
+    //          occupied cell at that location, returns false and does not move the piece.
+    //          This method does not allocate any objects.
+    private boolean tryMoveTo(int newReferenceX, int newReferenceY, int newOrientation) {
+        if (isObstructed(newReferenceX, newReferenceY, newOrientation)) {
+            return false;
         }
+        moveTo(newReferenceX, newReferenceY, newOrientation);
+        return true;
     }
 
-    // EFFECTS: returns true if the tiles at the given previous tile locations
-    //          cannot move to this piece's tile locations. Returns false otherwise.
-    private boolean cannotExecuteMove(Set<Point> previousTileLocations) {
-        boolean obstructed = false;
-        for (Point p : this.getTileLocations()) {
-            if (!previousTileLocations.contains(p)) {
-                if (p.x < 0 || p.x >= Game.WIDTH) {
-                    obstructed = true;
-                    break;
-                } else if (p.y < 0 || p.y >= Game.HEIGHT) {
-                    obstructed = true;
-                    break;
-                } else if (game.isCellOccupied(p.x, p.y)) {
-                    obstructed = true;
-                    break;
+    // EFFECTS: returns true if this piece's tiles cannot move to where they would be if the rotation reference point
+    //          were at (newReferenceX, newReferenceY) and the orientation were newOrientation. Cells that this piece's
+    //          tiles currently occupy do not obstruct the move. Returns false otherwise.
+    private boolean isObstructed(int newReferenceX, int newReferenceY, int newOrientation) {
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            int x = newReferenceX + shape.getTileX(newOrientation, i);
+            int y = newReferenceY + shape.getTileY(newOrientation, i);
+            if (!hasTileAt(x, y)) {
+                if (x < 0 || x >= Game.WIDTH || y < 0 || y >= Game.HEIGHT) {
+                    return true;
+                } else if (game.isCellOccupied(x, y)) {
+                    return true;
                 }
             }
         }
-        return obstructed;
+        return false;
     }
 
     // MODIFIES: this
-    // EFFECTS: removes the tiles at the given locations from the board, and adds this piece's tiles to the board.
-    private void updateBoard(Set<Point> tilesToRemove) {
-        for (Point p : tilesToRemove) {
-            game.removeTileAt(p.x, p.y);
+    // EFFECTS: removes this piece's tiles from the board, moves the rotation reference point to
+    //          (newReferenceX, newReferenceY) and changes the orientation to newOrientation, then adds this
+    //          piece's tiles back to the board at their new locations.
+    private void moveTo(int newReferenceX, int newReferenceY, int newOrientation) {
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            game.removePieceTileAt(rotationReferenceX + shape.getTileX(orientation, i),
+                    rotationReferenceY + shape.getTileY(orientation, i));
         }
-        for (Point p : getTileLocations()) {
-            game.placeTileAt(p.x, p.y);
+
+        rotationReferenceX = newReferenceX;
+        rotationReferenceY = newReferenceY;
+        orientation = newOrientation;
+
+        for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+            game.placePieceTileAt(rotationReferenceX + shape.getTileX(orientation, i),
+                    rotationReferenceY + shape.getTileY(orientation, i));
         }
     }
 }
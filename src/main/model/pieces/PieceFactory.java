@@ -0,0 +1,70 @@
+package model.pieces;
+
+import model.Game;
+
+// Makes the pieces of one game. A game needs at most two pieces at a time, its active piece and its next piece, so
+// the factory keeps two pieces of each shape and hands out whichever of them the game is not using, moved back to
+// where it spawns. After the first few pieces of a game, making a piece neither allocates nor constructs anything.
+//
+// The shapes are looked up by index, in the order of the PieceShape constants, so that the numbers drawn by a game's
+// random number generator map to shapes without boxing or hashing.
+public class PieceFactory {
+    // Number of pieces kept for each shape
+    private static final int PIECES_PER_SHAPE = 2;
+
+    // The shapes, indexed by the random numbers that choose them
+    private static final PieceShape[] SHAPES = PieceShape.values();
+
+    private final Game game;
+    // pieces[s] holds the pieces made so far with shape SHAPES[s]; a null element has not been needed yet
+    private final Piece[][] pieces;
+
+    // EFFECTS: creates a factory that makes pieces in the given game. No pieces are made until they are needed.
+    public PieceFactory(Game game) {
+        this.game = game;
+        pieces = new Piece[SHAPES.length][PIECES_PER_SHAPE];
+    }
+
+    // EFFECTS: returns the shape chosen by the given random number, where 0 <= number < Game.NUM_TETRIS_PIECES.
+    //          The numbers 0 to 6 choose the I, J, L, O, S, T and Z shapes.
+    public static PieceShape getShape(int number) {
+        return SHAPES[number];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a piece with the given shape at its spawn location in its default orientation, which is not
+    //          the given piece in use (which may be null). The returned piece may be one that this factory returned
+    //          before; the game must no longer be using it, except as pieceInUse.
+    public Piece makePiece(PieceShape shape, Piece pieceInUse) {
+        Piece[] piecesOfShape = pieces[shape.ordinal()];
+        int index = piecesOfShape[0] == pieceInUse ? 1 : 0;
+        Piece piece = piecesOfShape[index];
+        if (piece == null) {
+            piece = createPiece(shape);
+            piecesOfShape[index] = piece;
+        } else {
+            piece.reset();
+        }
+        return piece;
+    }
+
+    // EFFECTS: returns a new piece with the given shape in the game
+    private Piece createPiece(PieceShape shape) {
+        switch (shape) {
+            case I:
+                return new IPiece(game);
+            case J:
+                return new JPiece(game);
+            case L:
+                return new LPiece(game);
+            case O:
+                return new OPiece(game);
+            case S:
+                return new SPiece(game);
+            case T:
+                return new TPiece(game);
+            default:
+                return new ZPiece(game);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package model.pieces;
+
+// Represents the shape of each type of piece in each of its four orientations. The shapes are built
+// once, when this class is initialized, and are shared by every piece of the same type.
+//
+// The tile locations of each orientation are given relative to the top left corner of the box that
+// the piece rotates inside. The orientations match the images at
+// https://strategywiki.org/wiki/File:Tetris_rotation_Sega.png (orientation 0 is the left column).
+public enum PieceShape {
+    I(new int[][] {
+            {0, 1, 1, 1, 2, 1, 3, 1},
+            {2, 0, 2, 1, 2, 2, 2, 3},
+            {0, 1, 1, 1, 2, 1, 3, 1},
+            {2, 0, 2, 1, 2, 2, 2, 3}}),
+    J(new int[][] {
+            {0, 1, 1, 1, 2, 1, 2, 2},
+            {0, 2, 1, 2, 1, 1, 1, 0},
+            {0, 1, 0, 2, 1, 2, 2, 2},
+            {1, 2, 1, 1, 1, 0, 2, 0}}),
+    L(new int[][] {
+            {0, 2, 0, 1, 1, 1, 2, 1},
+            {0, 0, 1, 0, 1, 1, 1, 2},
+            {0, 2, 1, 2, 2, 2, 2, 1},
+            {1, 0, 1, 1, 1, 2, 2, 2}}),
+    O(new int[][] {
+            {1, 1, 1, 2, 2, 1, 2, 2},
+            {1, 1, 1, 2, 2, 1, 2, 2},
+            {1, 1, 1, 2, 2, 1, 2, 2},
+            {1, 1, 1, 2, 2, 1, 2, 2}}),
+    S(new int[][] {
+            {0, 2, 1, 2, 1, 1, 2, 1},
+            {0, 0, 0, 1, 1, 1, 1, 2},
+            {0, 2, 1, 2, 1, 1, 2, 1},
+            {0, 0, 0, 1, 1, 1, 1, 2}}),
+    T(new int[][] {
+            {0, 1, 1, 1, 2, 1, 1, 2},
+            {0, 1, 1, 0, 1, 1, 1, 2},
+            {0, 2, 1, 1, 1, 2, 2, 2},
+            {1, 0, 1, 1, 1, 2, 2, 1}}),
+    Z(new int[][] {
+            {0, 1, 1, 1, 1, 2, 2, 2},
+            {1, 1, 1, 2, 2, 0, 2, 1},
+            {0, 1, 1, 1, 1, 2, 2, 2},
+            {1, 1, 1, 2, 2, 0, 2, 1}});
+
+    // Number of tiles in every piece
+    public static final int NUM_TILES = 4;
+
+    // Number of orientations of every piece
+    public static final int NUM_ORIENTATIONS = 4;
+
+    // Side length of the box that every piece rotates inside
+    public static final int BOX_SIDE_LENGTH = 4;
+
+    // tileXs[o][i] and tileYs[o][i] are the coordinates of tile i relative to the top left corner of
+    // the rotation box, when the piece is in orientation o
+    private final int[][] tileXs;
+    private final int[][] tileYs;
+
+    // Bit c of rowMasks[o][r] is set if, in orientation o, there is a tile at (c, r) relative to the
+    // top left corner of the rotation box
+    private final int[][] rowMasks;
+
+    // EFFECTS: creates a piece shape from the given relative tile locations. The o'th array of
+    //          relativeLocations holds the (x, y) pairs of the four tiles in orientation o.
+    PieceShape(int[][] relativeLocations) {
+        tileXs = new int[NUM_ORIENTATIONS][NUM_TILES];
+        tileYs = new int[NUM_ORIENTATIONS][NUM_TILES];
+        rowMasks = new int[NUM_ORIENTATIONS][BOX_SIDE_LENGTH];
+
+        for (int o = 0; o < NUM_ORIENTATIONS; o++) {
+            for (int i = 0; i < NUM_TILES; i++) {
+                int x = relativeLocations[o][2 * i];
+                int y = relativeLocations[o][2 * i + 1];
+                tileXs[o][i] = x;
+                tileYs[o][i] = y;
+                rowMasks[o][y] |= 1 << x;
+            }
+        }
+    }
+
+    // EFFECTS: returns the x-coordinate of the given tile relative to the top left corner of the
+    //          rotation box, when the piece is in the given orientation
+    public int getTileX(int orientation, int tile) {
+        return tileXs[orientation][tile];
+    }
+
+    // EFFECTS: returns the y-coordinate of the given tile relative to the top left corner of the
+    //          rotation box, when the piece is in the given orientation
+    public int getTileY(int orientation, int tile) {
+        return tileYs[orientation][tile];
+    }
+
+    // EFFECTS: returns the mask of the given row of the rotation box, when the piece is in the given
+    //          orientation. Bit c of the mask is set if there is a tile in column c of that row.
+    public int getRowMask(int orientation, int row) {
+        return rowMasks[orientation][row];
+    }
+}
@@ -0,0 +1,115 @@
+package model.simulation;
+
+import model.Game;
+import model.ai.HeuristicBot;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Plays large batches of seeded Tetris games without a GUI, spreading the games across a fork/join pool.
+// Game i of a batch is created with seed firstSeed + i, and is played by the policy that the policy factory makes
+// for that seed. The results only depend on the seeds, so they are the same no matter how many threads are used.
+public class BatchSimulator {
+    // Number of games that a single fork/join task plays without splitting itself further
+    private static final int GAMES_PER_TASK = 32;
+
+    // Number of updates after which main stops a game played by the heuristic bot
+    private static final long BOT_MAX_UPDATES = 10000;
+
+    private int startingLevel;
+    private InputPolicyFactory policyFactory;
+    private long maxUpdatesPerGame;
+
+    // EFFECTS: creates a simulator whose games start at the given level and are played by policies from the given
+    //          factory. A game that is still not over after maxUpdatesPerGame updates is stopped.
+    //          Throws IllegalArgumentException if startingLevel is not a valid starting level, or if
+    //          maxUpdatesPerGame < 1.
+    public BatchSimulator(int startingLevel, InputPolicyFactory policyFactory, long maxUpdatesPerGame) {
+        if (startingLevel < 0 || startingLevel > Game.MAXIMUM_STARTING_LEVEL || maxUpdatesPerGame < 1) {
+            throw new IllegalArgumentException("Invalid starting level or update limit");
+        }
+        this.startingLevel = startingLevel;
+        this.policyFactory = policyFactory;
+        this.maxUpdatesPerGame = maxUpdatesPerGame;
+    }
+
+    // EFFECTS: plays numGames games with seeds firstSeed, firstSeed + 1, ..., firstSeed + numGames - 1 on the given
+    //          pool, and returns their aggregated results
+    public SimulationResults run(long firstSeed, int numGames, ForkJoinPool pool) {
+        return pool.invoke(new GameRangeTask(firstSeed, numGames));
+    }
+
+    // EFFECTS: plays the game with the given seed until it is over or has been updated maxUpdatesPerGame times,
+    //          and adds its outcome to results
+    private void playGame(long seed, SimulationResults results) {
+        Game game = new Game(seed, startingLevel);
+        InputPolicy policy = policyFactory.create(seed);
+        long numUpdates = 0;
+        while (!game.isGameOver() && numUpdates < maxUpdatesPerGame) {
+            policy.act(game);
+            game.update();
+            numUpdates++;
+        }
+        results.addGame(game, numUpdates);
+    }
+
+    // Plays a range of consecutive seeds, splitting the range in half until it is small enough
+    private class GameRangeTask extends RecursiveTask<SimulationResults> {
+        private long firstSeed;
+        private int numGames;
+
+        // EFFECTS: creates a task that plays numGames games starting from firstSeed
+        GameRangeTask(long firstSeed, int numGames) {
+            this.firstSeed = firstSeed;
+            this.numGames = numGames;
+        }
+
+        // EFFECTS: plays the games of this task and returns their aggregated results
+        @Override
+        protected SimulationResults compute() {
+            if (numGames <= GAMES_PER_TASK) {
+                SimulationResults results = new SimulationResults();
+                for (int i = 0; i < numGames; i++) {
+                    playGame(firstSeed + i, results);
+                }
+                return results;
+            }
+
+            int firstHalf = numGames / 2;
+            GameRangeTask left = new GameRangeTask(firstSeed, firstHalf);
+            GameRangeTask right = new GameRangeTask(firstSeed + firstHalf, numGames - firstHalf);
+            left.fork();
+            SimulationResults results = right.compute();
+            results.merge(left.join());
+            return results;
+        }
+    }
+
+    // Runs a batch of games and prints the results and throughput.
+    // Arguments (all optional): number of games, starting level, number of threads, and the policy: "random" (the
+    // default) for random inputs, or "bot" for the heuristic bot. A bot may play for a very long time, so its games
+    // are stopped after BOT_MAX_UPDATES updates (one piece per update).
+    public static void main(String[] args) {
+        int numGames = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int startingLevel = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int numThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        boolean usesBot = args.length > 3 && args[3].equals("bot");
+
+        BatchSimulator simulator = usesBot ? new BatchSimulator(startingLevel, HeuristicBot.factory(), BOT_MAX_UPDATES)
+                : new BatchSimulator(startingLevel, RandomInputPolicy.factory(), 1000000);
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+
+        long startTime = System.nanoTime();
+        SimulationResults results = simulator.run(0, numGames, pool);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        pool.shutdown();
+
+        System.out.println("Games played:  " + results.getNumGames() + " (" + results.getNumGamesStopped()
+                + " stopped early)");
+        System.out.println("Score:         " + results.getScores());
+        System.out.println("Lines cleared: " + results.getLinesCleared());
+        System.out.println("Level:         " + results.getLevels());
+        System.out.printf("Throughput:    %.0f games/s on %d threads (%.0f games/s per thread)%n",
+                numGames / seconds, numThreads, numGames / seconds / numThreads);
+    }
+}
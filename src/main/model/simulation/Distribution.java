@@ -0,0 +1,145 @@
+package model.simulation;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// Represents the distribution of a non-negative integer statistic (such as the score) over many games. Values are
+// counted in a histogram of equally wide buckets; values past the last bucket are counted in the last bucket.
+// Two distributions with the same buckets can be merged, and merging gives the same result in any order.
+public class Distribution {
+    private final int bucketWidth;
+    private final long[] bucketCounts;
+
+    private long count;
+    private long sum;
+    private int min;
+    private int max;
+
+    // EFFECTS: creates an empty distribution with the given number of buckets, each of which covers bucketWidth
+    //          consecutive values starting from 0.
+    //          Throws IllegalArgumentException if bucketWidth < 1 or numBuckets < 1.
+    public Distribution(int bucketWidth, int numBuckets) {
+        if (bucketWidth < 1 || numBuckets < 1) {
+            throw new IllegalArgumentException("A distribution needs at least one bucket of width at least 1");
+        }
+        this.bucketWidth = bucketWidth;
+        this.bucketCounts = new long[numBuckets];
+        this.min = Integer.MAX_VALUE;
+        this.max = Integer.MIN_VALUE;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given value to this distribution. Negative values are counted in the first bucket.
+    public void add(int value) {
+        int bucket = Math.max(0, Math.min(bucketCounts.length - 1, value / bucketWidth));
+        bucketCounts[bucket]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds all the values counted by other to this distribution.
+    //          Throws IllegalArgumentException if other does not have the same buckets as this distribution.
+    public void merge(Distribution other) {
+        if (other.bucketWidth != bucketWidth || other.bucketCounts.length != bucketCounts.length) {
+            throw new IllegalArgumentException("Cannot merge distributions with different buckets");
+        }
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] += other.bucketCounts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // EFFECTS: returns the number of values in this distribution
+    public long getCount() {
+        return count;
+    }
+
+    // EFFECTS: returns the sum of the values in this distribution
+    public long getSum() {
+        return sum;
+    }
+
+    // EFFECTS: returns the mean of the values in this distribution, or 0 if it is empty
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // EFFECTS: returns the smallest value in this distribution, or 0 if it is empty
+    public int getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    // EFFECTS: returns the largest value in this distribution, or 0 if it is empty
+    public int getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    // EFFECTS: returns the number of values counted in the given bucket. Bucket i covers the values from
+    //          i * getBucketWidth() to (i + 1) * getBucketWidth() - 1, except that the last bucket also covers
+    //          every larger value.
+    public long getBucketCount(int bucket) {
+        return bucketCounts[bucket];
+    }
+
+    // EFFECTS: returns the number of buckets in this distribution
+    public int getNumBuckets() {
+        return bucketCounts.length;
+    }
+
+    // EFFECTS: returns the number of consecutive values covered by each bucket
+    public int getBucketWidth() {
+        return bucketWidth;
+    }
+
+    // EFFECTS: returns the lower bound of the bucket that contains the given percentile (from 0 to 100) of the
+    //          values in this distribution, or 0 if it is empty
+    public int getPercentile(double percentile) {
+        long target = (long) Math.ceil(percentile / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= target && seen > 0) {
+                return i * bucketWidth;
+            }
+        }
+        return 0;
+    }
+
+    // EFFECTS: returns true if obj's actual type is Distribution and obj has the same buckets as this distribution
+    //          and counts the same values.
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || this.getClass() != obj.getClass()) {
+            return false;
+        }
+        Distribution other = (Distribution) obj;
+        return bucketWidth == other.bucketWidth
+                && count == other.count
+                && sum == other.sum
+                && getMin() == other.getMin()
+                && getMax() == other.getMax()
+                && Arrays.equals(bucketCounts, other.bucketCounts);
+    }
+
+    // EFFECTS: returns the hash code for this distribution.
+    @Override
+    public int hashCode() {
+        return Objects.hash(bucketWidth, count, sum, Arrays.hashCode(bucketCounts));
+    }
+
+    // EFFECTS: returns a one-line summary of this distribution
+    @Override
+    public String toString() {
+        return String.format("mean %.1f, min %d, p50 %d, p99 %d, max %d",
+                getMean(), getMin(), getPercentile(50), getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,12 @@
+package model.simulation;
+
+import model.Game;
+
+// Represents a strategy for playing a Tetris game without a human player. Before every update of a
+// simulated game, the simulator asks the game's policy to act on it.
+public interface InputPolicy {
+    // MODIFIES: game
+    // EFFECTS: gives the game any inputs (see Game.handleInput) that the policy chooses for the game's
+    //          current state. The game is updated after this method returns.
+    void act(Game game);
+}
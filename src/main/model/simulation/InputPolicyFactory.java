@@ -0,0 +1,9 @@
+package model.simulation;
+
+// Creates the input policy that plays one simulated game. Each game gets its own policy, so policies may keep
+// state (such as a random number generator) without being shared between threads.
+public interface InputPolicyFactory {
+    // EFFECTS: returns a new input policy for the game created with the given seed. For the results of a batch to
+    //          be reproducible, the policy must depend only on the seed.
+    InputPolicy create(long gameSeed);
+}
@@ -0,0 +1,36 @@
+package model.simulation;
+
+import model.Game;
+import model.Input;
+
+import java.util.Random;
+
+// An input policy that gives the game one random input before every update
+public class RandomInputPolicy implements InputPolicy {
+    private static final Input[] INPUTS = Input.values();
+
+    private Random random;
+
+    // EFFECTS: creates a random input policy whose choices are generated with the given seed
+    public RandomInputPolicy(long seed) {
+        random = new Random(seed);
+    }
+
+    // MODIFIES: game
+    // EFFECTS: gives the game one randomly chosen input
+    @Override
+    public void act(Game game) {
+        game.handleInput(INPUTS[random.nextInt(INPUTS.length)]);
+    }
+
+    // EFFECTS: returns a factory that makes random input policies. The policy of each game is seeded from the
+    //          game's seed.
+    public static InputPolicyFactory factory() {
+        return new InputPolicyFactory() {
+            @Override
+            public InputPolicy create(long gameSeed) {
+                return new RandomInputPolicy(~gameSeed);
+            }
+        };
+    }
+}
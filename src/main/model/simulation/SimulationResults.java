@@ -0,0 +1,104 @@
+package model.simulation;
+
+import model.Game;
+
+import java.util.Objects;
+
+// Represents the aggregated outcome of a batch of simulated games: the distributions of the final score, lines
+// cleared and level of the games, and how many games were stopped before they were over.
+public class SimulationResults {
+    // Bucket sizes of the distributions
+    private static final int SCORE_BUCKET_WIDTH = 100;
+    private static final int NUM_SCORE_BUCKETS = 1000;
+    private static final int NUM_LINES_BUCKETS = 1000;
+    private static final int NUM_LEVEL_BUCKETS = 100;
+
+    private Distribution scores;
+    private Distribution linesCleared;
+    private Distribution levels;
+    private long numGamesStopped;
+    private long numUpdates;
+
+    // EFFECTS: creates results that do not contain any games yet
+    public SimulationResults() {
+        scores = new Distribution(SCORE_BUCKET_WIDTH, NUM_SCORE_BUCKETS);
+        linesCleared = new Distribution(1, NUM_LINES_BUCKETS);
+        levels = new Distribution(1, NUM_LEVEL_BUCKETS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the outcome of the given game, which was updated numUpdates times, to these results.
+    //          If the game is not over, it is counted as a game that was stopped early.
+    public void addGame(Game game, long numUpdates) {
+        scores.add(game.getScore());
+        linesCleared.add(game.getLinesCleared());
+        levels.add(game.getLevel());
+        this.numUpdates += numUpdates;
+        if (!game.isGameOver()) {
+            numGamesStopped++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds all the games counted by other to these results
+    public void merge(SimulationResults other) {
+        scores.merge(other.scores);
+        linesCleared.merge(other.linesCleared);
+        levels.merge(other.levels);
+        numGamesStopped += other.numGamesStopped;
+        numUpdates += other.numUpdates;
+    }
+
+    // EFFECTS: returns the number of games in these results
+    public long getNumGames() {
+        return scores.getCount();
+    }
+
+    // EFFECTS: returns the number of games that were stopped before they were over
+    public long getNumGamesStopped() {
+        return numGamesStopped;
+    }
+
+    // EFFECTS: returns the total number of game updates over all games
+    public long getNumUpdates() {
+        return numUpdates;
+    }
+
+    // EFFECTS: returns the distribution of final scores
+    public Distribution getScores() {
+        return scores;
+    }
+
+    // EFFECTS: returns the distribution of the final number of lines cleared
+    public Distribution getLinesCleared() {
+        return linesCleared;
+    }
+
+    // EFFECTS: returns the distribution of final levels
+    public Distribution getLevels() {
+        return levels;
+    }
+
+    // EFFECTS: returns true if obj's actual type is SimulationResults and obj counts the same games as these results
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || this.getClass() != obj.getClass()) {
+            return false;
+        }
+        SimulationResults other = (SimulationResults) obj;
+        return numGamesStopped == other.numGamesStopped
+                && numUpdates == other.numUpdates
+                && scores.equals(other.scores)
+                && linesCleared.equals(other.linesCleared)
+                && levels.equals(other.levels);
+    }
+
+    // EFFECTS: returns the hash code for these results.
+    @Override
+    public int hashCode() {
+        return Objects.hash(scores, linesCleared, levels, numGamesStopped, numUpdates);
+    }
+}
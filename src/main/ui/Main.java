@@ -1,6 +1,9 @@
 package ui;
 
 import ui.graphics.TetrisGui;
+import ui.sound.SoundEffectMixer;
+import ui.sound.ThemeSongPlayer;
+import ui.util.StartupTimer;
 import ui.util.TemporaryScoreboardManager;
 
 import javax.swing.*;
@@ -10,36 +13,21 @@ import java.io.File;
 import java.util.Enumeration;
 
 // This is the class that the main method is located in.
+//
+// To show the first window as early as possible, the main thread only starts the other startup steps: the event
+// dispatching thread sets up the look and feel and shows the pre-game dialog, while a background thread starts
+// loading the audio and creates the data files. The scoreboard file is not needed until a game is over, and the
+// audio is not needed until a game starts, so neither delays the dialog.
 public class Main {
     // This is the parent directory for all files the application needs to access (e.g. scoreboard files)
     public static final String TETRIS_DIRECTORY = System.getProperty("user.home") + "\\Tetris";
 
-    public static void main(String[] args) {
-        // This try-catch block comes from https://stackoverflow.com/a/2076309/3335320 and
-        // https://stackoverflow.com/a/9682048/3335320. It makes text look nicer on different computers.
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        // If we export the application to a JAR file and put it in a directory that does not have a data
-        // folder, the application must create a data folder in order to save the user's scores.
-        if (!makeDataFolder()) {
-            return;
-        }
-
-        try {
-            new File(TemporaryScoreboardManager.ENTRIES_FILE_PATH).createNewFile();
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null, "Could not create file "
-                    + TemporaryScoreboardManager.ENTRIES_FILE_PATH, "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+    // System property that, if true, prints how long each startup step took once the first window is shown
+    public static final String STARTUP_STATS_PROPERTY = "tetris.startupstats";
 
-        // Code to scale font size according to screen size comes from https://stackoverflow.com/a/32550596/3335320
-        setDefaultFont(new Font("Sans Serif", Font.PLAIN,
-                Math.max(14, Toolkit.getDefaultToolkit().getScreenSize().width / 140)));
+    public static void main(String[] args) {
+        StartupTimer.getInstance();
+        startBackgroundSetup();
 
         // See https://stackoverflow.com/a/3551578/3335320 for why we need to run the GUI
         // using SwingUtilities.invokeLater.
@@ -48,29 +36,101 @@ public class Main {
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
+                setUpLookAndFeel();
                 new TetrisGui();
             }
         });
     }
 
+    // EFFECTS: records that the first window of the application is on the screen, as the given startup step. The
+    //          first time this is called, the startup times are printed if the STARTUP_STATS_PROPERTY system
+    //          property is true. Later calls do nothing.
+    public static void reportStartup(String step) {
+        StartupTimer startupTimer = StartupTimer.getInstance();
+        if (startupTimer.finish(step) && Boolean.getBoolean(STARTUP_STATS_PROPERTY)) {
+            System.out.print(startupTimer.getReport());
+        }
+    }
+
+    // EFFECTS: starts a background thread that starts decoding the theme song and opening the sound effect line,
+    //          then creates the data files. If the data files cannot be created, the user is told why in a dialog
+    //          and the application exits.
+    private static void startBackgroundSetup() {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ThemeSongPlayer.getInstance().load();
+                SoundEffectMixer.getInstance().start();
+                StartupTimer.getInstance().mark("audio loading started");
+
+                String error = makeDataFiles();
+                StartupTimer.getInstance().mark("data files created");
+                if (error != null) {
+                    showFatalError(error);
+                }
+            }
+        }, "Startup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // EFFECTS: sets the system look and feel and a default font that is scaled to the screen size
+    private static void setUpLookAndFeel() {
+        // This try-catch block comes from https://stackoverflow.com/a/2076309/3335320 and
+        // https://stackoverflow.com/a/9682048/3335320. It makes text look nicer on different computers.
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        StartupTimer.getInstance().mark("look and feel set");
+
+        // Code to scale font size according to screen size comes from https://stackoverflow.com/a/32550596/3335320
+        setDefaultFont(new Font("Sans Serif", Font.PLAIN,
+                Math.max(14, Toolkit.getDefaultToolkit().getScreenSize().width / 140)));
+        StartupTimer.getInstance().mark("default font set");
+    }
+
     // EFFECTS: sets the default font of all text in the program to given font
     private static void setDefaultFont(Font font) {
         // Code to set a default font comes from https://stackoverflow.com/a/7434935/3335320
+        // Swing names the defaults that hold fonts "<component>.font" (or "...Font"), so only those defaults are
+        // looked up. Looking up every default would also create the icons, borders and colours the look and feel
+        // makes on demand, which takes far longer than setting the fonts.
         Enumeration<Object> keys = UIManager.getDefaults().keys();
         while (keys.hasMoreElements()) {
             Object key = keys.nextElement();
-            Object value = UIManager.get(key);
-            if (value instanceof FontUIResource) {
-                UIManager.put(key, font);
+            if (key instanceof String && ((String) key).toLowerCase().endsWith("font")) {
+                Object value = UIManager.get(key);
+                if (value instanceof FontUIResource) {
+                    UIManager.put(key, font);
+                }
             }
         }
     }
 
+    // EFFECTS: creates a data folder inside the folder at TETRIS_DIRECTORY, and an empty scoreboard entries file in
+    //          it, if they do not already exist. Returns null if both exist afterwards, or otherwise a message that
+    //          tells the user what went wrong.
+    private static String makeDataFiles() {
+        // If we export the application to a JAR file and put it in a directory that does not have a data
+        // folder, the application must create a data folder in order to save the user's scores.
+        String error = makeDataFolder();
+        if (error != null) {
+            return error;
+        }
+        try {
+            new File(TemporaryScoreboardManager.ENTRIES_FILE_PATH).createNewFile();
+        } catch (Exception e) {
+            return "Could not create file " + TemporaryScoreboardManager.ENTRIES_FILE_PATH;
+        }
+        return null;
+    }
+
     // EFFECTS: creates a data folder inside the folder at TETRIS_DIRECTORY.
-    //          Returns false if the folder does not exist and cannot be created, or if a SecurityException is caught.
-    //          In both of these cases, a dialog window appears telling the user what happened.
-    //          Otherwise, returns true.
-    private static boolean makeDataFolder() {
+    //          Returns a message telling the user what happened if the folder does not exist and cannot be created,
+    //          or if a SecurityException is caught. Otherwise, returns null.
+    private static String makeDataFolder() {
         String directory = TETRIS_DIRECTORY + "\\data";
 
         // I got the code for making a data folder from https://stackoverflow.com/a/3634879/3335320.
@@ -79,15 +139,23 @@ public class Main {
         try {
             boolean folderCreated = folder.mkdirs();
             if (!folderExists && !folderCreated) {
-                JOptionPane.showMessageDialog(null, "Failed to create data folder at:\n"
-                        + folder.getAbsolutePath(), "Error", JOptionPane.ERROR_MESSAGE);
-                return false;
+                return "Failed to create data folder at:\n" + folder.getAbsolutePath();
             }
         } catch (SecurityException e) {
-            JOptionPane.showMessageDialog(null, "Caught SecurityException when trying to create "
-                    + "data folder: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+            return "Caught SecurityException when trying to create data folder: " + e.getMessage();
         }
-        return true;
+        return null;
+    }
+
+    // EFFECTS: shows a dialog window with the given error message on the event dispatching thread, then exits the
+    //          application once the user closes it
+    private static void showFatalError(final String message) {
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                JOptionPane.showMessageDialog(null, message, "Error", JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            }
+        });
     }
 }
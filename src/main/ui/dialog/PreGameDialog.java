@@ -1,12 +1,15 @@
 package ui.dialog;
 
 import model.Game;
+import ui.Main;
 import ui.graphics.TetrisGui;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 // Represents a dialog window that appears before the user starts a new game.
 public class PreGameDialog extends JDialog {
@@ -31,6 +34,13 @@ public class PreGameDialog extends JDialog {
         setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
         pack();
         setLocationRelativeTo(null);
+        // The first pre-game dialog is the first window of the application, so it ends the startup
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                Main.reportStartup("pre-game dialog shown");
+            }
+        });
         setVisible(true);
     }
 
@@ -0,0 +1,188 @@
+package ui.graphics;
+
+import model.Game;
+import model.loop.FrameSnapshot;
+import model.loop.FrameTimer;
+import model.loop.GameLoop;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+// Represents a canvas that displays the Tetris board by active rendering. Instead of asking Swing to repaint the
+// board and waiting for the event dispatching thread, a render thread draws the latest frame of the game loop into
+// the back buffer of a BufferStrategy and flips it onto the screen once per refresh of the display, so that painting
+// is not delayed while the event dispatching thread is busy. A FrameTimer measures the time between the frames and
+// counts the refreshes at which no frame was shown.
+//
+// While the game is paused or the canvas is not showing, the render thread stops drawing once the last frame is in
+// every buffer, and only wakes up a few times per second to check whether it should draw again.
+//
+// The canvas takes no focus, so that the game's keys reach the Swing component they are bound to (see
+// GameKeyBindings).
+public class ActiveBoardCanvas extends Canvas {
+    // Number of buffers to flip between: the one on the screen and the one being drawn
+    private static final int NUM_BUFFERS = 2;
+
+    // Time between the render thread's checks of whether it should draw again, while it is idle
+    private static final long IDLE_CHECK_NANOSECONDS = 200 * 1000000L;
+
+    private final GameLoop gameLoop;
+    private final TileSprites tileSprites;
+    private volatile FrameTimer frameTimer;
+    private volatile boolean running;
+    private Thread thread;
+
+    // EFFECTS: creates a canvas to display the game run by the given loop. Nothing is drawn until start is called.
+    public ActiveBoardCanvas(GameLoop gameLoop) {
+        this.gameLoop = gameLoop;
+        setPreferredSize(new Dimension(BoardPanel.WIDTH, BoardPanel.HEIGHT));
+        setBackground(Color.WHITE);
+        setFocusable(false);
+        // The render thread draws the canvas, so the system's requests to repaint it are not needed
+        setIgnoreRepaint(true);
+        tileSprites = new TileSprites(BoardPanel.TILE_SIDE_LENGTH, getBackground());
+        frameTimer = new FrameTimer(FrameTimer.DEFAULT_REFRESH_RATE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the canvas's buffers and starts the render thread, which shows a frame at every refresh of the
+    //          display the canvas is on until stop is called. The frame timing statistics start over.
+    //          Throws IllegalStateException if the canvas is not displayable (see Component.isDisplayable), or if
+    //          the render thread has already been started.
+    public synchronized void start() {
+        if (!isDisplayable()) {
+            throw new IllegalStateException("The canvas must be in a displayable window before rendering starts");
+        }
+        if (thread != null) {
+            throw new IllegalStateException("The render thread has already been started");
+        }
+        frameTimer = new FrameTimer(getRefreshRate());
+        createBufferStrategy(NUM_BUFFERS);
+        final BufferStrategy strategy = getBufferStrategy();
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runRenderLoop(strategy);
+            }
+        }, "Board renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the render thread and waits for it to finish. Has no effect if it is not running.
+    public void stop() {
+        Thread renderThread;
+        synchronized (this) {
+            running = false;
+            renderThread = thread;
+        }
+        if (renderThread != null && renderThread != Thread.currentThread()) {
+            LockSupport.unpark(renderThread);
+            try {
+                renderThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // EFFECTS: returns true if the render thread is running
+    public synchronized boolean isRunning() {
+        return running && thread != null && thread.isAlive();
+    }
+
+    // EFFECTS: returns the timer that measures the frames shown since rendering started
+    public FrameTimer getFrameTimer() {
+        return frameTimer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the render thread before the canvas's buffers are destroyed along with its native peer
+    @Override
+    public void removeNotify() {
+        stop();
+        super.removeNotify();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the latest frame of the game once per refresh interval until the render thread is stopped.
+    //          While the game is paused or the canvas is not showing, the thread idles once the latest frame has
+    //          been drawn into every buffer, and the idle time is not counted in the frame timing statistics.
+    private void runRenderLoop(BufferStrategy strategy) {
+        int numIdleFramesShown = 0;
+        while (running) {
+            boolean idle = !isShowing() || gameLoop.getLatestFrame().isPaused();
+            if (idle && numIdleFramesShown >= NUM_BUFFERS) {
+                frameTimer.restart();
+                LockSupport.parkNanos(IDLE_CHECK_NANOSECONDS);
+            } else {
+                waitForNextFrameTime();
+                if (running) {
+                    showFrame(strategy, gameLoop.getLatestFrame());
+                    frameTimer.recordFrame(System.nanoTime());
+                }
+                numIdleFramesShown = idle ? numIdleFramesShown + 1 : 0;
+            }
+        }
+    }
+
+    // EFFECTS: parks the render thread until the time of the next frame, or until the render thread is stopped
+    private void waitForNextFrameTime() {
+        long now = System.nanoTime();
+        long nextFrameTime = frameTimer.getNextFrameTime(now);
+        while (now < nextFrameTime && running) {
+            LockSupport.parkNanos(nextFrameTime - now);
+            now = System.nanoTime();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: draws the given frame into the back buffer and flips it onto the screen, drawing it again if the
+    //          buffer's contents were lost meanwhile
+    private void showFrame(BufferStrategy strategy, FrameSnapshot frame) {
+        // The loop follows the BufferStrategy documentation's example of rendering with a buffer strategy
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                drawFrame(g, frame);
+                g.dispose();
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        // Flushes the drawing to the screen on systems that buffer graphics commands, such as X11
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    // MODIFIES: g
+    // EFFECTS: draws every cell of the given frame, or the pause screen if the game is paused, filling the rest of
+    //          the canvas, if any, with the background colour
+    private void drawFrame(Graphics g, FrameSnapshot frame) {
+        if (getWidth() > BoardPanel.WIDTH || getHeight() > BoardPanel.HEIGHT) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+        if (frame.isPaused()) {
+            BoardPanel.paintPauseScreen(g, BoardPanel.WIDTH, BoardPanel.HEIGHT);
+            return;
+        }
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            for (int c = 0; c < Game.WIDTH; c++) {
+                tileSprites.drawCell(g, TileSprites.getCellStyle(frame, r, c),
+                        c * BoardPanel.TILE_SIDE_LENGTH, r * BoardPanel.TILE_SIDE_LENGTH);
+            }
+        }
+    }
+
+    // EFFECTS: returns the refresh rate of the display the canvas is on, or FrameTimer.DEFAULT_REFRESH_RATE if the
+    //          display does not report it
+    private int getRefreshRate() {
+        int refreshRate = getGraphicsConfiguration().getDevice().getDisplayMode().getRefreshRate();
+        if (refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN) {
+            return FrameTimer.DEFAULT_REFRESH_RATE;
+        }
+        return refreshRate;
+    }
+}
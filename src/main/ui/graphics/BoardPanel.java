@@ -1,183 +1,198 @@
 package ui.graphics;
 
 import model.Game;
-import model.pieces.Piece;
+import model.loop.FrameListener;
+import model.loop.FrameSnapshot;
+import model.loop.GameLoop;
+import model.simulation.Distribution;
 
 import javax.swing.*;
-import javax.swing.Timer;
 import java.awt.*;
-import java.awt.event.*;
-import java.util.*;
-import java.util.List;
 
-// Represents the panel that displays the Tetris board.
-public class BoardPanel extends JPanel implements Observer {
+// Represents the panel that displays the Tetris board. The panel paints the frames published by the loop that runs
+// its game, and unless the game is played by something other than the keyboard (see AutoPlayer), queues the presses
+// and releases of the game's keys on the loop through key bindings.
+// Cells are painted by copying pre-rasterized tile sprites, or with Graphics calls for every cell, and the time taken
+// by every paint is recorded so that the two can be compared.
+public class BoardPanel extends JPanel {
     // Side length of a tetromino tile, in pixels
     public static final int TILE_SIDE_LENGTH = 30;
 
     public static final int WIDTH = Game.WIDTH * TILE_SIDE_LENGTH;
     public static final int HEIGHT = Game.HEIGHT * TILE_SIDE_LENGTH;
 
-    private Game game;
+    // Paint times are counted in buckets of 10 microseconds, up to 20 milliseconds
+    private static final int PAINT_TIME_BUCKET_MICROSECONDS = 10;
+    private static final int NUM_PAINT_TIME_BUCKETS = 2000;
 
-    // The timer that advances the game forward at set intervals
-    private Timer timer;
+    // The loop that runs the game shown by this panel
+    private GameLoop gameLoop;
+    // The sprites the cells are painted with, or null if the cells are painted with Graphics calls
+    private TileSprites tileSprites;
+    private Distribution paintTimes;
 
-    // EFFECTS: creates a new BoardPanel to display the given game
-    public BoardPanel(Game game) {
-        this.game = game;
-        game.addObserver(this);
+    // EFFECTS: creates a new BoardPanel to display the game run by the given loop, painting its cells with sprites.
+    //          Whenever the loop publishes a frame, the panel repaints the cells that changed.
+    public BoardPanel(GameLoop gameLoop) {
+        this(gameLoop, true);
+    }
+
+    // EFFECTS: creates a new BoardPanel to display the game run by the given loop. If usesSprites is true, the cells
+    //          are painted by copying sprites; otherwise they are painted with Graphics calls.
+    //          Whenever the loop publishes a frame, the panel repaints the cells that changed.
+    public BoardPanel(GameLoop gameLoop, boolean usesSprites) {
+        this(gameLoop, usesSprites, true);
+    }
+
+    // EFFECTS: creates a new BoardPanel to display the game run by the given loop. If usesSprites is true, the cells
+    //          are painted by copying sprites; otherwise they are painted with Graphics calls. If keyboardControlled
+    //          is true, the game's keys are bound to the panel; otherwise the panel does not queue key events, so
+    //          that another thread can queue them instead.
+    //          Whenever the loop publishes a frame, the panel repaints the cells that changed.
+    public BoardPanel(GameLoop gameLoop, boolean usesSprites, boolean keyboardControlled) {
+        this.gameLoop = gameLoop;
+        paintTimes = new Distribution(PAINT_TIME_BUCKET_MICROSECONDS, NUM_PAINT_TIME_BUCKETS);
+        gameLoop.setFrameListener(new FrameListener() {
+            @Override
+            public void frameReady(FrameSnapshot frame) {
+                repaintDirtyCells(frame);
+            }
+        });
 
         // I learned about the difference between setSize and setPreferredSize from StackOverflow.
         // https://stackoverflow.com/questions/1783793/java-difference-between-the-setpreferredsize-and-setsize-methods-in-compone
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
 
-        initTimer();
-
         setBackground(Color.WHITE);
-    }
-
-    // MODIFIES: this
-    // EFFECTS: handles a key press given the key code.
-    //          If the up arrow key is pressed, rotates the active piece 90 degrees clockwise.
-    //          If the down arrow key is pressed, moves the active piece down one tile.
-    //          If the left arrow key is pressed, moves the active piece left.
-    //          If the right arrow key is pressed, moves the active piece right.
-    //          If the space key is pressed, hard drops the active piece.
-    public void handleKeyPressed(int keyCode) {
-        // Adapted from the keyPressed method in the SIGame class in the SpaceInvaders repository
-        // https://github.students.cs.ubc.ca/CPSC210/B02-SpaceInvadersBase/blob/master/src/main/ca/ubc/cpsc210/spaceinvaders/model/SIGame.java
-        Piece activePiece = game.getActivePiece();
-
-        if (keyCode == KeyEvent.VK_UP || keyCode == KeyEvent.VK_KP_UP) {
-            activePiece.rotate();
-        } else if (keyCode == KeyEvent.VK_DOWN || keyCode == KeyEvent.VK_KP_DOWN) {
-            activePiece.moveDown();
-        } else if (keyCode == KeyEvent.VK_LEFT || keyCode == KeyEvent.VK_KP_LEFT) {
-            activePiece.moveLeft();
-        } else if (keyCode == KeyEvent.VK_RIGHT || keyCode == KeyEvent.VK_KP_RIGHT) {
-            activePiece.moveRight();
-        } else if (keyCode == KeyEvent.VK_SPACE) {
-            hardDropActivePiece();
+        if (usesSprites) {
+            tileSprites = new TileSprites(TILE_SIDE_LENGTH, getBackground());
+        }
+        if (keyboardControlled) {
+            GameKeyBindings.install(this, gameLoop);
         }
-
-        repaint();
     }
 
-    // EFFECTS: paints the board panel. The board appears as a grid, with the occupied
+    // MODIFIES: this
+    // EFFECTS: paints the latest frame of the game. The board appears as a grid, with the occupied
     //          cells filled in. An occupied cell is coloured red if it holds a tile of
     //          the active piece. Otherwise, an occupied cell is coloured black.
+    //          Only the cells that overlap the clip of g are drawn. While the game is paused, the board is hidden
+    //          behind the pause screen instead. The time taken is added to the paint times.
     @Override
     public void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        List<ArrayList<Boolean>> board = game.getBoard();
+        long startTime = System.nanoTime();
+        if (tileSprites == null || getWidth() > WIDTH || getHeight() > HEIGHT) {
+            // The sprites cover the whole board, so the background only needs to be filled around it
+            super.paintComponent(g);
+        }
+        FrameSnapshot frame = gameLoop.getLatestFrame();
+        if (frame.isPaused()) {
+            paintPauseScreen(g, WIDTH, HEIGHT);
+            recordPaintTime(System.nanoTime() - startTime);
+            return;
+        }
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, WIDTH + 1, HEIGHT + 1);
+        }
+        int firstRow = getFirstCellOverlapping(clip.y);
+        int lastRow = Math.min(Game.HEIGHT - 1, getLastCellOverlapping(clip.y + clip.height));
+        int firstColumn = getFirstCellOverlapping(clip.x);
+        int lastColumn = Math.min(Game.WIDTH - 1, getLastCellOverlapping(clip.x + clip.width));
 
         // https://stackoverflow.com/questions/34036216/drawing-java-grid-using-swing taught me how
         // to draw a grid of rectangles.
-        for (int r = 0; r < board.size(); r++) {
-            ArrayList<Boolean> row = board.get(r);
-            for (int c = 0; c < row.size(); c++) {
-                if (cellShouldBeFilledWithColour(r, c)) {
-                    drawColouredCell(g, r, c);
-                } else {
-                    g.setColor(Color.BLACK);
-                    g.drawRect(c * TILE_SIDE_LENGTH, r * TILE_SIDE_LENGTH, TILE_SIDE_LENGTH, TILE_SIDE_LENGTH);
-                }
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                drawCell(g, TileSprites.getCellStyle(frame, r, c), c * TILE_SIDE_LENGTH, r * TILE_SIDE_LENGTH);
             }
         }
+        recordPaintTime(System.nanoTime() - startTime);
     }
 
     // MODIFIES: this
-    // EFFECTS: if observable is an instance of Game, then updates the timer's delay between ticks
-    //          to reflect changes in the game's level. The arg parameter is ignored.
-    @Override
-    public void update(Observable observable, Object arg) {
-        if (observable instanceof Game) {
-            timer.setDelay(getMillisecondsPerUpdate());
-        }
+    // EFFECTS: stops this panel from repainting when the game loop publishes frames, so that the loop no longer
+    //          refers to it. The panel keeps painting the loop's latest frame when Swing asks it to.
+    public void dispose() {
+        gameLoop.setFrameListener(null);
     }
 
-    // MODIFIES: this
-    // EFFECTS: immediately drops the active piece in the game straight down as far as it can go.
-    //          In Tetris, we call this action a "hard drop".
-    private void hardDropActivePiece() {
-        Piece activePiece = game.getActivePiece();
-        boolean movedDown = activePiece.moveDown();
-        while (movedDown) {
-            movedDown = activePiece.moveDown();
-        }
-        game.update();
+    // MODIFIES: g
+    // EFFECTS: covers an area of the given size with the pause screen, which hides the board so that a paused game
+    //          cannot be studied, and tells the player how to resume
+    static void paintPauseScreen(Graphics g, int width, int height) {
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width + 1, height + 1);
+        g.setColor(Color.BLACK);
+        g.drawRect(0, 0, width, height);
+        g.setFont(g.getFont().deriveFont(Font.BOLD, 24f));
+        drawCentredString(g, "PAUSED", width, height / 2);
+        g.setFont(g.getFont().deriveFont(Font.PLAIN, 14f));
+        drawCentredString(g, "Press P to resume", width, height / 2 + 30);
     }
 
-    // MODIFIES: this
-    // EFFECTS: initializes the timer that advances the game at set intervals.
-    private void initTimer() {
-        // The following webpage taught me how to make a Timer:
-        // https://docs.oracle.com/javase/7/docs/api/javax/swing/Timer.html
-        ActionListener gameUpdater = new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                game.update();
-                repaint();
-            }
-        };
+    // MODIFIES: g
+    // EFFECTS: draws text with the current font of g, centred horizontally in the given width, on the given baseline
+    private static void drawCentredString(Graphics g, String text, int width, int baseline) {
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, (width - metrics.stringWidth(text)) / 2, baseline);
+    }
 
-        timer = new Timer(getMillisecondsPerUpdate(), gameUpdater);
-        timer.setInitialDelay(2000);
-        timer.start();
+    // EFFECTS: returns how long the paints of this panel have taken so far, in microseconds
+    public synchronized Distribution getPaintTimes() {
+        Distribution copy = new Distribution(PAINT_TIME_BUCKET_MICROSECONDS, NUM_PAINT_TIME_BUCKETS);
+        copy.merge(paintTimes);
+        return copy;
     }
 
-    // EFFECTS: returns true if the cell at the given row and column is occupied by a tile, or is the
-    //          location of a point in game.getActivePiece().getHardDropTileLocations(). Returns false otherwise.
-    private boolean cellShouldBeFilledWithColour(int row, int column) {
-        return game.isCellOccupied(column, row)
-                || game.getActivePiece().getHardDropTileLocations().contains(new Point(column, row));
+    // EFFECTS: returns true if the cells are painted by copying sprites, or false if they are painted with
+    //          Graphics calls
+    public boolean usesSprites() {
+        return tileSprites != null;
     }
 
-    // EFFECTS: draws the cell at the given row and column, assuming that the cell should be filled with colour.
-    //          This method has no effect otherwise.
-    private void drawColouredCell(Graphics g, int row, int column) {
-        if (!cellShouldBeFilledWithColour(row, column)) {
-            return;
-        }
+    // EFFECTS: returns the index of the first row or column of cells whose drawing reaches the given pixel
+    //          coordinate or beyond. The outline of a cell is one pixel wider and taller than the cell, so it reaches
+    //          one pixel into the next cell.
+    private static int getFirstCellOverlapping(int pixel) {
+        return Math.max(0, (pixel - 1) / TILE_SIDE_LENGTH);
+    }
 
-        Set<Point> activeTileLocations = game.getActivePiece().getTileLocations();
-        Set<Point> hardDropTileLocations = game.getActivePiece().getHardDropTileLocations();
+    // EFFECTS: returns the index of the last row or column of cells whose drawing starts before the given pixel
+    //          coordinate
+    private static int getLastCellOverlapping(int endPixel) {
+        return (endPixel - 1) / TILE_SIDE_LENGTH;
+    }
 
-        if (activeTileLocations.contains(new Point(column, row))) {
-            g.setColor(Color.RED);
-        } else if (hardDropTileLocations.contains(new Point(column, row))) {
-            // https://stackoverflow.com/a/8111007/3335320 taught me how to decrease a colour's opacity.
-            g.setColor(new Color(Color.RED.getRed(), Color.RED.getBlue(), Color.RED.getGreen(), 127));
-        } else {
-            g.setColor(Color.BLACK);
+    // EFFECTS: asks Swing to repaint the dirty cells of the given frame, one rectangle per run of adjacent dirty cells
+    //          in a row. This may be called from any thread; Swing merges the requests into one paint on the EDT.
+    private void repaintDirtyCells(FrameSnapshot frame) {
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            int dirtyMask = frame.getDirtyRowMask(r);
+            while (dirtyMask != 0) {
+                int firstColumn = Integer.numberOfTrailingZeros(dirtyMask);
+                int runLength = Integer.numberOfTrailingZeros(~(dirtyMask >>> firstColumn));
+                repaint(firstColumn * TILE_SIDE_LENGTH, r * TILE_SIDE_LENGTH,
+                        runLength * TILE_SIDE_LENGTH + 1, TILE_SIDE_LENGTH + 1);
+                dirtyMask &= ~(((1 << runLength) - 1) << firstColumn);
+            }
         }
+    }
 
-        g.fillRect(column * TILE_SIDE_LENGTH, row * TILE_SIDE_LENGTH, TILE_SIDE_LENGTH, TILE_SIDE_LENGTH);
-        if (g.getColor() == Color.BLACK) {
-            g.setColor(Color.WHITE);
-        } else {
-            g.setColor(Color.BLACK);
-        }
-        g.drawRect(column * TILE_SIDE_LENGTH, row * TILE_SIDE_LENGTH, TILE_SIDE_LENGTH, TILE_SIDE_LENGTH);
+    // MODIFIES: this
+    // EFFECTS: adds the given paint time, in nanoseconds, to the paint times
+    private synchronized void recordPaintTime(long nanoseconds) {
+        paintTimes.add((int) (nanoseconds / 1000));
     }
 
-    // EFFECTS: returns the number of milliseconds between consecutive game updates.
-    //          We will refer to this number as MSPU (milliseconds per update). Generally,
-    //          as the game level increases, the MSPU decreases in order to make pieces
-    //          fall faster. The MSPU decreases linearly from levels 0 to 18, is held constant
-    //          between levels 19 and 28, and reaches its lowest value at level 29.
-    //
-    //          The MSPU values are very loosely based on the "frames per gridcell" values given
-    //          in the Details section of the following webpage: https://tetris.wiki/Tetris_(NES,_Nintendo)
-    private int getMillisecondsPerUpdate() {
-        int level = game.getLevel();
-        if (0 <= level && level <= 18) {
-            return 1000 - 52 * level;
-        } else if (19 <= level && level <= 28) {
-            return 40;
+    // MODIFIES: g
+    // EFFECTS: draws a cell of the given style with its upper-left corner at pixel (x, y)
+    private void drawCell(Graphics g, int style, int x, int y) {
+        if (tileSprites != null) {
+            tileSprites.drawCell(g, style, x, y);
         } else {
-            return 20;
+            TileSprites.drawCellWithoutSprite(g, style, x, y, TILE_SIDE_LENGTH);
         }
     }
 }
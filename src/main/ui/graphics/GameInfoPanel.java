@@ -2,16 +2,18 @@ package ui.graphics;
 
 
 import model.Game;
+import model.event.GameAdapter;
+import model.event.GameListener;
+import model.pieces.Piece;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.Set;
 
 // Represents the panel that tells the user information about a Tetris game. The
 // panel tells the user their current score, level, and lines cleared, as well as
 // what the next piece is.
-public class GameInfoPanel extends JPanel implements Observer {
+public class GameInfoPanel extends JPanel {
     private Game game;
 
     private JLabel scoreLabel;
@@ -19,6 +21,8 @@ public class GameInfoPanel extends JPanel implements Observer {
     private JLabel levelLabel;
     private JLabel nextPieceLabel;
     private NextPiecePanel nextPiecePanel;
+    // The listener that updates this panel when the game changes
+    private GameListener gameListener;
 
     // EFFECTS: constructs a new GameInfoPanel for the given game
     public GameInfoPanel(Game game) {
@@ -27,8 +31,6 @@ public class GameInfoPanel extends JPanel implements Observer {
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
 
         this.game = game;
-        game.addObserver(this);
-
         scoreLabel = new JLabel("Score: " + game.getScore());
         scoreLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
 
@@ -53,22 +55,60 @@ public class GameInfoPanel extends JPanel implements Observer {
         add(nextPieceLabel);
         add(Box.createRigidArea(new Dimension(0, 20)));
         add(nextPiecePanel);
+
+        listenToGame();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this panel follow the changes to the game
+    private void listenToGame() {
+        gameListener = new LabelUpdater();
+        game.addListener(gameListener);
     }
 
     // MODIFIES: this
-    // EFFECTS: if observable is an instance of Game, then updates the game information shown by this panel
-    //          to reflect the changes in the Observable. The arg parameter is ignored.
-    @Override
-    public void update(Observable observable, Object arg) {
-        if (observable instanceof Game) {
-            Game observedGame = (Game) observable;
-            scoreLabel.setText("Score: " + observedGame.getScore());
-            linesClearedLabel.setText("Lines cleared: " + observedGame.getLinesCleared());
-            levelLabel.setText("Level: " + observedGame.getLevel());
-            nextPieceLabel.setText("Next piece: ");
-            nextPiecePanel.setNextPiece(observedGame.getNextPiece());
+    // EFFECTS: stops this panel from following the changes to the game, so that the game no longer refers to it.
+    //          The panel keeps showing the values it last showed.
+    public void dispose() {
+        game.removeListener(gameListener);
+    }
+
+    // Updates the labels and the next piece of this panel when the game changes. The game's events are published on
+    // the game loop thread, so the changed values are read there and the labels are updated on the event dispatching
+    // thread.
+    private class LabelUpdater extends GameAdapter {
+        @Override
+        public void linesCleared(Game game, int[] rows) {
+            final int score = game.getScore();
+            final int linesCleared = game.getLinesCleared();
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    scoreLabel.setText("Score: " + score);
+                    linesClearedLabel.setText("Lines cleared: " + linesCleared);
+                }
+            });
         }
 
-        repaint();
+        @Override
+        public void levelChanged(Game game, final int newLevel) {
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    levelLabel.setText("Level: " + newLevel);
+                }
+            });
+        }
+
+        @Override
+        public void pieceSpawned(Game game, Piece piece) {
+            final Set<Point> nextPieceTiles = game.getNextPiece().getTileLocations();
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    nextPiecePanel.setNextPieceTiles(nextPieceTiles);
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,58 @@
+package ui.graphics;
+
+import model.Input;
+import model.loop.GameLoop;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+
+// Binds the game's keys on a Swing component, so that pressing and releasing them queues the presses and releases
+// of the game's inputs on a game loop.
+public class GameKeyBindings {
+
+    // MODIFIES: component
+    // EFFECTS: binds the game's keys to the given loop for as long as the component's window is focused, replacing
+    //          any bindings of the same keys that were installed before.
+    //          The up arrow key rotates the active piece 90 degrees clockwise.
+    //          The down arrow key moves the active piece down one tile.
+    //          The left arrow key moves the active piece left.
+    //          The right arrow key moves the active piece right.
+    //          The space key hard drops the active piece.
+    public static void install(JComponent component, GameLoop gameLoop) {
+        // https://docs.oracle.com/javase/tutorial/uiswing/misc/keybinding.html taught me how to use key bindings
+        bindKey(component, gameLoop, KeyEvent.VK_UP, Input.ROTATE);
+        bindKey(component, gameLoop, KeyEvent.VK_KP_UP, Input.ROTATE);
+        bindKey(component, gameLoop, KeyEvent.VK_DOWN, Input.SOFT_DROP);
+        bindKey(component, gameLoop, KeyEvent.VK_KP_DOWN, Input.SOFT_DROP);
+        bindKey(component, gameLoop, KeyEvent.VK_LEFT, Input.MOVE_LEFT);
+        bindKey(component, gameLoop, KeyEvent.VK_KP_LEFT, Input.MOVE_LEFT);
+        bindKey(component, gameLoop, KeyEvent.VK_RIGHT, Input.MOVE_RIGHT);
+        bindKey(component, gameLoop, KeyEvent.VK_KP_RIGHT, Input.MOVE_RIGHT);
+        bindKey(component, gameLoop, KeyEvent.VK_SPACE, Input.HARD_DROP);
+    }
+
+    // MODIFIES: component
+    // EFFECTS: binds the key with the given key code so that pressing and releasing it queue the press and release
+    //          of the given input on the game loop
+    private static void bindKey(JComponent component, final GameLoop gameLoop, int keyCode, final Input input) {
+        String pressName = "press " + input;
+        String releaseName = "release " + input;
+        InputMap inputMap = component.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        inputMap.put(KeyStroke.getKeyStroke(keyCode, 0, false), pressName);
+        inputMap.put(KeyStroke.getKeyStroke(keyCode, 0, true), releaseName);
+
+        component.getActionMap().put(pressName, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gameLoop.pressInput(input);
+            }
+        });
+        component.getActionMap().put(releaseName, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gameLoop.releaseInput(input);
+            }
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package ui.graphics;
+
+import model.Game;
+import model.ai.AutoPlayer;
+import model.ai.HeuristicBot;
+import model.loop.GameLoop;
+import ui.sound.ThemeSongPlayer;
+
+import javax.swing.*;
+import java.awt.*;
+
+// Represents one game shown in the TetrisGui window, from the moment it starts until it is torn down: the game, the
+// loop that runs it, the components that display it, the bot that plays it if there is one, and the theme song that
+// plays along with it.
+//
+// TetrisGui starts a new session for every game and disposes of the previous one first, so that no loop or render
+// thread, and no listener of the old game, is left behind after a restart.
+class GameSession {
+    private final Game game;
+    private final GameLoop gameLoop;
+    private final ThemeSongPlayer player;
+    // The panel that displays the board, or null if the board is actively rendered on boardCanvas
+    private final BoardPanel boardPanel;
+    // The canvas and the panel that holds it, or null if the board is displayed by boardPanel
+    private final ActiveBoardCanvas boardCanvas;
+    private final JPanel boardCanvasHolder;
+    private final GameInfoPanel gameInfoPanel;
+    // The bot that plays the game, or null if the game is played with the keyboard
+    private final AutoPlayer autoPlayer;
+
+    // EFFECTS: creates a session for the given game, run by the given loop, with the theme song played by the given
+    //          player. The board is displayed on a canvas with active rendering if activeRendering is true, or else
+    //          on a board panel that paints with tile sprites if usesSprites is true. If autoPlay is true, the game
+    //          is played by a heuristic bot; otherwise the game's keys are bound to the board's component.
+    //          Nothing runs until start is called.
+    GameSession(Game game, GameLoop gameLoop, ThemeSongPlayer player, boolean activeRendering, boolean usesSprites,
+                boolean autoPlay) {
+        this.game = game;
+        this.gameLoop = gameLoop;
+        this.player = player;
+        autoPlayer = autoPlay ? new AutoPlayer(gameLoop, new HeuristicBot()) : null;
+        if (activeRendering) {
+            boardPanel = null;
+            boardCanvas = new ActiveBoardCanvas(gameLoop);
+            boardCanvasHolder = new JPanel(new BorderLayout());
+            boardCanvasHolder.add(boardCanvas);
+            if (!autoPlay) {
+                GameKeyBindings.install(boardCanvasHolder, gameLoop);
+            }
+        } else {
+            boardPanel = new BoardPanel(gameLoop, usesSprites, !autoPlay);
+            boardCanvas = null;
+            boardCanvasHolder = null;
+        }
+        gameInfoPanel = new GameInfoPanel(game);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the render thread if the board is actively rendered, has the bot start playing if there is one,
+    //          starts the game loop and plays the theme song on loop from the beginning. The board's component must
+    //          already be in a displayable window if it is actively rendered.
+    void start() {
+        if (boardCanvas != null) {
+            boardCanvas.start();
+        }
+        if (autoPlayer != null) {
+            autoPlayer.start(game);
+        }
+        gameLoop.start();
+        player.startThemeOnLoop();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pauses the game and the theme song, if the game is running and not over (see GameLoop.pause)
+    void pause() {
+        if (!gameLoop.isPaused() && !gameLoop.getLatestFrame().isGameOver()) {
+            gameLoop.pause();
+            player.stop();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: resumes the game and the theme song, if the game is paused
+    void resume() {
+        if (gameLoop.isPaused()) {
+            gameLoop.resume();
+            player.resume();
+        }
+    }
+
+    // EFFECTS: returns true if the game is paused
+    boolean isPaused() {
+        return gameLoop.isPaused();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tears the session down: stops its game loop and render thread, and unregisters the components that
+    //          display the game, and every other listener, from the game and its loop, so that nothing keeps running
+    //          or listening in the background once the components are removed from the window. The theme song
+    //          player is shared between sessions, so it is not disposed of.
+    void dispose() {
+        gameLoop.stop();
+        if (boardCanvas != null) {
+            boardCanvas.stop();
+        }
+        if (boardPanel != null) {
+            boardPanel.dispose();
+        }
+        gameInfoPanel.dispose();
+        game.dispose();
+    }
+
+    // EFFECTS: returns the game of this session
+    Game getGame() {
+        return game;
+    }
+
+    // EFFECTS: returns the loop that runs the game of this session
+    GameLoop getGameLoop() {
+        return gameLoop;
+    }
+
+    // EFFECTS: returns the component that displays the board
+    JComponent getBoardComponent() {
+        return boardCanvas != null ? boardCanvasHolder : boardPanel;
+    }
+
+    // EFFECTS: returns the panel that displays the score, lines, level and next piece
+    GameInfoPanel getGameInfoPanel() {
+        return gameInfoPanel;
+    }
+
+    // EFFECTS: prints how long the board took to paint, or how well active rendering kept up with the display, and
+    //          how long the bot took to choose each placement if the game was played by one
+    void printStats() {
+        if (boardCanvas != null) {
+            System.out.println("Board frames: " + boardCanvas.getFrameTimer());
+        } else {
+            System.out.println("Board paint time (microseconds, " + (boardPanel.usesSprites() ? "sprites" : "Graphics")
+                    + "): " + boardPanel.getPaintTimes());
+        }
+        if (autoPlayer != null) {
+            System.out.println("Bot decision time (microseconds): " + autoPlayer.getDecisionTimes());
+        }
+    }
+}
@@ -9,23 +9,34 @@ import java.util.Set;
 
 // This panel displays the next piece that will spawn in the Tetris game.
 public class NextPiecePanel extends JPanel {
-    private Piece nextPiece;
+    // The locations of the next piece's tiles when it spawns
+    private Set<Point> nextPieceTiles;
 
     // EFFECTS: constructs a NextPiecePanel to display the given next piece
     public NextPiecePanel(Piece nextPiece) {
-        this.nextPiece = nextPiece;
+        this.nextPieceTiles = nextPiece.getTileLocations();
         setPreferredSize(new Dimension(BoardPanel.TILE_SIDE_LENGTH * 4 + 5, BoardPanel.TILE_SIDE_LENGTH * 4 + 5));
     }
 
+    // MODIFIES: this
     // EFFECTS: sets the next piece to the given nextPiece
     public void setNextPiece(Piece nextPiece) {
-        this.nextPiece = nextPiece;
+        setNextPieceTiles(nextPiece.getTileLocations());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the next piece to the piece whose tiles spawn at the given locations, and repaints the panel.
+    //          The locations are read while the next piece is still waiting to spawn, so that the panel does not
+    //          read a piece that the game loop may be moving.
+    public void setNextPieceTiles(Set<Point> nextPieceTiles) {
+        this.nextPieceTiles = nextPieceTiles;
+        repaint();
     }
 
     // EFFECTS: draws the next piece
     @Override
     public void paintComponent(Graphics g) {
-        Set<Point> tileLocations = nextPiece.getTileLocations();
+        Set<Point> tileLocations = nextPieceTiles;
 
         int lowestXPosition = Game.WIDTH;
         for (Point point : tileLocations) {
@@ -1,60 +1,65 @@
 package ui.graphics;
 
 import model.Game;
+import model.event.GameAdapter;
+import model.loop.GameLoop;
 import ui.dialog.GameOverDialog;
 import ui.dialog.PreGameDialog;
 import ui.util.TemporaryScoreboardManager;
+import ui.sound.AudioErrorListener;
+import ui.sound.GameSoundEffects;
+import ui.sound.SoundEffectMixer;
 import ui.sound.ThemeSongPlayer;
 
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.KeyAdapter;
+import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.IOException;
-import java.util.Observable;
-import java.util.Observer;
 import java.util.Random;
 
 // Represents the main GUI window.
-public class TetrisGui extends JFrame implements Observer {
+public class TetrisGui extends JFrame {
     /* Code adapted from SimpleDrawingPlayer-Complete's DrawingEditor class.
      * https://github.students.cs.ubc.ca/CPSC210/SimpleDrawingPlayer-Complete/blob/master/src/ui/DrawingEditor.java
      */
 
-    private Game game;
-    private BoardPanel boardPanel;
-    private GameInfoPanel gameInfoPanel;
+    // System properties that set the delayed auto shift and auto repeat rate of held keys, in milliseconds
+    public static final String DAS_PROPERTY = "tetris.das";
+    public static final String ARR_PROPERTY = "tetris.arr";
+    // System property that chooses whether the board is painted with tile sprites (the default) or Graphics calls
+    public static final String SPRITES_PROPERTY = "tetris.sprites";
+    // System property that, if true, prints the board's paint times to standard output when each game is over
+    public static final String PAINT_STATS_PROPERTY = "tetris.paintstats";
+    // System property that, if true, displays the board with active rendering on an ActiveBoardCanvas
+    public static final String ACTIVE_RENDERING_PROPERTY = "tetris.activerendering";
+    // System property that, if true, has a heuristic bot play the game instead of the keyboard
+    public static final String AUTOPLAY_PROPERTY = "tetris.autoplay";
+
+    // The game being played and everything that runs and displays it, or null before the first game starts
+    private GameSession session;
     private TemporaryScoreboardManager tempScoreboardManager = TemporaryScoreboardManager.getInstance();
     private ThemeSongPlayer player = ThemeSongPlayer.getInstance();
+    private SoundEffectMixer soundEffects = SoundEffectMixer.getInstance();
 
     // EFFECTS: Creates a new TetrisGui object. The GUI will have the title "Tetris".
     //          Makes a dialog window that tells the player to set the game's starting level. The GUI will only
     //          be fully initialized after the user has set the starting level in the dialog window.
     //
-    //          When fully initialized, the GUI will be visible. It will have a key listener for handling keyboard
+    //          When fully initialized, the GUI will be visible, and its board panel will handle the keyboard
     //          controls. If the user closes the window while having at least one unsaved scoreboard entry, the user
     //          will be prompted to save any unsaved scoreboard entries they have.
     public TetrisGui() {
         super("Tetris");
+        setUpMusicErrors();
         startNewGame();
 
-        // The following sources helped me create this key listener:
-        // -> https://docs.oracle.com/javase/tutorial/uiswing/events/keylistener.html
-        // -> https://stackoverflow.com/a/8961998/3335320
-        // -> The SpaceInvaders class from the SpaceInvaders repository
-        //    https://github.students.cs.ubc.ca/CPSC210/B02-SpaceInvadersBase/blob/master/src/main/ca/ubc/cpsc210/spaceinvaders/ui/SpaceInvaders.java
-        addKeyListener(new KeyAdapter() {
-            @Override
-            public void keyPressed(KeyEvent e) {
-                boardPanel.handleKeyPressed(e.getKeyCode());
-            }
-        });
-
         setUpClosingBehaviour();
+        setUpPausing();
     }
 
     // MODIFIES: this
@@ -65,54 +70,61 @@ public class TetrisGui extends JFrame implements Observer {
     }
 
     // MODIFIES: this
-    // EFFECTS: starts a new Tetris game with the given starting level and a random seed.
+    // EFFECTS: starts a new Tetris game with the given starting level and a random seed, running on a new game loop.
+    //          The previous game, if any, is disposed of (see disposeGame).
     //          No dialog window appears if this method is called.
-    //          The Tetris theme song will play on loop.
+    //          The Tetris theme song will play on loop from the beginning, without delaying the game.
     public void startNewGame(int startingLevel) {
         // https://stackoverflow.com/questions/9347076/how-to-remove-all-components-from-a-jframe-in-java taught me
         // how to remove all components from the window
+        disposeGame();
         this.getContentPane().removeAll();
-        initFields(startingLevel);
+        initSession(startingLevel);
         initGraphics();
+        session.start();
 
-        try {
-            player.startThemeOnLoop();
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(null, "An I/O error occurred when loading the theme song.",
-                    "Music Error", JOptionPane.ERROR_MESSAGE);
-        } catch (LineUnavailableException e) {
-            JOptionPane.showMessageDialog(null, "Error: no line is available to play the theme song.",
-                    "Music Error", JOptionPane.ERROR_MESSAGE);
-        } catch (UnsupportedAudioFileException e) {
-            JOptionPane.showMessageDialog(null, "Error: theme song file is not a valid audio file.",
-                    "Music Error", JOptionPane.ERROR_MESSAGE);
-        } catch (NullPointerException e) {
-            JOptionPane.showMessageDialog(null, "Error: theme song file was not found.",
-                    "Music Error", JOptionPane.ERROR_MESSAGE);
+        this.repaint();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pauses the current game and the Tetris theme, if the game is running and not over. While paused, the
+    //          game loop's thread is parked and the board is hidden.
+    public void pauseGame() {
+        if (session != null) {
+            session.pause();
         }
+    }
 
-        this.repaint();
+    // MODIFIES: this
+    // EFFECTS: resumes the current game and the Tetris theme, if the game is paused
+    public void resumeGame() {
+        if (session != null) {
+            session.resume();
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: if observable is an instance of Game, checks to see if the game is over.
-    //          If the game is over, then stops playing the Tetris theme, and creates and shows a dialog that:
+    // EFFECTS: stops playing the Tetris theme, and creates and shows a dialog that:
     //           - tells the user that the game is over
     //           - shows the user their final score and number of lines cleared
     //           - displays buttons that the user can press to indicate their next action
-    //          The arg parameter is ignored.
-    @Override
-    public void update(Observable observable, Object arg) {
-        if (observable instanceof Game) {
-            Game observedGame = (Game) observable;
-
-            if (observedGame.isGameOver()) {
-                // Repaints all components of the JFrame, according to https://stackoverflow.com/a/11708728/3335320
-                repaint();
-                player.stop();
-                new GameOverDialog(observedGame, this);
-            }
+    private void showGameOver(Game finishedGame) {
+        // Repaints all components of the JFrame, according to https://stackoverflow.com/a/11708728/3335320
+        repaint();
+        player.stop();
+        if (Boolean.getBoolean(PAINT_STATS_PROPERTY)) {
+            printPaintStats();
         }
+        new GameOverDialog(finishedGame, this);
+    }
+
+    // EFFECTS: prints how long the board took to paint, or how well active rendering kept up with the display, and
+    //          how long the bot took to choose each placement if the game was played by one, and the latency of the
+    //          sound effects
+    private void printPaintStats() {
+        session.printStats();
+        System.out.printf("Sound effect latency: %.1f ms (%s)%n", soundEffects.getLatencyMilliseconds(),
+                soundEffects.isLineOpen() ? "measured from the line" : "requested, since no line was opened");
     }
 
     // MODIFIES: this
@@ -141,6 +153,9 @@ public class TetrisGui extends JFrame implements Observer {
                         }
                     }
                 }
+                disposeGame();
+                player.dispose();
+                soundEffects.dispose();
                 TetrisGui.this.dispose();
                 System.exit(0);
             }
@@ -148,21 +163,114 @@ public class TetrisGui extends JFrame implements Observer {
     }
 
     // MODIFIES: this
-    // EFFECTS: initializes all the fields of this GUI to their default values. The game
-    //          is initialized to have the specified starting level.
-    private void initFields(int gameStartingLevel) {
-        game = new Game(new Random().nextInt(), gameStartingLevel);
-        boardPanel = new BoardPanel(game);
-        gameInfoPanel = new GameInfoPanel(game);
-        game.addObserver(this);
+    // EFFECTS: makes the theme song player tell the user, in a dialog, about any error that stops the theme song from
+    //          playing. The player loads and plays the song on its own thread, so the dialog is shown on the EDT.
+    //          The game is still playable without sound effects, so an error that stops them is only printed.
+    private void setUpMusicErrors() {
+        soundEffects.setErrorListener(new AudioErrorListener() {
+            @Override
+            public void audioFailed(Exception error) {
+                System.err.println("Sound effects are off: " + error);
+            }
+        });
+        player.setErrorListener(new AudioErrorListener() {
+            @Override
+            public void audioFailed(final Exception error) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        showMusicError(error);
+                    }
+                });
+            }
+        });
+    }
+
+    // EFFECTS: shows a dialog that tells the user about the given error, which stopped the theme song from playing
+    private void showMusicError(Exception error) {
+        String message;
+        if (error instanceof LineUnavailableException) {
+            message = "Error: no line is available to play the theme song.";
+        } else if (error instanceof UnsupportedAudioFileException) {
+            message = "Error: theme song file is not a valid audio file.";
+        } else if (error instanceof NullPointerException) {
+            message = "Error: theme song file was not found.";
+        } else {
+            message = "An I/O error occurred when loading the theme song.";
+        }
+        JOptionPane.showMessageDialog(null, message, "Music Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the P key pause and resume the game, and pauses the game whenever the window is minimized or
+    //          stops being the focused window. A game paused that way stays paused until the player presses P.
+    private void setUpPausing() {
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_P, 0), "toggle pause");
+        getRootPane().getActionMap().put("toggle pause", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (session != null && session.isPaused()) {
+                    resumeGame();
+                } else {
+                    pauseGame();
+                }
+            }
+        });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                pauseGame();
+            }
+
+            @Override
+            public void windowDeactivated(WindowEvent e) {
+                pauseGame();
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tears down the current game, if any, so that nothing keeps running or listening in the background
+    //          once the components that display it are removed from the window (see GameSession.dispose)
+    private void disposeGame() {
+        if (session != null) {
+            session.dispose();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a session for a new game with the specified starting level and a random seed, displayed and
+    //          played as the system properties say, and plays its sound effects and shows the game over dialog when
+    //          it ends. Nothing runs until the session is started.
+    private void initSession(int gameStartingLevel) {
+        Game game = new Game(new Random().nextInt(), gameStartingLevel);
+        GameLoop gameLoop = new GameLoop(game, Integer.getInteger(DAS_PROPERTY, GameLoop.DEFAULT_DAS_MILLISECONDS),
+                Integer.getInteger(ARR_PROPERTY, GameLoop.DEFAULT_ARR_MILLISECONDS));
+        session = new GameSession(game, gameLoop, player, Boolean.getBoolean(ACTIVE_RENDERING_PROPERTY),
+                Boolean.parseBoolean(System.getProperty(SPRITES_PROPERTY, "true")),
+                Boolean.getBoolean(AUTOPLAY_PROPERTY));
+        game.addListener(new GameSoundEffects(soundEffects));
+        game.addListener(new GameAdapter() {
+            @Override
+            public void gameOver(final Game game) {
+                // The game loop publishes this event on its own thread, so the dialog is shown on the EDT
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        showGameOver(game);
+                    }
+                });
+            }
+        });
     }
 
     // MODIFIES: this
     // EFFECTS: initializes graphics-related properties of the GUI window.
     private void initGraphics() {
         setLayout(new FlowLayout());
-        add(boardPanel);
-        add(gameInfoPanel);
+        add(session.getBoardComponent());
+        add(session.getGameInfoPanel());
         setResizable(false);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         pack();
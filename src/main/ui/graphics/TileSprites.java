@@ -0,0 +1,104 @@
+package ui.graphics;
+
+import model.loop.FrameSnapshot;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Represents the images of the styles a board cell can be drawn in. Each style is rasterized once, with the same
+// Graphics calls that would otherwise draw it for every cell on every paint, into an opaque sprite that covers the
+// cell and its one-pixel outline. A board is then painted by copying one sprite per cell, which needs no blending and
+// which Java2D can cache in video memory.
+//
+// A cell's drawing sets every pixel of its sprite (its outline, and its fill or the background inside), so the
+// sprites can be blended with the background in advance. Neighbouring cells share their outlines, and the cell drawn
+// last sets the shared pixels, as with the Graphics calls.
+public class TileSprites {
+    // The styles a cell can be drawn in
+    public static final int EMPTY = 0;
+    public static final int LOCKED_TILE = 1;
+    public static final int PIECE_TILE = 2;
+    public static final int HARD_DROP_TILE = 3;
+    public static final int NUM_STYLES = 4;
+
+    // https://stackoverflow.com/a/8111007/3335320 taught me how to decrease a colour's opacity.
+    private static final Color HARD_DROP_COLOUR = new Color(Color.RED.getRed(), Color.RED.getBlue(),
+            Color.RED.getGreen(), 127);
+
+    private final int tileSideLength;
+    private final Color background;
+    private final BufferedImage[] sprites;
+
+    // EFFECTS: creates the sprites of every style for tiles with the given side length, in pixels, drawn over the
+    //          given background colour
+    public TileSprites(int tileSideLength, Color background) {
+        this.tileSideLength = tileSideLength;
+        this.background = background;
+        sprites = new BufferedImage[NUM_STYLES];
+        for (int style = 0; style < NUM_STYLES; style++) {
+            sprites[style] = createSprite(style);
+        }
+    }
+
+    // EFFECTS: returns the style of the cell at the given row and column in the given frame
+    public static int getCellStyle(FrameSnapshot frame, int row, int column) {
+        if (frame.hasPieceTileAt(column, row)) {
+            return PIECE_TILE;
+        } else if (frame.isCellOccupied(column, row)) {
+            return LOCKED_TILE;
+        } else if (frame.hasHardDropTileAt(column, row)) {
+            return HARD_DROP_TILE;
+        } else {
+            return EMPTY;
+        }
+    }
+
+    // MODIFIES: g
+    // EFFECTS: draws a cell of the given style with its upper-left corner at pixel (x, y).
+    //          Throws IndexOutOfBoundsException if style is not one of the styles above.
+    public void drawCell(Graphics g, int style, int x, int y) {
+        g.drawImage(sprites[style], x, y, null);
+    }
+
+    // MODIFIES: g
+    // EFFECTS: draws a cell of the given style with its upper-left corner at pixel (x, y) using Graphics calls,
+    //          as the sprite of the style was drawn.
+    //          An empty cell is outlined in black. A locked tile is black with a white outline, a piece tile is red
+    //          with a black outline, and a hard drop tile is translucent red with a black outline.
+    public static void drawCellWithoutSprite(Graphics g, int style, int x, int y, int tileSideLength) {
+        if (style == LOCKED_TILE) {
+            g.setColor(Color.BLACK);
+            g.fillRect(x, y, tileSideLength, tileSideLength);
+            g.setColor(Color.WHITE);
+        } else {
+            if (style == PIECE_TILE) {
+                g.setColor(Color.RED);
+                g.fillRect(x, y, tileSideLength, tileSideLength);
+            } else if (style == HARD_DROP_TILE) {
+                g.setColor(HARD_DROP_COLOUR);
+                g.fillRect(x, y, tileSideLength, tileSideLength);
+            }
+            g.setColor(Color.BLACK);
+        }
+        g.drawRect(x, y, tileSideLength, tileSideLength);
+    }
+
+    // EFFECTS: returns an opaque image, one pixel wider and taller than a tile, filled with the background colour and
+    //          with a cell of the given style drawn on it
+    private BufferedImage createSprite(int style) {
+        BufferedImage sprite;
+        if (GraphicsEnvironment.isHeadless()) {
+            sprite = new BufferedImage(tileSideLength + 1, tileSideLength + 1, BufferedImage.TYPE_INT_RGB);
+        } else {
+            sprite = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration()
+                    .createCompatibleImage(tileSideLength + 1, tileSideLength + 1, Transparency.OPAQUE);
+        }
+        Graphics2D g = sprite.createGraphics();
+        g.setColor(background);
+        g.fillRect(0, 0, tileSideLength + 1, tileSideLength + 1);
+        drawCellWithoutSprite(g, style, 0, 0, tileSideLength);
+        g.dispose();
+        return sprite;
+    }
+}
@@ -0,0 +1,10 @@
+package ui.sound;
+
+// Listens for errors that happen while loading or playing audio in the background
+public interface AudioErrorListener {
+    // EFFECTS: called on the audio thread when the given error stops a sound from playing. The exception is an
+    //          IOException if an I/O error occurred, a LineUnavailableException if no line is available to play the
+    //          sound, an UnsupportedAudioFileException if the sound's file is not a valid audio file, or a
+    //          NullPointerException if the sound's file was not found.
+    void audioFailed(Exception error);
+}
@@ -0,0 +1,83 @@
+package ui.sound;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Represents a sound that has been decoded once into PCM samples kept in memory, so that it can be played any number
+// of times without reading or decoding its file again.
+public class DecodedAudio {
+    private final AudioFormat format;
+    private final byte[] data;
+
+    // EFFECTS: creates a sound from PCM data in the given format
+    public DecodedAudio(AudioFormat format, byte[] data) {
+        this.format = format;
+        this.data = data;
+    }
+
+    // EFFECTS: reads and decodes the audio file on the classpath at the given resource path into signed PCM samples.
+    //          Throws IOException if an I/O error occurs.
+    //          Throws UnsupportedAudioFileException if the resource is not a valid audio file, or cannot be
+    //          converted to signed PCM.
+    //          Throws NullPointerException if there is no resource at the given path.
+    public static DecodedAudio decodeResource(String resourcePath) throws IOException,
+            UnsupportedAudioFileException, NullPointerException {
+        InputStream inputStream = DecodedAudio.class.getResourceAsStream(resourcePath);
+        if (inputStream == null) {
+            throw new NullPointerException("No audio resource at " + resourcePath);
+        }
+        try {
+            return decode(new BufferedInputStream(inputStream));
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    // EFFECTS: reads and decodes the audio file in the given stream into signed PCM samples.
+    //          Throws IOException if an I/O error occurs.
+    //          Throws UnsupportedAudioFileException if the stream does not hold a valid audio file, or its samples
+    //          cannot be converted to signed PCM.
+    public static DecodedAudio decode(InputStream inputStream) throws IOException, UnsupportedAudioFileException {
+        AudioInputStream stream = AudioSystem.getAudioInputStream(inputStream);
+        AudioFormat sourceFormat = stream.getFormat();
+        if (sourceFormat.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
+            AudioFormat pcmFormat = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sourceFormat.getSampleRate(),
+                    16, sourceFormat.getChannels(), sourceFormat.getChannels() * 2, sourceFormat.getSampleRate(),
+                    false);
+            if (!AudioSystem.isConversionSupported(pcmFormat, sourceFormat)) {
+                throw new UnsupportedAudioFileException("Cannot convert " + sourceFormat + " to PCM");
+            }
+            stream = AudioSystem.getAudioInputStream(pcmFormat, stream);
+        }
+
+        ByteArrayOutputStream samples = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        int numBytesRead = stream.read(buffer);
+        while (numBytesRead != -1) {
+            samples.write(buffer, 0, numBytesRead);
+            numBytesRead = stream.read(buffer);
+        }
+        return new DecodedAudio(stream.getFormat(), samples.toByteArray());
+    }
+
+    // EFFECTS: returns the format of the samples
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    // EFFECTS: returns the samples, which the caller must not change
+    public byte[] getData() {
+        return data;
+    }
+
+    // EFFECTS: returns the number of sample frames, each of which holds one sample of every channel
+    public int getNumFrames() {
+        return data.length / format.getFrameSize();
+    }
+}
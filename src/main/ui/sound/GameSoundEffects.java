@@ -0,0 +1,51 @@
+package ui.sound;
+
+import model.Game;
+import model.Input;
+import model.event.GameAdapter;
+
+// Plays the sound effects of a game: a click for every move, a chirp for every rotation, a thud when a piece locks,
+// and a rising sweep when lines are cleared or the level goes up. Soft drops are silent, since held soft drops
+// would drown out everything else.
+//
+// The game publishes its events on the game loop's thread, which plays the effects without waiting or allocating.
+public class GameSoundEffects extends GameAdapter {
+    private final SoundEffectMixer mixer;
+
+    // EFFECTS: creates a listener that plays the effects of a game on the given mixer
+    public GameSoundEffects(SoundEffectMixer mixer) {
+        this.mixer = mixer;
+    }
+
+    // MODIFIES: mixer
+    // EFFECTS: plays the rotate effect for a rotation and the move effect for a move left or right
+    @Override
+    public void pieceMoved(Game game, Input input) {
+        if (input == Input.ROTATE) {
+            mixer.play(SoundEffect.ROTATE);
+        } else if (input == Input.MOVE_LEFT || input == Input.MOVE_RIGHT) {
+            mixer.play(SoundEffect.MOVE);
+        }
+    }
+
+    // MODIFIES: mixer
+    // EFFECTS: plays the lock effect
+    @Override
+    public void pieceLocked(Game game) {
+        mixer.play(SoundEffect.LOCK);
+    }
+
+    // MODIFIES: mixer
+    // EFFECTS: plays the line clear effect
+    @Override
+    public void linesCleared(Game game, int[] rows) {
+        mixer.play(SoundEffect.LINE_CLEAR);
+    }
+
+    // MODIFIES: mixer
+    // EFFECTS: plays the level up effect
+    @Override
+    public void levelChanged(Game game, int newLevel) {
+        mixer.play(SoundEffect.LEVEL_UP);
+    }
+}
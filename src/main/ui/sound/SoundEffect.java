@@ -0,0 +1,51 @@
+package ui.sound;
+
+// Represents a short sound played when something happens in a game. Each sound is a square wave whose pitch slides
+// from a start frequency to an end frequency while its volume fades out, so that no audio files are needed.
+public enum SoundEffect {
+    MOVE(1200, 1200, 25, 0.12),
+    ROTATE(900, 1500, 40, 0.12),
+    LOCK(220, 110, 70, 0.3),
+    LINE_CLEAR(660, 1320, 250, 0.25),
+    LEVEL_UP(440, 1760, 400, 0.25);
+
+    // Time over which a sound fades in, so that it does not start with a click
+    private static final double ATTACK_SECONDS = 0.002;
+
+    private final double startFrequency;
+    private final double endFrequency;
+    private final int milliseconds;
+    private final double volume;
+
+    // EFFECTS: creates a sound that slides from startFrequency to endFrequency (in Hz) over the given number of
+    //          milliseconds, with a peak volume between 0 and 1 relative to the loudest 16-bit sample
+    SoundEffect(double startFrequency, double endFrequency, int milliseconds, double volume) {
+        this.startFrequency = startFrequency;
+        this.endFrequency = endFrequency;
+        this.milliseconds = milliseconds;
+        this.volume = volume;
+    }
+
+    // EFFECTS: returns the length of the sound in milliseconds
+    public int getMilliseconds() {
+        return milliseconds;
+    }
+
+    // EFFECTS: returns the samples of the sound as mono, signed 16-bit PCM at the given sample rate
+    public short[] synthesize(float sampleRate) {
+        int numSamples = Math.round(sampleRate * milliseconds / 1000);
+        short[] samples = new short[numSamples];
+        double phase = 0;
+        for (int i = 0; i < numSamples; i++) {
+            double progress = (double) i / numSamples;
+            // The pitch slides exponentially, so that it rises or falls by the same musical interval each moment
+            double frequency = startFrequency * Math.pow(endFrequency / startFrequency, progress);
+            double envelope = Math.min(1, i / (ATTACK_SECONDS * sampleRate)) * (1 - progress);
+            double wave = phase < 0.5 ? 1 : -1;
+            samples[i] = (short) Math.round(wave * envelope * volume * Short.MAX_VALUE);
+            phase += frequency / sampleRate;
+            phase -= Math.floor(phase);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,330 @@
+package ui.sound;
+
+import model.loop.InputRingBuffer;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// This class plays sound effects by mixing them into a single line.
+//
+// Opening a Clip for every sound effect takes far longer than a sound effect lasts, so instead one SourceDataLine
+// stays open and, while effects play, a mixing thread keeps it fed with small chunks of samples. Every sound effect
+// is synthesized once when the mixer is created. Playing an effect only adds its number to a lock-free queue; at the
+// start of each chunk the mixing thread gives every queued effect one of a fixed pool of voices, then adds up the
+// samples of all playing voices. Nothing is allocated while effects are played and mixed.
+//
+// An effect is heard at most one chunk plus the line's buffer after it is played: the mixing thread picks it up at
+// the start of the next chunk, and the chunk is heard once the samples queued before it in the line have played.
+//
+// While nothing is playing, the mixing thread does not feed the line silence: once the last voice has finished and
+// no effect is queued, it lets the line drain, stops it and parks until the next effect is played. So the mixer
+// uses no CPU before a game starts, while it is paused and after it ends. The line is opened when the first effect
+// is played, which makes that effect late by the time the line takes to open.
+public class SoundEffectMixer {
+    public static final float SAMPLE_RATE = 44100;
+
+    // Frames mixed at a time, and the number of chunks the line buffers
+    static final int FRAMES_PER_CHUNK = 128;
+    static final int LINE_BUFFER_CHUNKS = 3;
+
+    // Maximum number of effects that play at the same time
+    static final int NUM_VOICES = 16;
+
+    // Maximum number of effects waiting for the mixing thread
+    private static final int QUEUE_CAPACITY = 64;
+
+    // Mono, signed 16-bit little-endian samples
+    private static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+    private static final int FRAME_SIZE = 2;
+
+    // This class uses the singleton pattern. This is the singleton instance.
+    private static SoundEffectMixer instance;
+
+    // Samples of each effect, indexed by SoundEffect.ordinal
+    private final short[][] effectSamples;
+    private final InputRingBuffer queuedEffects;
+    private volatile AudioErrorListener errorListener;
+    private volatile boolean running;
+    private volatile Thread thread;
+    // True while the mixing thread is parked, or about to park, waiting for an effect to be played
+    private final AtomicBoolean idle;
+    private volatile int lineBufferFrames;
+    private volatile boolean lineOpen;
+
+    // State used only by the thread that mixes
+    private final Voice[] voices;
+    private final int[] sums;
+
+    // EFFECTS: makes a new mixer with every sound effect synthesized and no effects playing. No line is opened
+    //          until start is called.
+    SoundEffectMixer() {
+        effectSamples = new short[SoundEffect.values().length][];
+        for (SoundEffect effect : SoundEffect.values()) {
+            effectSamples[effect.ordinal()] = effect.synthesize(SAMPLE_RATE);
+        }
+        queuedEffects = new InputRingBuffer(QUEUE_CAPACITY);
+        idle = new AtomicBoolean();
+        voices = new Voice[NUM_VOICES];
+        for (int i = 0; i < NUM_VOICES; i++) {
+            voices[i] = new Voice();
+        }
+        sums = new int[FRAMES_PER_CHUNK];
+        lineBufferFrames = FRAMES_PER_CHUNK * LINE_BUFFER_CHUNKS;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the singleton instance of SoundEffectMixer.
+    public static synchronized SoundEffectMixer getInstance() {
+        if (instance == null) {
+            instance = new SoundEffectMixer();
+        }
+        return instance;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the listener that is told when no line can be opened for the sound effects, replacing any
+    //          previous one. A null listener ignores the errors.
+    public void setErrorListener(AudioErrorListener errorListener) {
+        this.errorListener = errorListener;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the mixing thread, which plays the effects played from now on, if it is not already running.
+    //          The thread parks until the first effect is played, and opens the line then.
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runMixLoop();
+            }
+        }, "Sound effects");
+        thread.setDaemon(true);
+        // The line must be fed before its buffer runs out, even while other threads are busy
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the mixing thread and closes its line, waiting for the thread to finish. Has no effect if it is
+    //          not running.
+    public void dispose() {
+        Thread mixThread;
+        synchronized (this) {
+            running = false;
+            mixThread = thread;
+            thread = null;
+        }
+        if (mixThread != null && mixThread != Thread.currentThread()) {
+            LockSupport.unpark(mixThread);
+            try {
+                mixThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues the given effect to start playing at the start of the next chunk, and wakes the mixing thread
+    //          if it is parked, without waiting or allocating. If too many effects are already waiting, the effect
+    //          is not played.
+    //          At most one thread may play effects at a time (for example, the game loop's thread).
+    public void play(SoundEffect effect) {
+        queuedEffects.offer(effect.ordinal());
+        // getAndSet also orders the offer before the read of idle, so a thread about to park sees the effect
+        if (idle.getAndSet(false)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    // EFFECTS: returns the longest time, in milliseconds, between an effect being played and it being heard: one
+    //          chunk plus the size of the line's buffer. The size is the one the line reports once it is open (see
+    //          isLineOpen), which may be larger than the size asked for; until then, it is the size asked for.
+    public double getLatencyMilliseconds() {
+        return (FRAMES_PER_CHUNK + lineBufferFrames) * 1000.0 / SAMPLE_RATE;
+    }
+
+    // EFFECTS: returns true if the mixing thread has opened its line, so that getLatencyMilliseconds is measured
+    public boolean isLineOpen() {
+        return lineOpen;
+    }
+
+    // MODIFIES: this, out
+    // EFFECTS: starts a voice for every effect queued since the last call, then mixes the next numFrames frames of
+    //          every playing voice into out as 16-bit little-endian samples, clipping sums that do not fit. A voice
+    //          that has played all of its samples becomes free. If every voice is busy, a new effect takes the voice
+    //          that has played the longest.
+    //          Throws IllegalArgumentException if numFrames > FRAMES_PER_CHUNK or out holds fewer than numFrames.
+    void mix(byte[] out, int numFrames) {
+        if (numFrames > FRAMES_PER_CHUNK || out.length < numFrames * FRAME_SIZE) {
+            throw new IllegalArgumentException("Cannot mix " + numFrames + " frames into " + out.length + " bytes");
+        }
+        startQueuedEffects();
+        for (int i = 0; i < numFrames; i++) {
+            sums[i] = 0;
+        }
+        for (Voice voice : voices) {
+            voice.mixInto(sums, numFrames);
+        }
+        for (int i = 0; i < numFrames; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sums[i]));
+            out[2 * i] = (byte) sample;
+            out[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    // EFFECTS: returns the state of the mixing thread, or null if it has not been started since the mixer was made
+    //          or disposed of
+    Thread.State getThreadState() {
+        Thread mixThread = thread;
+        return mixThread == null ? null : mixThread.getState();
+    }
+
+    // EFFECTS: returns the number of voices that are playing an effect
+    int getNumVoicesPlaying() {
+        int count = 0;
+        for (Voice voice : voices) {
+            if (voice.isPlaying()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: gives every queued effect a voice to play it from its first sample
+    private void startQueuedEffects() {
+        int effect = queuedEffects.poll();
+        while (effect != InputRingBuffer.EMPTY) {
+            Voice voice = voices[0];
+            for (Voice candidate : voices) {
+                if (!candidate.isPlaying()) {
+                    voice = candidate;
+                    break;
+                } else if (candidate.position > voice.position) {
+                    voice = candidate;
+                }
+            }
+            voice.start(effectSamples[effect]);
+            effect = queuedEffects.poll();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for an effect to be played, then opens the line, and until the mixer is disposed of, writes
+    //          mixed chunks to the line while anything is playing and parks while nothing is. The line blocks each
+    //          write until it has room, which paces the thread. If the line cannot be opened, the error listener is
+    //          told why and the thread ends.
+    private void runMixLoop() {
+        waitForEffects();
+        if (!running) {
+            return;
+        }
+        SourceDataLine line = openLine();
+        if (line == null) {
+            return;
+        }
+        byte[] chunk = new byte[FRAMES_PER_CHUNK * FRAME_SIZE];
+        try {
+            while (running) {
+                line.start();
+                mixUntilSilent(line, chunk);
+                line.drain();
+                line.stop();
+                waitForEffects();
+            }
+        } finally {
+            lineOpen = false;
+            line.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens a line for the effects and records the size of its buffer, and returns the line. If it cannot be
+    //          opened, tells the error listener why and returns null.
+    private SourceDataLine openLine() {
+        try {
+            SourceDataLine line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, FRAMES_PER_CHUNK * LINE_BUFFER_CHUNKS * FRAME_SIZE);
+            lineBufferFrames = line.getBufferSize() / FRAME_SIZE;
+            lineOpen = true;
+            return line;
+        } catch (Exception e) {
+            reportError(e);
+            return null;
+        }
+    }
+
+    // MODIFIES: this, line, chunk
+    // EFFECTS: mixes chunks into the given buffer and writes them to the line until no voice is playing and no effect
+    //          is queued, or the mixer is disposed of
+    private void mixUntilSilent(SourceDataLine line, byte[] chunk) {
+        do {
+            mix(chunk, FRAMES_PER_CHUNK);
+            line.write(chunk, 0, chunk.length);
+        } while (running && (queuedEffects.size() > 0 || getNumVoicesPlaying() > 0));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: parks the calling thread until an effect is queued or the mixer is disposed of
+    private void waitForEffects() {
+        while (running && queuedEffects.size() == 0) {
+            idle.set(true);
+            // An effect played before idle was set did not wake this thread, so the queue is checked again
+            if (running && queuedEffects.size() == 0) {
+                LockSupport.park(this);
+            }
+            idle.set(false);
+        }
+    }
+
+    // EFFECTS: tells the error listener, if any, about the given error
+    private void reportError(Exception error) {
+        AudioErrorListener listener = errorListener;
+        if (listener != null) {
+            listener.audioFailed(error);
+        }
+    }
+
+    // Represents one effect being played: its samples and the index of the next sample to play
+    private static class Voice {
+        private short[] samples;
+        private int position;
+
+        // EFFECTS: returns true if the voice is playing an effect
+        boolean isPlaying() {
+            return samples != null;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: starts playing the given samples from the first one, replacing what the voice was playing
+        void start(short[] samples) {
+            this.samples = samples;
+            position = 0;
+        }
+
+        // MODIFIES: this, sums
+        // EFFECTS: adds the next numFrames samples of the effect, or as many as are left, to sums. The voice becomes
+        //          free once it has played its last sample.
+        void mixInto(int[] sums, int numFrames) {
+            if (samples == null) {
+                return;
+            }
+            int count = Math.min(numFrames, samples.length - position);
+            for (int i = 0; i < count; i++) {
+                sums[i] += samples[position + i];
+            }
+            position += count;
+            if (position == samples.length) {
+                samples = null;
+            }
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package ui.sound;
 
 import javax.sound.sampled.*;
-import java.io.BufferedInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 // This class plays the Tetris theme song on loop.
+//
+// The song is decoded once into PCM samples kept in memory, and played by a single Clip that stays open and is
+// rewound for every game. Loading, decoding and every operation on the clip run in order on a background audio
+// thread, so that none of them blocks the event dispatching thread: calling load at startup decodes the song before
+// the first game needs it, and starting the song for a new game only queues a rewind.
 public class ThemeSongPlayer {
     // The music file comes from https://commons.wikimedia.org/wiki/File:Tetris_theme.ogg (CC BY-SA 3.0).
     // The file was originally an MP3 file. I converted the MP3 to WAV using https://online-audio-converter.com/.
@@ -13,17 +18,36 @@ public class ThemeSongPlayer {
     // https://stackoverflow.com/questions/29887524/how-to-add-resource-file-to-jar-in-intellij#comment47899065_29887558
     private static final String THEME_SONG_FILE_PATH = "/tetrisTheme.wav";
 
+    // Volume of the song, relative to the volume of its file
+    private static final float GAIN_DECIBELS = -15.0f;
+
     // This class uses the singleton pattern. This is the singleton instance.
     private static ThemeSongPlayer instance;
 
+    // Runs the loading of the song and the operations on its clip, one at a time in the order they were requested
+    private final ExecutorService audioThread;
+    private volatile AudioErrorListener errorListener;
+
+    // State used only on the audio thread
+    private boolean loaded;
     private Clip clip;
+    private Exception loadError;
 
     // EFFECTS: makes a new ThemeSongPlayer
-    private ThemeSongPlayer() {}
+    private ThemeSongPlayer() {
+        audioThread = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Theme song");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
 
     // MODIFIES: this
     // EFFECTS: returns the singleton instance of ThemeSongPlayer.
-    public static ThemeSongPlayer getInstance() {
+    public static synchronized ThemeSongPlayer getInstance() {
         if (instance == null) {
             instance = new ThemeSongPlayer();
         }
@@ -31,34 +55,120 @@ public class ThemeSongPlayer {
     }
 
     // MODIFIES: this
-    // EFFECTS: starts playing the song at THEME_SONG_FILE_PATH on loop.
-    //          Throws IOException if an I/O error occurs.
-    //          Throws LineUnavailableException if the "line" that plays the music is not available.
-    //          Throws UnsupportedAudioFileException if the file at THEME_SONG_FILE_PATH is not a valid audio file.
-    //          Throws NullPointerException if the file at THEME_SONG_FILE_PATH does not exist.
-    public void startThemeOnLoop() throws IOException, LineUnavailableException,
-            UnsupportedAudioFileException, NullPointerException {
-        // The code for this method comes from https://stackoverflow.com/a/953752/3335320,
-        // https://stackoverflow.com/a/8425557/3335320, and https://stackoverflow.com/a/5529906/3335320
-        InputStream inputStream = getClass().getResourceAsStream(THEME_SONG_FILE_PATH);
-        if (inputStream == null) {
-            throw new NullPointerException();
-        }
-        AudioInputStream stream = AudioSystem.getAudioInputStream(new BufferedInputStream(inputStream));
-        clip = AudioSystem.getClip();
-        clip.open(stream);
-        clip.loop(Clip.LOOP_CONTINUOUSLY);
-        FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-        gainControl.setValue(-15.0f);
-        clip.start();
+    // EFFECTS: sets the listener that is told when the song cannot be loaded or played, replacing any previous one.
+    //          A null listener ignores the errors.
+    public void setErrorListener(AudioErrorListener errorListener) {
+        this.errorListener = errorListener;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts decoding the song at THEME_SONG_FILE_PATH and opening a line for it in the background, if that
+    //          has not been done yet. Returns without waiting.
+    public void load() {
+        audioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                loadIfNeeded();
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts playing the song on loop from the beginning, once it has been loaded. Returns without waiting.
+    //          If the song cannot be loaded or played, the error listener is told why.
+    public void startThemeOnLoop() {
+        audioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                loadIfNeeded();
+                if (clip != null) {
+                    clip.stop();
+                    clip.setFramePosition(0);
+                    clip.loop(Clip.LOOP_CONTINUOUSLY);
+                } else {
+                    reportError(loadError);
+                }
+            }
+        });
     }
 
     // MODIFIES: this
-    // EFFECTS: stops playing the theme song, if it is playing
+    // EFFECTS: stops playing the theme song, if it is playing. Returns without waiting.
     public void stop() {
-        if (clip != null) {
-            clip.stop();
-            clip.close();
+        audioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (clip != null) {
+                    clip.stop();
+                }
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: continues playing the theme song on loop from where stop left it, if it has been started and not
+    //          disposed of since. Returns without waiting.
+    public void resume() {
+        audioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (clip != null && clip.getFramePosition() > 0) {
+                    clip.loop(Clip.LOOP_CONTINUOUSLY);
+                }
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops playing the theme song, if it is playing, and closes its line, releasing the line's audio
+    //          resources. The decoded song is dropped, so the next call to load or startThemeOnLoop loads it again.
+    //          Returns without waiting.
+    public void dispose() {
+        audioThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (clip != null) {
+                    clip.stop();
+                    clip.close();
+                    clip = null;
+                }
+                loaded = false;
+                loadError = null;
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the song and opens a clip holding it, unless that has already been tried. If it fails, the
+    //          error is kept in loadError.
+    private void loadIfNeeded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        try {
+            DecodedAudio song = DecodedAudio.decodeResource(THEME_SONG_FILE_PATH);
+            clip = AudioSystem.getClip();
+            clip.open(song.getFormat(), song.getData(), 0, song.getData().length);
+            if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+                FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+                gainControl.setValue(GAIN_DECIBELS);
+            }
+        } catch (Exception e) {
+            // The error is reported to the error listener whenever the song is started
+            loadError = e;
+            if (clip != null) {
+                clip.close();
+                clip = null;
+            }
+        }
+    }
+
+    // EFFECTS: tells the error listener, if any, about the given error
+    private void reportError(Exception error) {
+        AudioErrorListener listener = errorListener;
+        if (listener != null && error != null) {
+            listener.audioFailed(error);
         }
     }
 }
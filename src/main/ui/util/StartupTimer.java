@@ -0,0 +1,106 @@
+package ui.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+// This class measures how long the application takes to start. The startup steps, which run on several threads,
+// mark the time at which they finish, relative to the time the timer was created at the start of main. Once the
+// first window is on the screen, the timer is finished, and its report breaks the time to the first frame down into
+// the steps that led to it.
+public class StartupTimer {
+    // We are using the singleton design pattern for this class.
+    private static StartupTimer instance;
+
+    private final long startNanos;
+    private final long startMillis;
+    private final List<String> steps;
+    private final List<Long> stepNanos;
+    private final List<String> stepThreads;
+    private boolean finished;
+
+    // EFFECTS: creates a timer whose time starts now, with no steps
+    StartupTimer() {
+        startNanos = System.nanoTime();
+        startMillis = System.currentTimeMillis();
+        steps = new ArrayList<String>();
+        stepNanos = new ArrayList<Long>();
+        stepThreads = new ArrayList<String>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the singleton instance. The first call starts its time, so main calls this first.
+    public static synchronized StartupTimer getInstance() {
+        if (instance == null) {
+            instance = new StartupTimer();
+        }
+        return instance;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the given step finished now, on the current thread. Has no effect once the timer has
+    //          finished.
+    public synchronized void mark(String step) {
+        if (finished) {
+            return;
+        }
+        steps.add(step);
+        stepNanos.add(System.nanoTime() - startNanos);
+        stepThreads.add(Thread.currentThread().getName());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the given step as the last one, and returns true if the timer was not already finished.
+    //          Returns false and has no effect if it was.
+    public synchronized boolean finish(String step) {
+        if (finished) {
+            return false;
+        }
+        mark(step);
+        finished = true;
+        return true;
+    }
+
+    // EFFECTS: returns the number of steps recorded
+    public synchronized int getNumSteps() {
+        return steps.size();
+    }
+
+    // EFFECTS: returns the time from the start of the timer to the end of the last step recorded, in milliseconds,
+    //          or 0 if no step has been recorded
+    public synchronized double getElapsedMilliseconds() {
+        if (stepNanos.isEmpty()) {
+            return 0;
+        }
+        return stepNanos.get(stepNanos.size() - 1) / 1e6;
+    }
+
+    // EFFECTS: returns a report with one line for the time from the start of the JVM to the start of the timer, then
+    //          one line per step in the order they were recorded, giving the time at which the step finished, how
+    //          long the step took (the time since the step before it on the same thread, or since the start of the
+    //          timer), and the thread it ran on
+    public synchronized String getReport() {
+        // The JVM's start time is only looked up here, since loading the management classes takes tens of
+        // milliseconds that would otherwise be added to every startup
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        StringBuilder report = new StringBuilder("Startup times (milliseconds):\n");
+        report.append(String.format("  %8d  JVM start to main%n", startMillis - jvmStartMillis));
+        for (int i = 0; i < steps.size(); i++) {
+            long nanos = stepNanos.get(i);
+            report.append(String.format("  %8.1f  (+%.1f) %s [%s]%n", nanos / 1e6,
+                    (nanos - getPreviousStepNanos(i)) / 1e6, steps.get(i), stepThreads.get(i)));
+        }
+        return report.toString();
+    }
+
+    // EFFECTS: returns the time at which the last step before the given one on the same thread finished, or 0 if
+    //          it is the first step on its thread
+    private long getPreviousStepNanos(int step) {
+        for (int i = step - 1; i >= 0; i--) {
+            if (stepThreads.get(i).equals(stepThreads.get(step))) {
+                return stepNanos.get(i);
+            }
+        }
+        return 0;
+    }
+}
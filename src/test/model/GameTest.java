@@ -3,17 +3,22 @@ package model;
 import exceptions.IllegalStartingLevelException;
 import exceptions.IncorrectBoardSizeException;
 import exceptions.NegativeLinesException;
+import model.ai.BoardFeatures;
+import model.event.GameAdapter;
+import model.event.GameListener;
 import model.pieces.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import util.AllocationCounter;
 
 import java.awt.Point;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 // Unit tests for the Game class
-public class GameTest implements Observer {
+public class GameTest implements GameListener {
     private Game testGame1;
 
     // Identical to testGame1, except that the first "I" piece is placed upright
@@ -21,7 +26,13 @@ public class GameTest implements Observer {
     private Game testGame2;
     private static final int GAME_SEED = 5000;
 
-    private int numNotificationsReceived;
+    // Events received from the games this class listens to
+    private int numPiecesLocked;
+    private List<Input> movesReceived;
+    private int numPiecesSpawned;
+    private int numGamesOver;
+    private List<int[]> clearedRowsReceived;
+    private List<Integer> levelsReceived;
 
     @BeforeEach
     public void setUp() {
@@ -34,8 +45,13 @@ public class GameTest implements Observer {
             fail("IllegalStartingLevelException should not be thrown");
         }
 
-        testGame1.addObserver(this);
-        numNotificationsReceived = 0;
+        testGame1.addListener(this);
+        numPiecesLocked = 0;
+        movesReceived = new ArrayList<Input>();
+        numPiecesSpawned = 0;
+        numGamesOver = 0;
+        clearedRowsReceived = new ArrayList<int[]>();
+        levelsReceived = new ArrayList<Integer>();
 
         // The random number generator seed is set so that the first piece is an "I" piece.
         // We now set this "I" piece standing upright at the bottom of the rightmost column.
@@ -421,6 +437,12 @@ public class GameTest implements Observer {
         assertFalse(updatedBoard.get(Game.HEIGHT - 3).get(Game.WIDTH - 1));
         assertTrue(updatedBoard.get(Game.HEIGHT - 2).get(Game.WIDTH - 1));
         assertTrue(updatedBoard.get(Game.HEIGHT - 1).get(Game.WIDTH - 1));
+
+        // Check that the column heights follow the tiles that moved down
+        assertEquals(3, testGame2.getColumnHeight(0));
+        assertEquals(0, testGame2.getColumnHeight(4));
+        assertEquals(4, testGame2.getColumnHeight(5));
+        assertEquals(2, testGame2.getColumnHeight(Game.WIDTH - 1));
     }
 
     @Test
@@ -448,11 +470,13 @@ public class GameTest implements Observer {
         // and cause the player to top out.
         testGame1.update();
         assertFalse(testGame1.isGameOver());
-        assertEquals(0, numNotificationsReceived);
+        assertEquals(0, numPiecesLocked);
 
         testGame1.update();
         assertTrue(testGame1.isGameOver());
-        assertEquals(1, numNotificationsReceived);
+        assertEquals(1, numPiecesLocked);
+        assertEquals(1, numGamesOver);
+        assertEquals(0, numPiecesSpawned);
 
         board = testGame1.getBoard();
         List<ArrayList<Boolean>> boardCopy = new ArrayList<ArrayList<Boolean>>();
@@ -523,14 +547,14 @@ public class GameTest implements Observer {
     }
 
     @Test
-    public void testUpdateNotifyObservers() {
+    public void testUpdateNotifyListeners() {
         for (int i = 0; i < Game.HEIGHT - 1; i++) {
             testGame1.update();
         }
 
-        assertEquals(0, numNotificationsReceived);
+        assertEquals(0, numPiecesLocked);
         testGame1.update();
-        assertEquals(1, numNotificationsReceived);
+        assertEquals(1, numPiecesLocked);
 
         // The next piece is a "J" piece.
 
@@ -538,9 +562,149 @@ public class GameTest implements Observer {
             testGame1.update();
         }
 
-        assertEquals(1, numNotificationsReceived);
+        assertEquals(1, numPiecesLocked);
         testGame1.update();
-        assertEquals(2, numNotificationsReceived);
+        assertEquals(2, numPiecesLocked);
+        assertEquals(2, numPiecesSpawned);
+        assertEquals(0, numGamesOver);
+        assertTrue(clearedRowsReceived.isEmpty());
+        assertTrue(levelsReceived.isEmpty());
+    }
+
+    @Test
+    public void testUpdateNotifyListenersOfLineClearAndLevel() {
+        List<ArrayList<Boolean>> riggedBoard = Game.getBlankBoard();
+        for (int c = 0; c < Game.WIDTH - 1; c++) {
+            riggedBoard.get(Game.HEIGHT - 3).set(c, true);
+            riggedBoard.get(Game.HEIGHT - 1).set(c, true);
+        }
+        for (int r = Game.HEIGHT - 4; r <= Game.HEIGHT - 1; r++) {
+            riggedBoard.get(r).set(Game.WIDTH - 1, true);
+        }
+        try {
+            testGame2.setBoard(riggedBoard);
+        } catch (IncorrectBoardSizeException e) {
+            fail("IncorrectBoardSizeException was incorrectly thrown.");
+        }
+        try {
+            testGame2.setLinesCleared(9);
+        } catch (NegativeLinesException e) {
+            fail("NegativeLinesException was incorrectly thrown.");
+        }
+        testGame2.addListener(this);
+
+        testGame2.update();
+
+        assertEquals(1, numPiecesLocked);
+        assertEquals(1, clearedRowsReceived.size());
+        assertArrayEquals(new int[] {Game.HEIGHT - 3, Game.HEIGHT - 1}, clearedRowsReceived.get(0));
+        assertEquals(Collections.singletonList(1), levelsReceived);
+        assertEquals(1, numPiecesSpawned);
+    }
+
+    @Test
+    public void testRemoveListener() {
+        assertEquals(1, testGame1.getNumListeners());
+        testGame1.removeListener(this);
+        assertEquals(0, testGame1.getNumListeners());
+
+        for (int i = 0; i < Game.HEIGHT; i++) {
+            testGame1.update();
+        }
+        assertEquals(0, numPiecesLocked);
+        assertEquals(0, numPiecesSpawned);
+    }
+
+    @Test
+    public void testDispose() {
+        testGame1.addListener(new GameAdapter() {});
+        assertEquals(2, testGame1.getNumListeners());
+        testGame1.dispose();
+        assertEquals(0, testGame1.getNumListeners());
+
+        testGame1.handleInput(Input.HARD_DROP);
+        testGame1.update();
+        assertEquals(0, numPiecesLocked);
+        assertFalse(testGame1.isGameOver());
+    }
+
+    @Test
+    public void testHandleInputMovesActivePiece() {
+        Set<Point> tileLocations = testGame1.getActivePiece().getTileLocations();
+
+        assertTrue(testGame1.handleInput(Input.MOVE_LEFT));
+        assertTrue(testGame1.handleInput(Input.MOVE_RIGHT));
+        assertEquals(tileLocations, testGame1.getActivePiece().getTileLocations());
+
+        assertTrue(testGame1.handleInput(Input.SOFT_DROP));
+        for (Point p : testGame1.getActivePiece().getTileLocations()) {
+            assertTrue(tileLocations.contains(new Point(p.x, p.y - 1)));
+        }
+
+        // The "I" piece can rotate once it has moved down a row
+        assertTrue(testGame1.handleInput(Input.ROTATE));
+        assertEquals(4, getNumTilesOnBoard());
+        assertEquals(Arrays.asList(Input.MOVE_LEFT, Input.MOVE_RIGHT, Input.SOFT_DROP, Input.ROTATE), movesReceived);
+    }
+
+    @Test
+    public void testHandleInputBlockedMoveNotifiesNoListeners() {
+        for (int i = 0; i < Game.WIDTH; i++) {
+            testGame1.handleInput(Input.MOVE_LEFT);
+        }
+        int numMoves = movesReceived.size();
+        assertFalse(testGame1.handleInput(Input.MOVE_LEFT));
+        assertEquals(numMoves, movesReceived.size());
+
+        testGame1.handleInput(Input.HARD_DROP);
+        assertEquals(numMoves, movesReceived.size());
+    }
+
+    @Test
+    public void testHandleInputHardDrop() {
+        Piece firstPiece = testGame1.getActivePiece();
+        Piece secondPiece = testGame1.getNextPiece();
+
+        assertTrue(testGame1.handleInput(Input.HARD_DROP));
+
+        // The "I" piece lands on the floor, and the next piece spawns in
+        assertSame(secondPiece, testGame1.getActivePiece());
+        assertEquals(1, numPiecesLocked);
+        int point1XPos = Math.floorDiv(Game.WIDTH - 1, 2) - 1;
+        for (int x = point1XPos; x < point1XPos + 4; x++) {
+            assertTrue(testGame1.isCellOccupied(x, Game.HEIGHT - 1));
+        }
+        assertNotSame(firstPiece, testGame1.getActivePiece());
+        assertEquals(8, getNumTilesOnBoard());
+    }
+
+    @Test
+    public void testPiecesAreRecycled() {
+        Set<Piece> pieces = Collections.newSetFromMap(new IdentityHashMap<Piece, Boolean>());
+        while (!testGame1.isGameOver()) {
+            assertNotSame(testGame1.getActivePiece(), testGame1.getNextPiece());
+            pieces.add(testGame1.getActivePiece());
+            // Spread the pieces across the board, so that many of them spawn before the game is over
+            for (int i = 0; i < Game.WIDTH; i++) {
+                testGame1.handleInput(Input.MOVE_LEFT);
+            }
+            for (int i = 0; i < numPiecesSpawned % Game.WIDTH; i++) {
+                testGame1.handleInput(Input.MOVE_RIGHT);
+            }
+            testGame1.handleInput(Input.HARD_DROP);
+        }
+        // At most two pieces of each shape are ever made
+        assertTrue(numPiecesSpawned > 2 * Game.NUM_TETRIS_PIECES, numPiecesSpawned + " pieces spawned");
+        assertTrue(pieces.size() <= 2 * Game.NUM_TETRIS_PIECES);
+    }
+
+    @Test
+    public void testHandleInputGameOver() {
+        while (!testGame1.isGameOver()) {
+            testGame1.handleInput(Input.HARD_DROP);
+        }
+        assertFalse(testGame1.handleInput(Input.MOVE_LEFT));
+        assertFalse(testGame1.handleInput(Input.HARD_DROP));
     }
 
     @Test
@@ -838,6 +1002,21 @@ public class GameTest implements Observer {
         assertEquals(0, myGame.getScore());
     }
 
+    @Test
+    public void testGetMillisecondsPerUpdate() {
+        assertEquals(1000, new Game(0, 0).getMillisecondsPerUpdate());
+        assertEquals(64, new Game(0, 18).getMillisecondsPerUpdate());
+
+        Game myGame = new Game(0, Game.MAXIMUM_STARTING_LEVEL);
+        assertEquals(40, myGame.getMillisecondsPerUpdate());
+        myGame.setLinesCleared(220);
+        assertEquals(28, myGame.getLevel());
+        assertEquals(40, myGame.getMillisecondsPerUpdate());
+        myGame.setLinesCleared(230);
+        assertEquals(29, myGame.getLevel());
+        assertEquals(20, myGame.getMillisecondsPerUpdate());
+    }
+
     @Test
     public void testGetLevelStartingLevelZero() {
         Game myGame = new Game(0, 0);
@@ -893,6 +1072,330 @@ public class GameTest implements Observer {
         assertEquals(20, myGame3.getLevel());
     }
 
+    @Test
+    public void testGetRowMask() {
+        List<ArrayList<Boolean>> board = Game.getBlankBoard();
+        board.get(Game.HEIGHT - 1).set(0, true);
+        board.get(Game.HEIGHT - 1).set(Game.WIDTH - 1, true);
+        testGame1.setBoard(board);
+
+        assertEquals(1 | (1 << (Game.WIDTH - 1)), testGame1.getRowMask(Game.HEIGHT - 1));
+        assertEquals(0, testGame1.getRowMask(0));
+
+        testGame1.placeTileAt(3, 0);
+        assertEquals(1 << 3, testGame1.getRowMask(0));
+
+        try {
+            testGame1.getRowMask(Game.HEIGHT);
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testGetBoardIsView() {
+        testGame1.setBoard(Game.getBlankBoard());
+        List<ArrayList<Boolean>> board = testGame1.getBoard();
+
+        testGame1.placeTileAt(2, 5);
+        assertTrue(board.get(5).get(2));
+
+        ArrayList<Boolean> row = new ArrayList<Boolean>();
+        for (int c = 0; c < Game.WIDTH; c++) {
+            row.add(c % 2 == 0);
+        }
+        board.set(7, row);
+        for (int c = 0; c < Game.WIDTH; c++) {
+            assertEquals(c % 2 == 0, testGame1.isCellOccupied(c, 7));
+        }
+
+        try {
+            board.set(7, new ArrayList<Boolean>());
+            fail("IncorrectBoardSizeException should be thrown");
+        } catch (IncorrectBoardSizeException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testGetBoardRowsAreReadOnly() {
+        testGame1.setBoard(Game.getBlankBoard());
+        ArrayList<Boolean> row = testGame1.getBoard().get(Game.HEIGHT - 1);
+        try {
+            row.set(0, true);
+            fail("UnsupportedOperationException should be thrown");
+        } catch (UnsupportedOperationException e) {
+            // this is expected
+        }
+        try {
+            row.subList(0, 2).set(0, true);
+            fail("UnsupportedOperationException should be thrown");
+        } catch (UnsupportedOperationException e) {
+            // this is expected
+        }
+        try {
+            Iterator<Boolean> iterator = row.iterator();
+            iterator.next();
+            iterator.remove();
+            fail("UnsupportedOperationException should be thrown");
+        } catch (UnsupportedOperationException e) {
+            // this is expected
+        }
+        assertFalse(testGame1.isCellOccupied(0, Game.HEIGHT - 1));
+
+        // A row that was read can still be copied, changed and put back
+        ArrayList<Boolean> copy = new ArrayList<Boolean>(row);
+        copy.set(0, true);
+        testGame1.getBoard().set(Game.HEIGHT - 1, copy);
+        assertTrue(testGame1.isCellOccupied(0, Game.HEIGHT - 1));
+    }
+
+    @Test
+    public void testGetColumnHeight() {
+        for (int c = 0; c < Game.WIDTH; c++) {
+            assertEquals(0, testGame1.getColumnHeight(c));
+        }
+
+        // The "I" piece of testGame2 stands upright in the rightmost column, and locks on the next update
+        testGame2.update();
+        assertEquals(4, testGame2.getColumnHeight(Game.WIDTH - 1));
+        assertEquals(0, testGame2.getColumnHeight(0));
+
+        List<ArrayList<Boolean>> board = Game.getBlankBoard();
+        board.get(Game.HEIGHT - 1).set(0, true);
+        board.get(3).set(0, true);
+        testGame1.setBoard(board);
+        assertEquals(Game.HEIGHT - 3, testGame1.getColumnHeight(0));
+        assertEquals(0, testGame1.getColumnHeight(1));
+    }
+
+    @Test
+    public void testColumnHeightIgnoresActivePiece() {
+        // The board holds the active piece's tiles, which are set again with the board, and a tile on the floor
+        // below the piece
+        int pieceX = testGame1.getActivePiece().getTileX(0);
+        int pieceY = testGame1.getActivePiece().getTileY(0);
+        List<ArrayList<Boolean>> board = Game.getBlankBoard();
+        for (Point location : testGame1.getActivePiece().getTileLocations()) {
+            board.get(location.y).set(location.x, true);
+        }
+        board.get(Game.HEIGHT - 1).set(pieceX, true);
+        testGame1.setBoard(board);
+        assertTrue(testGame1.isCellOccupied(pieceX, pieceY));
+        assertEquals(1, testGame1.getColumnHeight(pieceX));
+
+        // Replacing the piece's row leaves its tiles out of the heights too
+        testGame1.getBoard().set(pieceY, testGame1.getBoard().get(pieceY));
+        assertEquals(1, testGame1.getColumnHeight(pieceX));
+
+        // Removing the tile under the piece leaves the column empty
+        testGame1.removeTileAt(pieceX, Game.HEIGHT - 1);
+        assertEquals(0, testGame1.getColumnHeight(pieceX));
+    }
+
+    @Test
+    public void testDirtyCells() {
+        testGame1.clearDirtyCells();
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            assertEquals(0, testGame1.getDirtyRowMask(r));
+        }
+
+        // Moving the active piece does not mark cells as dirty
+        int pieceY = testGame1.getActivePiece().getTileY(0);
+        testGame1.handleInput(Input.MOVE_LEFT);
+        assertEquals(0, testGame1.getDirtyRowMask(pieceY));
+
+        // Changing a cell and changing it back leaves the cell dirty
+        testGame1.placeTileAt(2, Game.HEIGHT - 1);
+        testGame1.removeTileAt(2, Game.HEIGHT - 1);
+        assertEquals(1 << 2, testGame1.getDirtyRowMask(Game.HEIGHT - 1));
+        assertEquals(0, testGame1.getDirtyRowMask(Game.HEIGHT - 2));
+
+        testGame1.clearDirtyCells();
+        assertEquals(0, testGame1.getDirtyRowMask(Game.HEIGHT - 1));
+        try {
+            testGame1.getDirtyRowMask(Game.HEIGHT);
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testDirtyCellsAfterLineClear() {
+        List<ArrayList<Boolean>> riggedBoard = Game.getBlankBoard();
+        for (int c = 0; c < Game.WIDTH - 1; c++) {
+            riggedBoard.get(Game.HEIGHT - 2).set(c, true);
+        }
+        for (int r = Game.HEIGHT - 4; r <= Game.HEIGHT - 1; r++) {
+            riggedBoard.get(r).set(Game.WIDTH - 1, true);
+        }
+        testGame2.setBoard(riggedBoard);
+        testGame2.clearDirtyCells();
+
+        testGame2.update();
+
+        // Every row down to the cleared row may have moved
+        for (int r = 0; r <= Game.HEIGHT - 2; r++) {
+            assertEquals(Game.FULL_ROW_MASK, testGame2.getDirtyRowMask(r));
+        }
+        assertEquals(0, testGame2.getDirtyRowMask(Game.HEIGHT - 1));
+    }
+
+    @Test
+    public void testBoardHashFollowsBoard() {
+        assertEquals(Zobrist.hashRows(getRowMasks(testGame1)), testGame1.getBoardHash());
+        assertNotEquals(0, testGame1.getBoardHash());
+
+        testGame1.handleInput(Input.ROTATE);
+        testGame1.handleInput(Input.MOVE_LEFT);
+        assertEquals(Zobrist.hashRows(getRowMasks(testGame1)), testGame1.getBoardHash());
+
+        long hashBefore = testGame1.getBoardHash();
+        testGame1.placeTileAt(0, Game.HEIGHT - 1);
+        assertEquals(hashBefore ^ Zobrist.getCellKey(0, Game.HEIGHT - 1), testGame1.getBoardHash());
+        // Filling a cell that is already occupied does not change the board
+        testGame1.placeTileAt(0, Game.HEIGHT - 1);
+        assertEquals(hashBefore ^ Zobrist.getCellKey(0, Game.HEIGHT - 1), testGame1.getBoardHash());
+        testGame1.removeTileAt(0, Game.HEIGHT - 1);
+        testGame1.removeTileAt(0, Game.HEIGHT - 1);
+        assertEquals(hashBefore, testGame1.getBoardHash());
+
+        testGame1.setBoard(Game.getBlankBoard());
+        assertEquals(0, testGame1.getBoardHash());
+
+        ArrayList<Boolean> row = new ArrayList<Boolean>();
+        for (int c = 0; c < Game.WIDTH; c++) {
+            row.add(c % 3 == 0);
+        }
+        testGame1.getBoard().set(Game.HEIGHT - 1, row);
+        assertEquals(Zobrist.hashRow(Game.HEIGHT - 1, 0x249), testGame1.getBoardHash());
+    }
+
+    @Test
+    public void testBoardHashAfterLineClears() {
+        List<ArrayList<Boolean>> riggedBoard = Game.getBlankBoard();
+        for (int i = 0; i < Game.WIDTH - 1; i++) {
+            riggedBoard.get(Game.HEIGHT - 5).set(i, i % 2 == 0);
+            riggedBoard.get(Game.HEIGHT - 4).set(i, true);
+            riggedBoard.get(Game.HEIGHT - 3).set(i, i != 4);
+            riggedBoard.get(Game.HEIGHT - 2).set(i, true);
+            riggedBoard.get(Game.HEIGHT - 1).set(i, true);
+        }
+        // Fill in the tiles occupied by the upright "I" piece in the bottom right corner
+        for (int i = Game.HEIGHT - 4; i <= Game.HEIGHT - 1; i++) {
+            riggedBoard.get(i).set(Game.WIDTH - 1, true);
+        }
+        testGame2.setBoard(riggedBoard);
+        assertEquals(Zobrist.hashRows(getRowMasks(testGame2)), testGame2.getBoardHash());
+
+        testGame2.update();
+        assertEquals(3, testGame2.getLinesCleared());
+        assertEquals(Zobrist.hashRows(getRowMasks(testGame2)), testGame2.getBoardHash());
+
+        while (!testGame2.isGameOver()) {
+            testGame2.handleInput(Input.HARD_DROP);
+            assertEquals(Zobrist.hashRows(getRowMasks(testGame2)), testGame2.getBoardHash());
+        }
+    }
+
+    @Test
+    public void testLockedBoardHash() {
+        for (int i = 0; i < 5; i++) {
+            int[] lockedRows = getRowMasks(testGame1);
+            Piece piece = testGame1.getActivePiece();
+            for (int t = 0; t < PieceShape.NUM_TILES; t++) {
+                lockedRows[piece.getTileY(t)] &= ~(1 << piece.getTileX(t));
+            }
+            assertEquals(Zobrist.hashRows(lockedRows), testGame1.getLockedBoardHash());
+            BoardFeatures features = new BoardFeatures();
+            features.setRows(lockedRows);
+            assertEquals(features.getHash(), testGame1.getLockedBoardHash());
+
+            testGame1.handleInput(Input.HARD_DROP);
+        }
+    }
+
+    @Test
+    public void testCopyIntoPlaysOnIdentically() {
+        for (int i = 0; i < 6; i++) {
+            testGame1.handleInput(i % 2 == 0 ? Input.MOVE_LEFT : Input.ROTATE);
+            testGame1.handleInput(Input.HARD_DROP);
+        }
+        testGame1.handleInput(Input.ROTATE);
+        Game scratch = new Game(1, 5);
+        for (int i = 0; i < 3; i++) {
+            scratch.handleInput(Input.HARD_DROP);
+        }
+
+        testGame1.copyInto(scratch);
+        checkSameState(testGame1, scratch);
+        assertEquals(testGame1.getLevel(), scratch.getLevel());
+        assertEquals(testGame1.getBoard(), scratch.getBoard());
+        assertNotSame(testGame1.getActivePiece(), scratch.getActivePiece());
+
+        // Both games draw the same pieces from here on, and the copy does not change the original
+        for (int i = 0; !testGame1.isGameOver(); i++) {
+            Input input = Input.values()[i % Input.values().length];
+            testGame1.handleInput(input);
+            scratch.handleInput(input);
+            testGame1.update();
+            scratch.update();
+            checkSameState(testGame1, scratch);
+        }
+        assertTrue(scratch.isGameOver());
+    }
+
+    @Test
+    public void testCopyIntoIsIndependent() {
+        Game scratch = new Game(1, 0);
+        testGame2.copyInto(scratch);
+        scratch.handleInput(Input.HARD_DROP);
+        scratch.placeTileAt(0, 0);
+        assertEquals(0, testGame2.getScore());
+        assertFalse(testGame2.isCellOccupied(0, 0));
+        assertEquals(Zobrist.hashRows(getRowMasks(testGame2)), testGame2.getBoardHash());
+        assertEquals(Zobrist.hashRows(getRowMasks(scratch)), scratch.getBoardHash());
+
+        // A game copied into itself is unchanged
+        testGame2.copyInto(testGame2);
+        assertEquals(0, testGame2.getScore());
+        int numTiles = 0;
+        for (int rowMask : getRowMasks(testGame2)) {
+            numTiles += Integer.bitCount(rowMask);
+        }
+        assertEquals(4, numTiles);
+    }
+
+    @Test
+    public void testCopyIntoMarksChangedCellsDirty() {
+        Game scratch = new Game(1, 0);
+        scratch.clearDirtyCells();
+        testGame2.copyInto(scratch);
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            assertEquals(new Game(1, 0).getRowMask(r) ^ testGame2.getRowMask(r), scratch.getDirtyRowMask(r));
+        }
+    }
+
+    @Test
+    public void testCopyIntoDoesNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported());
+        final Game scratch = new Game(1, 0);
+        final int numCopies = 10000;
+
+        // Warm up first so that class loading and compilation are not counted
+        copyRepeatedly(scratch, numCopies);
+
+        long bytes = AllocationCounter.bytesAllocatedBy(new Runnable() {
+            @Override
+            public void run() {
+                copyRepeatedly(scratch, numCopies);
+            }
+        });
+        assertTrue(bytes < numCopies, "Copying games allocated " + bytes + " bytes");
+    }
+
     @Test
     public void testGetBlankBoard() {
         List<ArrayList<Boolean>> blankBoard = Game.getBlankBoard();
@@ -953,6 +1456,47 @@ public class GameTest implements Observer {
         assertEquals(4, pieceTileLocations.size());
     }
 
+    // MODIFIES: scratch
+    // EFFECTS: copies testGame1 and testGame2 into scratch in turn, the given number of times each
+    private void copyRepeatedly(Game scratch, int numCopies) {
+        for (int i = 0; i < numCopies; i++) {
+            testGame1.copyInto(scratch);
+            testGame2.copyInto(scratch);
+        }
+    }
+
+    // EFFECTS: checks that the two games have the same board, pieces, score, lines cleared and state
+    private static void checkSameState(Game expected, Game actual) {
+        assertArrayEquals(getRowMasks(expected), getRowMasks(actual));
+        for (int c = 0; c < Game.WIDTH; c++) {
+            assertEquals(expected.getColumnHeight(c), actual.getColumnHeight(c));
+        }
+        assertEquals(expected.getBoardHash(), actual.getBoardHash());
+        checkSamePiece(expected.getActivePiece(), actual.getActivePiece());
+        checkSamePiece(expected.getNextPiece(), actual.getNextPiece());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getLinesCleared(), actual.getLinesCleared());
+        assertEquals(expected.getMillisecondsPerUpdate(), actual.getMillisecondsPerUpdate());
+        assertEquals(expected.isGameOver(), actual.isGameOver());
+    }
+
+    // EFFECTS: checks that the two pieces have the same shape, position and orientation
+    private static void checkSamePiece(Piece expected, Piece actual) {
+        assertEquals(expected.getShape(), actual.getShape());
+        assertEquals(expected.getRotationReferenceX(), actual.getRotationReferenceX());
+        assertEquals(expected.getRotationReferenceY(), actual.getRotationReferenceY());
+        assertEquals(expected.getOrientation(), actual.getOrientation());
+    }
+
+    // EFFECTS: returns the row masks of the given game's board, one per row from the top
+    private static int[] getRowMasks(Game game) {
+        int[] rowMasks = new int[Game.HEIGHT];
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            rowMasks[r] = game.getRowMask(r);
+        }
+        return rowMasks;
+    }
+
     // EFFECTS: returns the number of tiles on the game board
     private int getNumTilesOnBoard() {
         int numTiles = 0;
@@ -966,9 +1510,41 @@ public class GameTest implements Observer {
         return numTiles;
     }
 
-    // EFFECTS: increments the number of notifications this class has received from observables by 1.
+    // EFFECTS: increments the number of locked pieces this class has been told about by 1
+    @Override
+    public void pieceLocked(Game game) {
+        numPiecesLocked++;
+    }
+
+    // EFFECTS: records the input that moved the active piece
+    @Override
+    public void pieceMoved(Game game, Input input) {
+        movesReceived.add(input);
+    }
+
+    // EFFECTS: records the indices of the cleared rows
+    @Override
+    public void linesCleared(Game game, int[] rows) {
+        clearedRowsReceived.add(rows);
+    }
+
+    // EFFECTS: records the new level
+    @Override
+    public void levelChanged(Game game, int newLevel) {
+        levelsReceived.add(newLevel);
+    }
+
+    // EFFECTS: increments the number of spawned pieces this class has been told about by 1
+    @Override
+    public void pieceSpawned(Game game, Piece piece) {
+        assertSame(game.getActivePiece(), piece);
+        numPiecesSpawned++;
+    }
+
+    // EFFECTS: increments the number of finished games this class has been told about by 1
     @Override
-    public void update(Observable observable, Object arg) {
-        numNotificationsReceived++;
+    public void gameOver(Game game) {
+        assertTrue(game.isGameOver());
+        numGamesOver++;
     }
 }
\ No newline at end of file
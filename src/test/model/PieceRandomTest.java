@@ -0,0 +1,35 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the PieceRandom class
+public class PieceRandomTest {
+    @Test
+    public void testDrawsSameNumbersAsJavaRandom() {
+        // Powers of 2, the number of pieces, and bounds large enough that many numbers are drawn again
+        int[] bounds = {1, 2, 7, 16, 1000, (1 << 30) + 1, Integer.MAX_VALUE};
+        for (long seed = -3; seed < 20; seed++) {
+            Random expected = new Random(seed * 0x9E3779B97F4A7C15L);
+            PieceRandom actual = new PieceRandom(seed * 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < 1000; i++) {
+                int bound = bounds[i % bounds.length];
+                assertEquals(expected.nextInt(bound), actual.nextInt(bound));
+            }
+        }
+    }
+
+    @Test
+    public void testCopyInto() {
+        PieceRandom original = new PieceRandom(5000);
+        PieceRandom copy = new PieceRandom(1);
+        original.nextInt(Game.NUM_TETRIS_PIECES);
+        original.copyInto(copy);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(original.nextInt(Game.NUM_TETRIS_PIECES), copy.nextInt(Game.NUM_TETRIS_PIECES));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package model.ai;
+
+import model.Game;
+import model.event.GameAdapter;
+import model.loop.GameLoop;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the AutoPlayer class
+public class AutoPlayerTest {
+    private static final int NUM_LINES_TO_CLEAR = 4;
+    // Far longer than the initial delay plus the time the pieces of four lines take to fall at level 29
+    private static final int TIMEOUT_SECONDS = 30;
+
+    @Test
+    public void testPlaysGameOnLoopAtFastestLevel() throws Exception {
+        Game game = new Game(5000, Game.MAXIMUM_STARTING_LEVEL);
+        game.setLinesCleared(230);
+        assertEquals(20, game.getMillisecondsPerUpdate());
+        final CountDownLatch linesLatch = new CountDownLatch(NUM_LINES_TO_CLEAR);
+        game.addListener(new GameAdapter() {
+            @Override
+            public void linesCleared(Game game, int[] rows) {
+                for (int i = 0; i < rows.length; i++) {
+                    linesLatch.countDown();
+                }
+            }
+        });
+        GameLoop gameLoop = new GameLoop(game);
+        AutoPlayer autoPlayer = new AutoPlayer(gameLoop, new HeuristicBot());
+        autoPlayer.start(game);
+        assertEquals(1, autoPlayer.getDecisionTimes().getCount());
+
+        gameLoop.start();
+        boolean linesCleared = linesLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        gameLoop.stop();
+
+        assertTrue(linesCleared, "The auto player did not clear " + NUM_LINES_TO_CLEAR + " lines");
+        assertFalse(gameLoop.getLatestFrame().isGameOver());
+        assertTrue(autoPlayer.getDecisionTimes().getCount() > NUM_LINES_TO_CLEAR);
+    }
+}
@@ -0,0 +1,121 @@
+package model.ai;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the BeamSearchBot class
+public class BeamSearchBotTest {
+    private static final int BEAM_WIDTH = 8;
+
+    private ForkJoinPool pool;
+    private BeamSearchBot bot;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(2);
+        bot = new BeamSearchBot(pool, BEAM_WIDTH);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testConstructorRejectsEmptyBeam() {
+        try {
+            new BeamSearchBot(pool, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testChoosePlacementPlansPathToIt() {
+        Game game = new Game(5000, 0);
+        int placement = bot.choosePlacement(game);
+        assertNotEquals(BeamSearchBot.NO_PLACEMENT, placement);
+        for (int i = 0; i < bot.getPlanLength(); i++) {
+            assertTrue(game.handleInput(bot.getPlanInput(i)));
+        }
+        Piece piece = game.getActivePiece();
+        assertEquals(PlacementGenerator.getX(placement), piece.getRotationReferenceX());
+        assertEquals(PlacementGenerator.getY(placement), piece.getRotationReferenceY());
+        assertEquals(PlacementGenerator.getOrientation(placement), piece.getOrientation());
+        assertFalse(game.handleInput(Input.SOFT_DROP));
+        assertTrue(bot.getNumNodes() > BEAM_WIDTH);
+    }
+
+    @Test
+    public void testChoosePlacementWhenGameOver() {
+        Game game = new Game(5000, 0);
+        while (!game.isGameOver()) {
+            game.handleInput(Input.HARD_DROP);
+        }
+        assertEquals(BeamSearchBot.NO_PLACEMENT, bot.choosePlacement(game));
+        assertEquals(0, bot.getPlanLength());
+        try {
+            bot.getPlanInput(0);
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testPlaysWellAndDropsDuplicateBoards() {
+        Game game = new Game(1, 0);
+        for (int i = 0; i < 300 && !game.isGameOver(); i++) {
+            bot.act(game);
+            game.update();
+        }
+        assertFalse(game.isGameOver());
+        assertTrue(game.getLinesCleared() > 100, "Lines cleared: " + game.getLinesCleared());
+        // Two pieces of the same shape placed in either order make the same board
+        assertTrue(bot.getNumDuplicates() > 0);
+    }
+
+    @Test
+    public void testSameChoicesOnAnyPoolSize() {
+        ForkJoinPool singlePool = new ForkJoinPool(1);
+        ForkJoinPool widePool = new ForkJoinPool(3);
+        BeamSearchBot singleBot = new BeamSearchBot(singlePool, BEAM_WIDTH);
+        BeamSearchBot wideBot = new BeamSearchBot(widePool, BEAM_WIDTH);
+        Game game = new Game(77, 0);
+        for (int i = 0; i < 100 && !game.isGameOver(); i++) {
+            int placement = singleBot.choosePlacement(game);
+            assertEquals(placement, wideBot.choosePlacement(game));
+            singleBot.act(game);
+            game.update();
+        }
+        singlePool.shutdown();
+        widePool.shutdown();
+    }
+
+    @Test
+    public void testSameChoicesWithTranspositionTable() {
+        // A table too small for every board makes the bot evict entries as well as reuse them
+        TranspositionTable table = new TranspositionTable(1 << 10, 4);
+        BeamSearchBot cachedBot = new BeamSearchBot(pool, BEAM_WIDTH, new HeuristicBot(), table);
+        Game game = new Game(77, 0);
+        for (int i = 0; i < 100 && !game.isGameOver(); i++) {
+            int placement = bot.choosePlacement(game);
+            assertEquals(placement, cachedBot.choosePlacement(game));
+            bot.act(game);
+            game.update();
+        }
+        assertEquals(cachedBot.getNumNodes(), table.getNumHits() + table.getNumMisses());
+        assertTrue(table.getNumHits() > 0);
+        assertTrue(table.getNumEvictions() > 0);
+        assertTrue(table.size() <= table.getCapacity());
+    }
+}
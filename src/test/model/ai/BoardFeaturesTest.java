@@ -0,0 +1,240 @@
+package model.ai;
+
+import model.Game;
+import model.Zobrist;
+import model.pieces.PieceShape;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the BoardFeatures class
+public class BoardFeaturesTest {
+    private static final int FULL = Game.FULL_ROW_MASK;
+    private static final int BOTTOM = Game.HEIGHT - 1;
+
+    private BoardFeatures features;
+
+    @BeforeEach
+    public void setUp() {
+        features = new BoardFeatures();
+    }
+
+    @Test
+    public void testEmptyBoard() {
+        assertEquals(0, features.getAggregateHeight());
+        assertEquals(0, features.getNumHoles());
+        assertEquals(0, features.getBumpiness());
+        assertEquals(0, features.getWellDepth());
+        assertEquals(0, features.getLinesCleared());
+        for (int y = 0; y < Game.HEIGHT; y++) {
+            assertEquals(0, features.getRowMask(y));
+        }
+    }
+
+    @Test
+    public void testSetRows() {
+        int[] rows = new int[Game.HEIGHT];
+        // Column 0 is two high with a hole at the bottom, column 1 is one high, and column 9 is three high
+        rows[BOTTOM - 2] = 1 << 9;
+        rows[BOTTOM - 1] = 1 | (1 << 9);
+        rows[BOTTOM] = 2 | (1 << 9);
+        features.setRows(rows);
+
+        assertEquals(2, features.getColumnHeight(0));
+        assertEquals(1, features.getColumnHeight(1));
+        assertEquals(3, features.getColumnHeight(9));
+        assertEquals(6, features.getAggregateHeight());
+        assertEquals(1, features.getNumHoles());
+        assertEquals(1 + 1 + 3, features.getBumpiness());
+        // Every empty column has an empty neighbour, so none of them is a well
+        assertEquals(0, features.getWellDepth());
+        assertTrue(features.hasRows(rows));
+        rows[0] = 1;
+        assertFalse(features.hasRows(rows));
+    }
+
+    @Test
+    public void testWells() {
+        int[] rows = new int[Game.HEIGHT];
+        // Column 2 is two below both of its neighbours, and column 9 is one below column 8 and the wall
+        rows[BOTTOM - 1] = FULL & ~(1 << 2) & ~(1 << 9);
+        rows[BOTTOM] = FULL & ~(1 << 2);
+        features.setRows(rows);
+        assertEquals(2 + 1, features.getWellDepth());
+        assertEquals(2 + 2 + 1, features.getBumpiness());
+        checkAgainstBruteForce(features);
+    }
+
+    @Test
+    public void testSetRowsWrongLength() {
+        try {
+            features.setRows(new int[Game.HEIGHT - 1]);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testAddPieceMakesHoleAndBumps() {
+        // A flat T piece resting on the floor, pointing down, leaves holes on both sides of its stem
+        features.addPiece(PieceShape.T, 3, BOTTOM - 2, 0);
+        checkAgainstBruteForce(features);
+        assertEquals(2, features.getNumHoles());
+        assertEquals(0, features.getLinesCleared());
+    }
+
+    @Test
+    public void testAddPieceClearsLines() {
+        int[] rows = new int[Game.HEIGHT];
+        rows[BOTTOM - 2] = 1;
+        rows[BOTTOM - 1] = FULL & ~(1 << 9) & ~(1 << 4);
+        rows[BOTTOM] = FULL & ~(1 << 9);
+        features.setRows(rows);
+
+        // An upright I piece in the last column fills the two bottom rows and the two above them
+        assertEquals(1, features.addPiece(PieceShape.I, 7, BOTTOM - 3, 1));
+        assertEquals(1, features.getLinesCleared());
+        checkAgainstBruteForce(features);
+        assertEquals(FULL & ~(1 << 9) & ~(1 << 4) | (1 << 9), features.getRowMask(BOTTOM));
+        assertEquals(1 | (1 << 9), features.getRowMask(BOTTOM - 1));
+        assertEquals(1 << 9, features.getRowMask(BOTTOM - 2));
+    }
+
+    @Test
+    public void testAddPieceClearsTetris() {
+        int[] rows = new int[Game.HEIGHT];
+        for (int y = BOTTOM - 3; y <= BOTTOM; y++) {
+            rows[y] = FULL & ~1;
+        }
+        rows[BOTTOM - 4] = 1 << 5;
+        features.setRows(rows);
+
+        assertEquals(4, features.addPiece(PieceShape.I, -2, BOTTOM - 3, 1));
+        checkAgainstBruteForce(features);
+        assertEquals(1 << 5, features.getRowMask(BOTTOM));
+        assertEquals(1, features.getAggregateHeight());
+    }
+
+    @Test
+    public void testCopyFrom() {
+        features.addPiece(PieceShape.L, 0, BOTTOM - 2, 1);
+        BoardFeatures copy = new BoardFeatures();
+        copy.copyFrom(features);
+        checkAgainstBruteForce(copy);
+        assertEquals(features.getAggregateHeight(), copy.getAggregateHeight());
+        assertEquals(features.getHash(), copy.getHash());
+
+        // The copy is independent of the original
+        copy.addPiece(PieceShape.O, 5, BOTTOM - 2, 0);
+        assertEquals(0, features.getRowMask(BOTTOM) & (1 << 6));
+        assertNotEquals(0, copy.getRowMask(BOTTOM) & (1 << 6));
+        assertNotEquals(features.getHash(), copy.getHash());
+    }
+
+    @Test
+    public void testHashDependsOnlyOnBoard() {
+        assertEquals(0, features.getHash());
+        // The same two pieces placed in either order make the same board
+        features.addPiece(PieceShape.O, 0, BOTTOM - 2, 0);
+        features.addPiece(PieceShape.I, 4, BOTTOM - 1, 0);
+        BoardFeatures other = new BoardFeatures();
+        other.addPiece(PieceShape.I, 4, BOTTOM - 1, 0);
+        other.addPiece(PieceShape.O, 0, BOTTOM - 2, 0);
+        assertEquals(other.getHash(), features.getHash());
+        checkAgainstBruteForce(features);
+    }
+
+    @Test
+    public void testIncrementalFeaturesMatchRecomputedOnes() {
+        PlacementGenerator generator = new PlacementGenerator();
+        PieceShape[] shapes = PieceShape.values();
+        Random random = new Random(210);
+        int[] rows = new int[Game.HEIGHT];
+        int totalLinesCleared = 0;
+        for (int i = 0; i < 5000; i++) {
+            PieceShape shape = shapes[random.nextInt(shapes.length)];
+            for (int y = 0; y < Game.HEIGHT; y++) {
+                rows[y] = features.getRowMask(y);
+            }
+            int numPlacements = generator.generate(rows, shape, 3, 0, 0);
+            if (numPlacements == 0) {
+                features.setRows(new int[Game.HEIGHT]);
+                continue;
+            }
+            // Favour low placements, so that lines are cleared as well as holes made
+            int placement = generator.getPlacement(numPlacements - 1 - random.nextInt((numPlacements + 1) / 2));
+            totalLinesCleared += features.addPiece(shape, PlacementGenerator.getX(placement),
+                    PlacementGenerator.getY(placement), PlacementGenerator.getOrientation(placement));
+            checkAgainstBruteForce(features);
+        }
+        assertTrue(totalLinesCleared > 0);
+    }
+
+    // EFFECTS: checks every feature of the given board, and its hash, against those computed from its rows
+    private static void checkAgainstBruteForce(BoardFeatures board) {
+        int[] rows = new int[Game.HEIGHT];
+        for (int y = 0; y < Game.HEIGHT; y++) {
+            rows[y] = board.getRowMask(y);
+        }
+        int[] heights = bruteForceHeights(rows);
+        int aggregateHeight = 0;
+        int bumpiness = 0;
+        for (int x = 0; x < Game.WIDTH; x++) {
+            assertEquals(heights[x], board.getColumnHeight(x));
+            aggregateHeight += heights[x];
+            if (x > 0) {
+                bumpiness += Math.abs(heights[x] - heights[x - 1]);
+            }
+        }
+        assertEquals(aggregateHeight, board.getAggregateHeight());
+        assertEquals(bumpiness, board.getBumpiness());
+        assertEquals(bruteForceHoles(rows), board.getNumHoles());
+        assertEquals(bruteForceWellDepth(rows), board.getWellDepth());
+        assertEquals(Zobrist.hashRows(rows), board.getHash());
+    }
+
+    // EFFECTS: returns the height of each column of the board with the given rows
+    private static int[] bruteForceHeights(int[] rows) {
+        int[] heights = new int[Game.WIDTH];
+        for (int x = 0; x < Game.WIDTH; x++) {
+            for (int y = 0; y < Game.HEIGHT && heights[x] == 0; y++) {
+                if ((rows[y] & (1 << x)) != 0) {
+                    heights[x] = Game.HEIGHT - y;
+                }
+            }
+        }
+        return heights;
+    }
+
+    // EFFECTS: returns the number of empty cells of the board with the given rows that have a tile above them
+    private static int bruteForceHoles(int[] rows) {
+        int holes = 0;
+        for (int x = 0; x < Game.WIDTH; x++) {
+            boolean covered = false;
+            for (int y = 0; y < Game.HEIGHT; y++) {
+                boolean occupied = (rows[y] & (1 << x)) != 0;
+                if (covered && !occupied) {
+                    holes++;
+                }
+                covered |= occupied;
+            }
+        }
+        return holes;
+    }
+
+    // EFFECTS: returns the total well depth of the board with the given rows
+    private static int bruteForceWellDepth(int[] rows) {
+        int[] heights = bruteForceHeights(rows);
+        int wellDepth = 0;
+        for (int x = 0; x < Game.WIDTH; x++) {
+            int left = x == 0 ? Game.HEIGHT : heights[x - 1];
+            int right = x == Game.WIDTH - 1 ? Game.HEIGHT : heights[x + 1];
+            wellDepth += Math.max(0, Math.min(left, right) - heights[x]);
+        }
+        return wellDepth;
+    }
+}
@@ -0,0 +1,153 @@
+package model.ai;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+import model.simulation.BatchSimulator;
+import model.simulation.SimulationResults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.AllocationCounter;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Unit tests for the HeuristicBot class
+public class HeuristicBotTest {
+    private static final int NUM_TIMED_PIECES = 500;
+    // The time between gravity updates at level 29 and above
+    private static final long DECISION_BUDGET_NANOSECONDS = 20 * 1000000L;
+
+    private HeuristicBot bot;
+
+    @BeforeEach
+    public void setUp() {
+        bot = new HeuristicBot();
+    }
+
+    @Test
+    public void testChoosePlacementPlansPathToIt() {
+        Game game = new Game(5000, 0);
+        int placement = bot.choosePlacement(game);
+        assertNotEquals(HeuristicBot.NO_PLACEMENT, placement);
+        assertTrue(bot.getPlanLength() > 0);
+        for (int i = 0; i < bot.getPlanLength(); i++) {
+            assertTrue(game.handleInput(bot.getPlanInput(i)));
+        }
+        Piece piece = game.getActivePiece();
+        assertEquals(PlacementGenerator.getX(placement), piece.getRotationReferenceX());
+        assertEquals(PlacementGenerator.getY(placement), piece.getRotationReferenceY());
+        assertEquals(PlacementGenerator.getOrientation(placement), piece.getOrientation());
+        assertFalse(game.handleInput(Input.SOFT_DROP));
+    }
+
+    @Test
+    public void testFirstPieceLiesFlat() {
+        // On an empty board, the flattest placement of the first piece (an I piece for this seed) is lying down
+        Game game = new Game(5000, 0);
+        bot.act(game);
+        game.update();
+        int bottomRow = game.getRowMask(Game.HEIGHT - 1);
+        assertEquals(0xF, bottomRow >>> Integer.numberOfTrailingZeros(bottomRow));
+        assertEquals(0, game.getRowMask(Game.HEIGHT - 2));
+    }
+
+    @Test
+    public void testChoosePlacementWhenGameOver() {
+        Game game = new Game(5000, 0);
+        while (!game.isGameOver()) {
+            game.handleInput(Input.HARD_DROP);
+        }
+        assertEquals(HeuristicBot.NO_PLACEMENT, bot.choosePlacement(game));
+        assertEquals(0, bot.getPlanLength());
+        try {
+            bot.getPlanInput(0);
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testEvaluate() {
+        HeuristicBot weighted = new HeuristicBot(-1, 10, -100, -1000, -10000);
+        BoardFeatures board = new BoardFeatures();
+        int[] rows = new int[Game.HEIGHT];
+        // Heights 2, 1, 0, 0, ...: one hole, bumpiness 2, no wells
+        rows[Game.HEIGHT - 2] = 1;
+        rows[Game.HEIGHT - 1] = 2;
+        board.setRows(rows);
+        assertEquals(-3 - 100 - 2000, weighted.evaluate(board), 1e-9);
+    }
+
+    @Test
+    public void testFeaturesAreKeptUpToDateWithoutRebuilding() {
+        Game game = new Game(42, 0);
+        for (int i = 0; i < 300 && !game.isGameOver(); i++) {
+            bot.act(game);
+            game.update();
+        }
+        assertEquals(0, bot.getNumRebuilds());
+
+        // A piece dropped somewhere the bot did not plan makes it compute the features of the board from scratch
+        game.handleInput(Input.HARD_DROP);
+        bot.act(game);
+        assertEquals(1, bot.getNumRebuilds());
+    }
+
+    @Test
+    public void testBotClearsManyLines() {
+        BatchSimulator simulator = new BatchSimulator(0, HeuristicBot.factory(), 1000);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SimulationResults results = simulator.run(0, 4, pool);
+        pool.shutdown();
+        // Random inputs clear almost no lines, while the bot clears a line every few pieces
+        assertTrue(results.getLinesCleared().getMean() > 100, "Lines cleared: " + results.getLinesCleared());
+    }
+
+    @Test
+    public void testDecisionsFitGravityBudget() {
+        Game game = new Game(29, 19);
+        long slowest = 0;
+        for (int i = 0; i < NUM_TIMED_PIECES && !game.isGameOver(); i++) {
+            long startTime = System.nanoTime();
+            bot.choosePlacement(game);
+            long elapsed = System.nanoTime() - startTime;
+            // The first decisions run before the code is compiled, so they are not held to the budget
+            if (i >= NUM_TIMED_PIECES / 10) {
+                slowest = Math.max(slowest, elapsed);
+            }
+            for (int j = 0; j < bot.getPlanLength(); j++) {
+                game.handleInput(bot.getPlanInput(j));
+            }
+            game.update();
+        }
+        assertTrue(slowest < DECISION_BUDGET_NANOSECONDS, "Slowest decision took " + slowest + " ns");
+    }
+
+    @Test
+    public void testChoosePlacementDoesNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported());
+        final Game game = new Game(7, 0);
+
+        // Warm up first so that class loading and compilation are not counted
+        chooseRepeatedly(game, NUM_TIMED_PIECES);
+
+        long bytes = AllocationCounter.bytesAllocatedBy(new Runnable() {
+            @Override
+            public void run() {
+                chooseRepeatedly(game, NUM_TIMED_PIECES);
+            }
+        });
+        assertTrue(bytes < NUM_TIMED_PIECES, "Choosing placements allocated " + bytes + " bytes");
+    }
+
+    // EFFECTS: chooses a placement for the game's active piece the given number of times
+    private void chooseRepeatedly(Game game, int numDecisions) {
+        for (int i = 0; i < numDecisions; i++) {
+            bot.choosePlacement(game);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package model.ai;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.AllocationCounter;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Unit tests for the LongHashSet class
+public class LongHashSetTest {
+    private LongHashSet set;
+
+    @BeforeEach
+    public void setUp() {
+        set = new LongHashSet(4);
+    }
+
+    @Test
+    public void testAddAndContains() {
+        assertEquals(0, set.size());
+        assertFalse(set.contains(42));
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertTrue(set.contains(-1));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void testZero() {
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void testGrowsAndMatchesHashSet() {
+        Set<Long> expected = new HashSet<Long>();
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            // Draw from a small range so that many values are added twice
+            long value = random.nextInt(5000) * 0x100000000L;
+            assertEquals(expected.add(value), set.add(value));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long value : expected) {
+            assertTrue(set.contains(value));
+        }
+        assertTrue(set.getCapacity() >= 2 * set.size());
+    }
+
+    @Test
+    public void testClear() {
+        for (long i = 0; i < 100; i++) {
+            set.add(i);
+        }
+        int capacity = set.getCapacity();
+        set.clear();
+        assertEquals(0, set.size());
+        assertEquals(capacity, set.getCapacity());
+        for (long i = 0; i < 100; i++) {
+            assertFalse(set.contains(i));
+        }
+        assertTrue(set.add(7));
+    }
+
+    @Test
+    public void testAddDoesNotAllocateOnceGrown() {
+        assumeTrue(AllocationCounter.isSupported());
+        final int numValues = 1000;
+        fillAndClear(numValues);
+
+        long bytes = AllocationCounter.bytesAllocatedBy(new Runnable() {
+            @Override
+            public void run() {
+                fillAndClear(numValues);
+            }
+        });
+        assertTrue(bytes < numValues, "Adding allocated " + bytes + " bytes");
+    }
+
+    // EFFECTS: adds the given number of distinct values to the set, then clears it
+    private void fillAndClear(int numValues) {
+        for (int i = 1; i <= numValues; i++) {
+            set.add(i * 31L);
+        }
+        set.clear();
+    }
+}
@@ -0,0 +1,259 @@
+package model.ai;
+
+import model.Game;
+import model.Input;
+import model.pieces.Piece;
+import model.pieces.PieceShape;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.AllocationCounter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Unit tests for the PlacementGenerator class
+public class PlacementGeneratorTest {
+    private static final int NUM_ALLOCATION_TEST_SEARCHES = 2000;
+
+    private PlacementGenerator generator;
+    private Input[] inputs;
+
+    @BeforeEach
+    public void setUp() {
+        generator = new PlacementGenerator();
+        inputs = new Input[PlacementGenerator.NUM_STATES];
+    }
+
+    @Test
+    public void testPackState() {
+        for (int x = -3; x < Game.WIDTH; x++) {
+            for (int y = -3; y < Game.HEIGHT; y++) {
+                for (int o = 0; o < PieceShape.NUM_ORIENTATIONS; o++) {
+                    int state = PlacementGenerator.packState(x, y, o);
+                    assertTrue(state >= 0 && state < PlacementGenerator.NUM_STATES);
+                    assertEquals(x, PlacementGenerator.getX(state));
+                    assertEquals(y, PlacementGenerator.getY(state));
+                    assertEquals(o, PlacementGenerator.getOrientation(state));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyBoardPlacementCounts() {
+        // Flat orientations fit in 8 columns and upright ones in 9, except for the I piece (7 and 10) and O piece (9)
+        assertEquals(17, generateAtSpawn(new int[Game.HEIGHT], PieceShape.I));
+        assertEquals(34, generateAtSpawn(new int[Game.HEIGHT], PieceShape.J));
+        assertEquals(34, generateAtSpawn(new int[Game.HEIGHT], PieceShape.L));
+        assertEquals(9, generateAtSpawn(new int[Game.HEIGHT], PieceShape.O));
+        assertEquals(17, generateAtSpawn(new int[Game.HEIGHT], PieceShape.S));
+        assertEquals(34, generateAtSpawn(new int[Game.HEIGHT], PieceShape.T));
+        assertEquals(17, generateAtSpawn(new int[Game.HEIGHT], PieceShape.Z));
+    }
+
+    @Test
+    public void testPlacementsRestOnTheFloor() {
+        int numPlacements = generateAtSpawn(new int[Game.HEIGHT], PieceShape.T);
+        for (int i = 0; i < numPlacements; i++) {
+            int state = generator.getPlacement(i);
+            int lowestRow = 0;
+            for (int r = 0; r < PieceShape.BOX_SIDE_LENGTH; r++) {
+                if (PieceShape.T.getRowMask(PlacementGenerator.getOrientation(state), r) != 0) {
+                    lowestRow = PlacementGenerator.getY(state) + r;
+                }
+            }
+            assertEquals(Game.HEIGHT - 1, lowestRow);
+        }
+    }
+
+    @Test
+    public void testTuckUnderOverhang() {
+        // A roof over the left three columns, two rows above the floor, with the rest of the floor filled
+        int[] rows = new int[Game.HEIGHT];
+        rows[Game.HEIGHT - 3] = 0x7;
+        rows[Game.HEIGHT - 1] = Game.FULL_ROW_MASK & ~0x7;
+
+        // A flat I piece at the left of the row under the roof, which it can only reach by sliding in from the right
+        int numPlacements = generateAtSpawn(rows, PieceShape.I);
+        Set<Set<Integer>> placementCells = getPlacementCells(numPlacements, PieceShape.I);
+        assertTrue(placementCells.contains(cells(0, Game.HEIGHT - 2, 1, Game.HEIGHT - 2, 2, Game.HEIGHT - 2,
+                3, Game.HEIGHT - 2)));
+    }
+
+    @Test
+    public void testSpinIntoSlot() {
+        // A T-shaped slot in the bottom two rows, covered at its top left. A T piece pointing down cannot drop into
+        // the slot or slide into it, but it can drop in upright with its nub to the right and rotate into it.
+        int[] rows = new int[Game.HEIGHT];
+        rows[Game.HEIGHT - 3] = 0x1;
+        rows[Game.HEIGHT - 2] = Game.FULL_ROW_MASK & ~0x7;
+        rows[Game.HEIGHT - 1] = Game.FULL_ROW_MASK & ~0x2;
+        int numPlacements = generateAtSpawn(rows, PieceShape.T);
+        Set<Set<Integer>> placementCells = getPlacementCells(numPlacements, PieceShape.T);
+        assertTrue(placementCells.contains(cells(0, Game.HEIGHT - 2, 1, Game.HEIGHT - 2, 2, Game.HEIGHT - 2,
+                1, Game.HEIGHT - 1)));
+
+        // The last input of the way there is the rotation
+        int numInputs = generator.getInputs(PlacementGenerator.packState(0, Game.HEIGHT - 3, 0), inputs);
+        assertEquals(Input.ROTATE, inputs[numInputs - 1]);
+    }
+
+    @Test
+    public void testInputsReachEveryPlacementInGame() {
+        for (long seed = 0; seed < 20; seed++) {
+            Game game = new Game(seed, 0);
+            dropPieces(game, seed);
+            if (game.isGameOver()) {
+                continue;
+            }
+            int numPlacements = generator.generate(game);
+            assertTrue(numPlacements > 0);
+            for (int i = 0; i < numPlacements; i++) {
+                checkInputsReachPlacement(game, seed, generator.getPlacement(i));
+            }
+        }
+    }
+
+    @Test
+    public void testPlacementsAreDistinct() {
+        Game game = new Game(3, 0);
+        dropPieces(game, 3);
+        int numPlacements = generator.generate(game);
+        Set<Set<Integer>> placementCells = getPlacementCells(numPlacements, game.getActivePiece().getShape());
+        assertEquals(numPlacements, placementCells.size());
+    }
+
+    @Test
+    public void testGenerateBlockedOrOver() {
+        int[] rows = new int[Game.HEIGHT];
+        rows[0] = Game.FULL_ROW_MASK;
+        assertEquals(0, generator.generate(rows, PieceShape.T, 3, -1, 0));
+        assertEquals(0, generator.getNumPlacements());
+
+        Game game = new Game(0, 0);
+        while (!game.isGameOver()) {
+            game.handleInput(Input.HARD_DROP);
+        }
+        assertEquals(0, generator.generate(game));
+    }
+
+    @Test
+    public void testExceptions() {
+        try {
+            generator.generate(new int[Game.HEIGHT - 1], PieceShape.T, 3, -1, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+        generateAtSpawn(new int[Game.HEIGHT], PieceShape.O);
+        try {
+            generator.getPlacement(generator.getNumPlacements());
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // this is expected
+        }
+        try {
+            // An O piece below the floor is never reached
+            generator.getInputs(PlacementGenerator.packState(0, Game.HEIGHT - 1, 0), inputs);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testGenerateDoesNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported());
+        final Game game = new Game(7, 0);
+        dropPieces(game, 7);
+
+        // Warm up first so that class loading and compilation are not counted
+        generateRepeatedly(game, NUM_ALLOCATION_TEST_SEARCHES);
+
+        long bytes = AllocationCounter.bytesAllocatedBy(new Runnable() {
+            @Override
+            public void run() {
+                generateRepeatedly(game, NUM_ALLOCATION_TEST_SEARCHES);
+            }
+        });
+        assertTrue(bytes < NUM_ALLOCATION_TEST_SEARCHES, "Searching allocated " + bytes + " bytes");
+    }
+
+    // EFFECTS: searches the placements of the game's active piece the given number of times
+    private void generateRepeatedly(Game game, int numSearches) {
+        for (int i = 0; i < numSearches; i++) {
+            generator.generate(game);
+        }
+    }
+
+    // EFFECTS: replays the game with the given seed, applies the inputs the generator gives for the given placement
+    //          to its active piece, and checks that the piece ends up at the placement and cannot move down
+    private void checkInputsReachPlacement(Game game, long seed, int placement) {
+        Game replay = new Game(seed, 0);
+        dropPieces(replay, seed);
+        int numInputs = generator.getInputs(placement, inputs);
+        for (int i = 0; i < numInputs; i++) {
+            assertTrue(replay.handleInput(inputs[i]), "Input " + i + " of " + numInputs + " did not move the piece");
+        }
+        Piece piece = replay.getActivePiece();
+        assertEquals(PlacementGenerator.getX(placement), piece.getRotationReferenceX());
+        assertEquals(PlacementGenerator.getY(placement), piece.getRotationReferenceY());
+        assertEquals(PlacementGenerator.getOrientation(placement), piece.getOrientation());
+        assertFalse(piece.moveDown());
+    }
+
+    // MODIFIES: game
+    // EFFECTS: drops eight pieces of the game into columns chosen by the given seed, after rotating some of them
+    private static void dropPieces(Game game, long seed) {
+        java.util.Random random = new java.util.Random(seed);
+        for (int i = 0; i < 8 && !game.isGameOver(); i++) {
+            for (int j = random.nextInt(4); j > 0; j--) {
+                game.handleInput(Input.ROTATE);
+            }
+            for (int j = 0; j < Game.WIDTH; j++) {
+                game.handleInput(Input.MOVE_LEFT);
+            }
+            for (int j = random.nextInt(Game.WIDTH); j > 0; j--) {
+                game.handleInput(Input.MOVE_RIGHT);
+            }
+            game.handleInput(Input.HARD_DROP);
+        }
+    }
+
+    // EFFECTS: searches the given board for a piece of the given shape where a new piece of that shape spawns,
+    //          and returns the number of placements
+    private int generateAtSpawn(int[] rows, PieceShape shape) {
+        int spawnX = shape == PieceShape.I || shape == PieceShape.O ? Math.floorDiv(Game.WIDTH - 1, 2) - 1
+                : Math.floorDiv(Game.WIDTH - 1, 2);
+        return generator.generate(rows, shape, spawnX, -1, 0);
+    }
+
+    // EFFECTS: returns the cells covered by each placement found by the latest search, where each cell (x, y) is
+    //          given as y * Game.WIDTH + x
+    private Set<Set<Integer>> getPlacementCells(int numPlacements, PieceShape shape) {
+        Set<Set<Integer>> placementCells = new HashSet<Set<Integer>>();
+        for (int i = 0; i < numPlacements; i++) {
+            int state = generator.getPlacement(i);
+            Set<Integer> cells = new HashSet<Integer>();
+            for (int t = 0; t < PieceShape.NUM_TILES; t++) {
+                int orientation = PlacementGenerator.getOrientation(state);
+                cells.add((PlacementGenerator.getY(state) + shape.getTileY(orientation, t)) * Game.WIDTH
+                        + PlacementGenerator.getX(state) + shape.getTileX(orientation, t));
+            }
+            placementCells.add(cells);
+        }
+        return placementCells;
+    }
+
+    // EFFECTS: returns the set of cells given as (x, y) pairs, in the form used by getPlacementCells
+    private static Set<Integer> cells(int... coordinates) {
+        Set<Integer> cells = new HashSet<Integer>();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            cells.add(coordinates[i + 1] * Game.WIDTH + coordinates[i]);
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,156 @@
+package model.ai;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the TranspositionTable class
+public class TranspositionTableTest {
+    private static final int CAPACITY = 16;
+    // Hashes that are multiples of this land in bucket 0 of a table of CAPACITY entries
+    private static final int NUM_BUCKETS = CAPACITY / TranspositionTable.BUCKET_SIZE;
+
+    private TranspositionTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new TranspositionTable(CAPACITY, 2);
+    }
+
+    @Test
+    public void testConstructorRejectsBadSizes() {
+        checkRejected(12, 1);
+        checkRejected(2, 1);
+        checkRejected(CAPACITY, 3);
+        checkRejected(CAPACITY, 0);
+        checkRejected(CAPACITY, 2 * NUM_BUCKETS);
+        assertEquals(CAPACITY, new TranspositionTable(CAPACITY, NUM_BUCKETS).getCapacity());
+    }
+
+    @Test
+    public void testGetAndPut() {
+        assertTrue(Double.isNaN(table.get(42)));
+        table.put(42, -1.5);
+        table.put(0, 3);
+        assertEquals(-1.5, table.get(42));
+        assertEquals(3, table.get(0));
+        table.put(42, 2.5);
+        assertEquals(2.5, table.get(42));
+        assertEquals(2, table.size());
+        assertEquals(3, table.getNumHits());
+        assertEquals(1, table.getNumMisses());
+        assertEquals(0, table.getNumEvictions());
+    }
+
+    @Test
+    public void testPutRejectsNaN() {
+        try {
+            table.put(42, TranspositionTable.MISSING);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedInBucket() {
+        for (int i = 0; i < TranspositionTable.BUCKET_SIZE; i++) {
+            table.put(i * NUM_BUCKETS, i);
+        }
+        // Reading the oldest entry makes the second oldest the least recently used
+        assertEquals(0, table.get(0));
+        table.put(TranspositionTable.BUCKET_SIZE * NUM_BUCKETS, 10);
+
+        assertEquals(1, table.getNumEvictions());
+        assertEquals(TranspositionTable.BUCKET_SIZE, table.size());
+        assertTrue(Double.isNaN(table.get(NUM_BUCKETS)));
+        assertEquals(0, table.get(0));
+        assertEquals(10, table.get(TranspositionTable.BUCKET_SIZE * NUM_BUCKETS));
+        // Other buckets are not affected
+        table.put(1, 7);
+        assertEquals(7, table.get(1));
+        assertEquals(1, table.getNumEvictions());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        Random random = new Random(24);
+        for (int i = 0; i < 10 * CAPACITY; i++) {
+            table.put(random.nextLong(), i);
+        }
+        assertEquals(CAPACITY, table.size());
+        assertEquals(9 * CAPACITY, table.getNumEvictions());
+    }
+
+    @Test
+    public void testClear() {
+        table.put(42, 1);
+        table.get(42);
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals(0, table.getNumHits());
+        assertTrue(Double.isNaN(table.get(42)));
+        assertEquals(1, table.getNumMisses());
+    }
+
+    @Test
+    public void testConcurrentThreads() throws InterruptedException {
+        final TranspositionTable sharedTable = new TranspositionTable(1 << 12, 8);
+        final int numHashes = 1000;
+        List<Thread> threads = new ArrayList<Thread>();
+        final List<Throwable> failures = new ArrayList<Throwable>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        putAndCheck(sharedTable, numHashes);
+                    } catch (Throwable e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), "Failures: " + failures);
+        assertEquals(4 * numHashes, sharedTable.getNumHits() + sharedTable.getNumMisses());
+        assertTrue(sharedTable.size() <= sharedTable.getCapacity());
+    }
+
+    // MODIFIES: table
+    // EFFECTS: looks up the given number of hashes, which every thread shares, and stores the value of each that is
+    //          missing; checks that any value found is the one every thread stores for its hash
+    private static void putAndCheck(TranspositionTable table, int numHashes) {
+        for (int i = 0; i < numHashes; i++) {
+            long hash = i * 0x9E3779B97F4A7C15L;
+            double value = table.get(hash);
+            if (Double.isNaN(value)) {
+                table.put(hash, i);
+            } else {
+                assertEquals(i, value);
+            }
+        }
+    }
+
+    // EFFECTS: checks that a table cannot be made with the given sizes
+    private static void checkRejected(int capacity, int numStripes) {
+        try {
+            new TranspositionTable(capacity, numStripes);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package model.event;
+
+import model.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the GameEventBus class
+public class GameEventBusTest {
+    private GameEventBus bus;
+    private Game game;
+    private List<String> eventsReceived;
+
+    @BeforeEach
+    public void setUp() {
+        bus = new GameEventBus();
+        game = new Game(0, 0);
+        eventsReceived = new ArrayList<String>();
+    }
+
+    @Test
+    public void testListenersCalledInOrderOfRegistration() {
+        bus.addListener(makeListener("first"));
+        bus.addListener(makeListener("second"));
+        assertEquals(2, bus.getNumListeners());
+
+        bus.firePieceLocked(game);
+        bus.fireGameOver(game);
+
+        assertEquals(4, eventsReceived.size());
+        assertEquals("first locked", eventsReceived.get(0));
+        assertEquals("second locked", eventsReceived.get(1));
+        assertEquals("first over", eventsReceived.get(2));
+        assertEquals("second over", eventsReceived.get(3));
+    }
+
+    @Test
+    public void testRemoveListener() {
+        GameListener first = makeListener("first");
+        GameListener second = makeListener("second");
+        bus.addListener(first);
+        bus.addListener(second);
+
+        bus.removeListener(first);
+        bus.removeListener(first);
+        bus.removeListener(makeListener("unregistered"));
+        assertEquals(1, bus.getNumListeners());
+
+        bus.fireLevelChanged(game, 3);
+        assertEquals(1, eventsReceived.size());
+        assertEquals("second level 3", eventsReceived.get(0));
+    }
+
+    @Test
+    public void testRemoveAllListeners() {
+        bus.addListener(makeListener("first"));
+        bus.addListener(makeListener("second"));
+        bus.removeAllListeners();
+        assertEquals(0, bus.getNumListeners());
+
+        bus.fireGameOver(game);
+        assertTrue(eventsReceived.isEmpty());
+    }
+
+    @Test
+    public void testAddNullListener() {
+        try {
+            bus.addListener(null);
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // this is expected
+        }
+        assertEquals(0, bus.getNumListeners());
+    }
+
+    @Test
+    public void testListenerRemovedWhilePublishing() {
+        final GameListener second = makeListener("second");
+        bus.addListener(new GameAdapter() {
+            @Override
+            public void pieceLocked(Game game) {
+                bus.removeListener(second);
+            }
+        });
+        bus.addListener(second);
+
+        // The event being published still reaches every listener registered when publishing started
+        bus.firePieceLocked(game);
+        assertEquals(1, eventsReceived.size());
+
+        bus.firePieceLocked(game);
+        assertEquals(1, eventsReceived.size());
+    }
+
+    @Test
+    public void testEachListenerGetsOwnClearedRows() {
+        final List<int[]> rowsReceived = new ArrayList<int[]>();
+        for (int i = 0; i < 2; i++) {
+            bus.addListener(new GameAdapter() {
+                @Override
+                public void linesCleared(Game game, int[] rows) {
+                    rowsReceived.add(rows);
+                }
+            });
+        }
+
+        int[] clearedRows = {4, 7, 0, 0};
+        bus.fireLinesCleared(game, clearedRows, 2);
+
+        assertEquals(2, rowsReceived.size());
+        assertArrayEquals(new int[] {4, 7}, rowsReceived.get(0));
+        assertArrayEquals(new int[] {4, 7}, rowsReceived.get(1));
+        assertNotSame(rowsReceived.get(0), rowsReceived.get(1));
+        assertNotSame(clearedRows, rowsReceived.get(0));
+    }
+
+    // EFFECTS: returns a listener that records the events it receives, prefixed with the given name
+    private GameListener makeListener(final String name) {
+        return new GameAdapter() {
+            @Override
+            public void pieceLocked(Game game) {
+                eventsReceived.add(name + " locked");
+            }
+
+            @Override
+            public void levelChanged(Game game, int newLevel) {
+                eventsReceived.add(name + " level " + newLevel);
+            }
+
+            @Override
+            public void gameOver(Game game) {
+                eventsReceived.add(name + " over");
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package model.loop;
+
+import model.simulation.Distribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the FrameTimer class
+public class FrameTimerTest {
+    private static final long START = 1000000000L;
+
+    private FrameTimer timer;
+    private long refresh;
+
+    @BeforeEach
+    public void setUp() {
+        timer = new FrameTimer(100);
+        refresh = timer.getRefreshNanoseconds();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(10000000L, refresh);
+        assertEquals(0, timer.getNumFrames());
+        assertEquals(0, timer.getNumFramesDropped());
+        assertEquals(0, timer.getFrameTimes().getCount());
+        try {
+            new FrameTimer(0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testFramesOnTime() {
+        for (int i = 0; i < 10; i++) {
+            timer.recordFrame(START + i * refresh);
+        }
+        assertEquals(10, timer.getNumFrames());
+        assertEquals(0, timer.getNumFramesDropped());
+
+        Distribution frameTimes = timer.getFrameTimes();
+        assertEquals(9, frameTimes.getCount());
+        assertEquals(10000, frameTimes.getMin());
+        assertEquals(10000, frameTimes.getMax());
+    }
+
+    @Test
+    public void testDroppedFrames() {
+        timer.recordFrame(START);
+        // Slightly late, but closer to the next refresh than the one after
+        timer.recordFrame(START + refresh + refresh / 3);
+        assertEquals(0, timer.getNumFramesDropped());
+
+        // Two refreshes passed without a frame
+        timer.recordFrame(START + 4 * refresh);
+        assertEquals(2, timer.getNumFramesDropped());
+        assertEquals(3, timer.getNumFrames());
+        assertEquals(26666, timer.getFrameTimes().getMax());
+    }
+
+    @Test
+    public void testRestart() {
+        timer.recordFrame(START);
+        timer.restart();
+        assertEquals(START + 100 * refresh, timer.getNextFrameTime(START + 100 * refresh));
+
+        timer.recordFrame(START + 100 * refresh);
+        timer.recordFrame(START + 101 * refresh);
+        assertEquals(3, timer.getNumFrames());
+        assertEquals(0, timer.getNumFramesDropped());
+        assertEquals(1, timer.getFrameTimes().getCount());
+    }
+
+    @Test
+    public void testGetNextFrameTime() {
+        assertEquals(START, timer.getNextFrameTime(START));
+
+        timer.recordFrame(START);
+        assertEquals(START + refresh, timer.getNextFrameTime(START + 1));
+        assertEquals(START + refresh, timer.getNextFrameTime(START + refresh - 1));
+
+        // The renderer fell behind, so the next frame lines up with the next refresh after now
+        assertEquals(START + 2 * refresh, timer.getNextFrameTime(START + refresh));
+        assertEquals(START + 3 * refresh, timer.getNextFrameTime(START + 2 * refresh + 1));
+    }
+}
@@ -0,0 +1,357 @@
+package model.loop;
+
+import model.Game;
+import model.Input;
+import model.pieces.PieceShape;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the GameLoop and FrameSnapshot classes
+public class GameLoopTest {
+    private static final int INITIAL_DELAY_TICKS = GameLoop.INITIAL_DELAY_MILLISECONDS / GameLoop.TICK_MILLISECONDS;
+
+    private Game game;
+    private GameLoop loop;
+    private List<FrameSnapshot> framesReceived;
+
+    @BeforeEach
+    public void setUp() {
+        game = new Game(0, 0);
+        loop = new GameLoop(game);
+        framesReceived = new ArrayList<FrameSnapshot>();
+        loop.setFrameListener(new FrameListener() {
+            @Override
+            public void frameReady(FrameSnapshot frame) {
+                framesReceived.add(frame);
+            }
+        });
+    }
+
+    @Test
+    public void testConstructorPublishesFrame() {
+        FrameSnapshot frame = loop.getLatestFrame();
+        assertEquals(0, frame.getTick());
+        assertFrameMatchesGame(frame);
+        assertFalse(loop.isRunning());
+    }
+
+    @Test
+    public void testFirstGravityAfterInitialDelay() {
+        int pieceY = game.getActivePiece().getTileY(0);
+        for (int i = 1; i < INITIAL_DELAY_TICKS; i++) {
+            assertFalse(loop.tick());
+        }
+        assertEquals(pieceY, game.getActivePiece().getTileY(0));
+        assertTrue(framesReceived.isEmpty());
+
+        assertTrue(loop.tick());
+        assertEquals(pieceY + 1, game.getActivePiece().getTileY(0));
+        assertEquals(1, framesReceived.size());
+        assertEquals(INITIAL_DELAY_TICKS, framesReceived.get(0).getTick());
+        assertFrameMatchesGame(loop.getLatestFrame());
+    }
+
+    @Test
+    public void testGravityIntervalIsWholeNumberOfTicks() {
+        for (int level = 0; level <= 29; level++) {
+            Game levelGame = new Game(0, Math.min(level, Game.MAXIMUM_STARTING_LEVEL));
+            levelGame.setLinesCleared(level > Game.MAXIMUM_STARTING_LEVEL ? 130 + 10 * (level - 19) : 0);
+            assertEquals(level, levelGame.getLevel());
+            assertEquals(0, levelGame.getMillisecondsPerUpdate() % GameLoop.TICK_MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void testGravityFollowsLevel() {
+        Game fastGame = new Game(0, Game.MAXIMUM_STARTING_LEVEL);
+        GameLoop fastLoop = new GameLoop(fastGame);
+        for (int i = 0; i < INITIAL_DELAY_TICKS; i++) {
+            fastLoop.tick();
+        }
+
+        int ticksPerUpdate = fastGame.getMillisecondsPerUpdate() / GameLoop.TICK_MILLISECONDS;
+        for (int update = 0; update < 3; update++) {
+            for (int i = 1; i < ticksPerUpdate; i++) {
+                assertFalse(fastLoop.tick());
+            }
+            assertTrue(fastLoop.tick());
+        }
+    }
+
+    @Test
+    public void testInputsAppliedAtNextTick() {
+        int pieceX = game.getActivePiece().getTileX(0);
+        loop.submitInput(Input.MOVE_LEFT);
+        loop.submitInput(Input.MOVE_LEFT);
+        assertEquals(pieceX, game.getActivePiece().getTileX(0));
+        assertTrue(framesReceived.isEmpty());
+
+        loop.tick();
+        assertEquals(pieceX - 2, game.getActivePiece().getTileX(0));
+        assertEquals(1, framesReceived.size());
+        assertFrameMatchesGame(framesReceived.get(0));
+
+        loop.tick();
+        assertEquals(1, framesReceived.size());
+    }
+
+    @Test
+    public void testHeldKeyRepeatsAfterDelayedAutoShift() {
+        GameLoop shiftLoop = new GameLoop(game, 40, 8);
+        int pieceX = game.getActivePiece().getTileX(0);
+        shiftLoop.pressInput(Input.MOVE_LEFT);
+        shiftLoop.tick();
+        assertEquals(pieceX - 1, game.getActivePiece().getTileX(0));
+
+        // 40 ms is 10 ticks, and 8 ms is 2 ticks
+        for (int i = 0; i < 10; i++) {
+            shiftLoop.tick();
+        }
+        assertEquals(pieceX - 2, game.getActivePiece().getTileX(0));
+        shiftLoop.releaseInput(Input.MOVE_LEFT);
+        for (int i = 0; i < 10; i++) {
+            shiftLoop.tick();
+        }
+        assertEquals(pieceX - 2, game.getActivePiece().getTileX(0));
+    }
+
+    @Test
+    public void testKeyEventsReplayDeterministically() {
+        Game replayGame = new Game(0, 0);
+        GameLoop replayLoop = new GameLoop(replayGame);
+        for (GameLoop eachLoop : new GameLoop[] {loop, replayLoop}) {
+            for (int tick = 0; tick < 3000; tick++) {
+                if (tick % 97 == 0) {
+                    eachLoop.pressInput(tick % 2 == 0 ? Input.MOVE_LEFT : Input.MOVE_RIGHT);
+                } else if (tick % 97 == 60) {
+                    eachLoop.releaseInput(Input.MOVE_LEFT);
+                    eachLoop.releaseInput(Input.MOVE_RIGHT);
+                    eachLoop.submitInput(Input.ROTATE);
+                }
+                eachLoop.tick();
+            }
+        }
+
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            assertEquals(game.getRowMask(r), replayGame.getRowMask(r));
+        }
+        assertEquals(game.getScore(), replayGame.getScore());
+    }
+
+    @Test
+    public void testConstructorNegativeDelays() {
+        try {
+            new GameLoop(game, -1, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testFrameIsNotChangedByGame() {
+        FrameSnapshot frame = loop.getLatestFrame();
+        boolean[][] occupied = new boolean[Game.HEIGHT][Game.WIDTH];
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            for (int c = 0; c < Game.WIDTH; c++) {
+                occupied[r][c] = frame.isCellOccupied(c, r);
+            }
+        }
+
+        loop.submitInput(Input.HARD_DROP);
+        loop.tick();
+
+        assertNotSame(frame, loop.getLatestFrame());
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            for (int c = 0; c < Game.WIDTH; c++) {
+                assertEquals(occupied[r][c], frame.isCellOccupied(c, r));
+            }
+        }
+        assertFrameMatchesGame(loop.getLatestFrame());
+    }
+
+    @Test
+    public void testFrameDirtyCells() {
+        FrameSnapshot firstFrame = loop.getLatestFrame();
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            assertEquals(Game.FULL_ROW_MASK, firstFrame.getDirtyRowMask(r));
+        }
+
+        loop.submitInput(Input.MOVE_LEFT);
+        loop.tick();
+        FrameSnapshot frame = loop.getLatestFrame();
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            int expected = 0;
+            for (int c = 0; c < Game.WIDTH; c++) {
+                if (firstFrame.isCellOccupied(c, r) != frame.isCellOccupied(c, r)
+                        || firstFrame.hasPieceTileAt(c, r) != frame.hasPieceTileAt(c, r)
+                        || firstFrame.hasHardDropTileAt(c, r) != frame.hasHardDropTileAt(c, r)) {
+                    expected |= 1 << c;
+                }
+            }
+            assertEquals(expected, frame.getDirtyRowMask(r));
+        }
+        // Only the cells the piece and its hard drop preview moved into or out of are dirty
+        int numDirtyCells = 0;
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            numDirtyCells += Integer.bitCount(frame.getDirtyRowMask(r));
+            assertEquals(0, game.getDirtyRowMask(r));
+        }
+        assertTrue(numDirtyCells > 0 && numDirtyCells <= 4 * PieceShape.NUM_TILES);
+    }
+
+    @Test
+    public void testFrameDirtyCellsWhenPieceLocks() {
+        loop.submitInput(Input.HARD_DROP);
+        loop.tick();
+        FrameSnapshot frame = loop.getLatestFrame();
+
+        // The locked "I" piece did not change the board where it landed, but its cells are no longer the active
+        // piece's, so they must be redrawn
+        for (int c = 0; c < Game.WIDTH; c++) {
+            if (frame.isCellOccupied(c, Game.HEIGHT - 1)) {
+                assertTrue((frame.getDirtyRowMask(Game.HEIGHT - 1) & (1 << c)) != 0);
+            }
+        }
+    }
+
+    @Test
+    public void testFrameOutOfBounds() {
+        FrameSnapshot frame = loop.getLatestFrame();
+        try {
+            frame.isCellOccupied(Game.WIDTH, 0);
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // this is expected
+        }
+        try {
+            frame.hasHardDropTileAt(0, -1);
+            fail("IndexOutOfBoundsException should be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testRunsOnOwnThreadUntilGameOver() throws InterruptedException {
+        final CountDownLatch gameOver = new CountDownLatch(1);
+        loop.setFrameListener(new FrameListener() {
+            @Override
+            public void frameReady(FrameSnapshot frame) {
+                if (frame.isGameOver()) {
+                    gameOver.countDown();
+                }
+            }
+        });
+
+        loop.start();
+        assertTrue(loop.isRunning());
+        for (int i = 0; i < 100; i++) {
+            loop.submitInput(Input.HARD_DROP);
+        }
+        assertTrue(gameOver.await(10, TimeUnit.SECONDS));
+        loop.stop();
+
+        assertFalse(loop.isRunning());
+        assertTrue(loop.getLatestFrame().isGameOver());
+        assertTrue(loop.getNumTicks() > 0);
+        assertEquals(loop.getNumTicks(), loop.getTickLateness().getCount());
+    }
+
+    @Test
+    public void testPauseAndResume() throws InterruptedException {
+        final CountDownLatch pausedFrame = new CountDownLatch(1);
+        final CountDownLatch resumedFrame = new CountDownLatch(1);
+        loop.setFrameListener(new FrameListener() {
+            @Override
+            public void frameReady(FrameSnapshot frame) {
+                if (frame.isPaused()) {
+                    pausedFrame.countDown();
+                } else if (pausedFrame.getCount() == 0) {
+                    resumedFrame.countDown();
+                }
+            }
+        });
+        int pieceX = game.getActivePiece().getTileX(0);
+
+        loop.start();
+        loop.pause();
+        assertTrue(loop.isPaused());
+        assertTrue(pausedFrame.await(10, TimeUnit.SECONDS));
+        long numTicks = loop.getNumTicks();
+        loop.submitInput(Input.MOVE_LEFT);
+        Thread.sleep(50);
+        assertEquals(numTicks, loop.getNumTicks());
+        assertTrue(loop.isRunning());
+
+        loop.resume();
+        assertFalse(loop.isPaused());
+        assertTrue(resumedFrame.await(10, TimeUnit.SECONDS));
+        loop.stop();
+        assertTrue(loop.getNumTicks() >= numTicks);
+        // The key pressed while the game was paused was discarded
+        assertEquals(pieceX, game.getActivePiece().getTileX(0));
+    }
+
+    @Test
+    public void testStopWhilePaused() {
+        loop.pause();
+        loop.start();
+        loop.stop();
+        assertFalse(loop.isRunning());
+        assertTrue(loop.isPaused());
+    }
+
+    @Test
+    public void testFramePausedDirtyCells() {
+        FrameSnapshot frame = loop.getLatestFrame();
+        FrameSnapshot pausedFrame = new FrameSnapshot(game, 1, true, frame);
+        FrameSnapshot samePausedFrame = new FrameSnapshot(game, 2, true, pausedFrame);
+        FrameSnapshot resumedFrame = new FrameSnapshot(game, 3, false, samePausedFrame);
+        assertTrue(pausedFrame.isPaused());
+        assertFalse(resumedFrame.isPaused());
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            assertEquals(Game.FULL_ROW_MASK, pausedFrame.getDirtyRowMask(r));
+            assertEquals(0, samePausedFrame.getDirtyRowMask(r));
+            assertEquals(Game.FULL_ROW_MASK, resumedFrame.getDirtyRowMask(r));
+        }
+    }
+
+    @Test
+    public void testStop() {
+        loop.stop();
+        loop.start();
+        loop.stop();
+        assertFalse(loop.isRunning());
+        assertFalse(game.isGameOver());
+
+        try {
+            loop.start();
+            fail("IllegalStateException should be thrown");
+        } catch (IllegalStateException e) {
+            // this is expected
+        }
+    }
+
+    // EFFECTS: asserts that the given frame shows the current state of the game
+    private void assertFrameMatchesGame(FrameSnapshot frame) {
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            for (int c = 0; c < Game.WIDTH; c++) {
+                assertEquals(game.isCellOccupied(c, r), frame.isCellOccupied(c, r));
+                assertEquals(game.getActivePiece().hasTileAt(c, r), frame.hasPieceTileAt(c, r));
+                assertEquals(game.getActivePiece().hasHardDropTileAt(c, r), frame.hasHardDropTileAt(c, r));
+            }
+        }
+        assertEquals(game.getScore(), frame.getScore());
+        assertEquals(game.getLinesCleared(), frame.getLinesCleared());
+        assertEquals(game.getLevel(), frame.getLevel());
+        assertEquals(game.isGameOver(), frame.isGameOver());
+    }
+}
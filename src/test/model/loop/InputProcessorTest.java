@@ -0,0 +1,178 @@
+package model.loop;
+
+import model.Game;
+import model.Input;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the InputProcessor class
+public class InputProcessorTest {
+    private static final int DAS_TICKS = 10;
+    private static final int ARR_TICKS = 3;
+
+    private Game game;
+    private InputProcessor processor;
+    private int startX;
+
+    @BeforeEach
+    public void setUp() {
+        game = new Game(0, 0);
+        processor = new InputProcessor(DAS_TICKS, ARR_TICKS);
+        // The first piece is an "I" piece, which spawns three columns away from the left wall
+        game.handleInput(Input.MOVE_RIGHT);
+        startX = getPieceX();
+    }
+
+    @Test
+    public void testPressAppliesInputOnce() {
+        press(Input.MOVE_LEFT);
+        assertTrue(processor.isHeld(Input.MOVE_LEFT));
+        assertEquals(startX - 1, getPieceX());
+
+        release(Input.MOVE_LEFT);
+        assertFalse(processor.isHeld(Input.MOVE_LEFT));
+        runTicks(2 * DAS_TICKS);
+        assertEquals(startX - 1, getPieceX());
+    }
+
+    @Test
+    public void testRepeatedPressWhileHeldIgnored() {
+        press(Input.MOVE_LEFT);
+        press(Input.MOVE_LEFT);
+        press(Input.MOVE_LEFT);
+        assertEquals(startX - 1, getPieceX());
+    }
+
+    @Test
+    public void testDelayedAutoShift() {
+        press(Input.MOVE_LEFT);
+        processor.applyAutoRepeat(game);
+        runTicks(DAS_TICKS - 1);
+        assertEquals(startX - 1, getPieceX());
+
+        runTicks(1);
+        assertEquals(startX - 2, getPieceX());
+        runTicks(ARR_TICKS - 1);
+        assertEquals(startX - 2, getPieceX());
+        runTicks(1);
+        assertEquals(startX - 3, getPieceX());
+    }
+
+    @Test
+    public void testZeroAutoRepeatRateMovesToWall() {
+        processor = new InputProcessor(DAS_TICKS, 0);
+        press(Input.MOVE_RIGHT);
+        processor.applyAutoRepeat(game);
+        runTicks(DAS_TICKS);
+        assertFalse(game.handleInput(Input.MOVE_RIGHT));
+    }
+
+    @Test
+    public void testLastHorizontalPressWins() {
+        press(Input.MOVE_LEFT);
+        press(Input.MOVE_RIGHT);
+        assertEquals(startX, getPieceX());
+        processor.applyAutoRepeat(game);
+        runTicks(DAS_TICKS);
+        assertEquals(startX + 1, getPieceX());
+
+        // Releasing the right key hands over to the held left key, which starts its DAS again
+        release(Input.MOVE_RIGHT);
+        processor.applyAutoRepeat(game);
+        runTicks(DAS_TICKS - 1);
+        assertEquals(startX + 1, getPieceX());
+        runTicks(1);
+        assertEquals(startX, getPieceX());
+    }
+
+    @Test
+    public void testSoftDropRepeatsWithoutDelay() {
+        int startY = game.getActivePiece().getTileY(0);
+        press(Input.SOFT_DROP);
+        processor.applyAutoRepeat(game);
+        assertEquals(startY + 1, game.getActivePiece().getTileY(0));
+
+        runTicks(ARR_TICKS);
+        assertEquals(startY + 2, game.getActivePiece().getTileY(0));
+        release(Input.SOFT_DROP);
+        runTicks(ARR_TICKS);
+        assertEquals(startY + 2, game.getActivePiece().getTileY(0));
+    }
+
+    @Test
+    public void testRotateAndHardDropDoNotRepeat() {
+        Game otherGame = new Game(0, 0);
+        otherGame.handleInput(Input.MOVE_RIGHT);
+        otherGame.handleInput(Input.ROTATE);
+        otherGame.handleInput(Input.HARD_DROP);
+
+        press(Input.ROTATE);
+        press(Input.HARD_DROP);
+        runTicks(2 * DAS_TICKS);
+        for (int r = 0; r < Game.HEIGHT; r++) {
+            assertEquals(otherGame.getRowMask(r), game.getRowMask(r));
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            new InputProcessor(-1, 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+
+        try {
+            new InputProcessor(0, -1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testReleaseAll() {
+        press(Input.MOVE_LEFT);
+        press(Input.SOFT_DROP);
+        processor.releaseAll();
+        assertFalse(processor.isHeld(Input.MOVE_LEFT));
+        assertFalse(processor.isHeld(Input.SOFT_DROP));
+
+        int pieceY = game.getActivePiece().getTileY(0);
+        runTicks(2 * DAS_TICKS);
+        assertEquals(startX - 1, getPieceX());
+        assertEquals(pieceY, game.getActivePiece().getTileY(0));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: handles a press of the key of the given input
+    private void press(Input input) {
+        processor.handleEvent(InputProcessor.pressEvent(input), game);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: handles a release of the key of the given input
+    private void release(Input input) {
+        processor.handleEvent(InputProcessor.releaseEvent(input), game);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies the auto-repeat of the given number of ticks without any key events
+    private void runTicks(int numTicks) {
+        for (int i = 0; i < numTicks; i++) {
+            processor.applyAutoRepeat(game);
+        }
+    }
+
+    // EFFECTS: returns the smallest x-coordinate of the active piece's tiles
+    private int getPieceX() {
+        int x = Game.WIDTH;
+        for (int i = 0; i < 4; i++) {
+            x = Math.min(x, game.getActivePiece().getTileX(i));
+        }
+        return x;
+    }
+}
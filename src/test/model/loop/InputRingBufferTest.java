@@ -0,0 +1,108 @@
+package model.loop;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the InputRingBuffer class
+public class InputRingBufferTest {
+    private InputRingBuffer buffer;
+
+    @BeforeEach
+    public void setUp() {
+        buffer = new InputRingBuffer(4);
+    }
+
+    @Test
+    public void testEmptyBuffer() {
+        assertEquals(0, buffer.size());
+        assertEquals(4, buffer.getCapacity());
+        assertEquals(InputRingBuffer.EMPTY, buffer.poll());
+    }
+
+    @Test
+    public void testFirstInFirstOut() {
+        assertTrue(buffer.offer(3));
+        assertTrue(buffer.offer(0));
+        assertTrue(buffer.offer(7));
+        assertEquals(3, buffer.size());
+
+        assertEquals(3, buffer.poll());
+        assertEquals(0, buffer.poll());
+        assertEquals(7, buffer.poll());
+        assertEquals(InputRingBuffer.EMPTY, buffer.poll());
+    }
+
+    @Test
+    public void testOfferToFullBuffer() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+    }
+
+    @Test
+    public void testWrapsAround() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(buffer.offer(i));
+            assertTrue(buffer.offer(i + 1000));
+            assertEquals(i, buffer.poll());
+            assertEquals(i + 1000, buffer.poll());
+        }
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            new InputRingBuffer(6);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+
+        try {
+            buffer.offer(-1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testEventsPassBetweenThreadsInOrder() throws InterruptedException {
+        final int numEvents = 20000;
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < numEvents; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+        producer.start();
+
+        int expected = 0;
+        while (expected < numEvents) {
+            int event = buffer.poll();
+            if (event != InputRingBuffer.EMPTY) {
+                assertEquals(expected, event);
+                expected++;
+            } else {
+                Thread.yield();
+            }
+        }
+        producer.join();
+        assertEquals(0, buffer.size());
+    }
+}
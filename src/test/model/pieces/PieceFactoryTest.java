@@ -0,0 +1,95 @@
+package model.pieces;
+
+import model.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.AllocationCounter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Unit tests for the PieceFactory class
+public class PieceFactoryTest {
+    private static final int NUM_ALLOCATION_TEST_PIECES = 20000;
+
+    private Game game;
+    private PieceFactory factory;
+
+    @BeforeEach
+    public void setUp() {
+        game = new Game(0, 0);
+        factory = new PieceFactory(game);
+    }
+
+    @Test
+    public void testGetShape() {
+        assertEquals(PieceShape.I, PieceFactory.getShape(0));
+        assertEquals(PieceShape.J, PieceFactory.getShape(1));
+        assertEquals(PieceShape.L, PieceFactory.getShape(2));
+        assertEquals(PieceShape.O, PieceFactory.getShape(3));
+        assertEquals(PieceShape.S, PieceFactory.getShape(4));
+        assertEquals(PieceShape.T, PieceFactory.getShape(5));
+        assertEquals(PieceShape.Z, PieceFactory.getShape(6));
+    }
+
+    @Test
+    public void testMakePieceOfEachShape() {
+        for (int i = 0; i < Game.NUM_TETRIS_PIECES; i++) {
+            PieceShape shape = PieceFactory.getShape(i);
+            Piece piece = factory.makePiece(shape, null);
+            assertEquals(shape, piece.getShape());
+        }
+        assertTrue(factory.makePiece(PieceShape.I, null) instanceof IPiece);
+        assertTrue(factory.makePiece(PieceShape.Z, null) instanceof ZPiece);
+        // Each piece is where a new piece of its shape would spawn
+        assertEquals(new TPiece(game).getTileLocations(), factory.makePiece(PieceShape.T, null).getTileLocations());
+    }
+
+    @Test
+    public void testMakePieceAvoidsPieceInUse() {
+        Piece first = factory.makePiece(PieceShape.S, null);
+        Piece second = factory.makePiece(PieceShape.S, first);
+        assertNotSame(first, second);
+
+        // Once the first piece is no longer in use, it is made again instead of a new piece
+        assertSame(first, factory.makePiece(PieceShape.S, second));
+        assertSame(second, factory.makePiece(PieceShape.S, first));
+    }
+
+    @Test
+    public void testMakePieceResetsRecycledPiece() {
+        Piece piece = factory.makePiece(PieceShape.L, null);
+        java.util.Set<java.awt.Point> spawnTiles = piece.getTileLocations();
+        piece.moveDown();
+        piece.rotate();
+        piece.moveLeft();
+        assertNotEquals(spawnTiles, piece.getTileLocations());
+
+        assertSame(piece, factory.makePiece(PieceShape.L, null));
+        assertEquals(spawnTiles, piece.getTileLocations());
+    }
+
+    @Test
+    public void testMakePieceDoesNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported());
+
+        // Warm up first so that class loading, compilation and the first piece of each shape are not counted
+        makePieces(NUM_ALLOCATION_TEST_PIECES);
+
+        long bytes = AllocationCounter.bytesAllocatedBy(new Runnable() {
+            @Override
+            public void run() {
+                makePieces(NUM_ALLOCATION_TEST_PIECES);
+            }
+        });
+        assertTrue(bytes < NUM_ALLOCATION_TEST_PIECES, "Making pieces allocated " + bytes + " bytes");
+    }
+
+    // EFFECTS: makes the given number of pieces, cycling through the shapes, each avoiding the previous piece
+    private void makePieces(int numPieces) {
+        Piece previous = null;
+        for (int i = 0; i < numPieces; i++) {
+            previous = factory.makePiece(PieceFactory.getShape(i % Game.NUM_TETRIS_PIECES), previous);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package model.pieces;
+
+import model.Game;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the PieceShape enum
+public class PieceShapeTest {
+
+    @Test
+    public void testRowMasksMatchTileLocations() {
+        for (PieceShape shape : PieceShape.values()) {
+            for (int o = 0; o < PieceShape.NUM_ORIENTATIONS; o++) {
+                int[] expectedRowMasks = new int[PieceShape.BOX_SIDE_LENGTH];
+                for (int i = 0; i < PieceShape.NUM_TILES; i++) {
+                    expectedRowMasks[shape.getTileY(o, i)] |= 1 << shape.getTileX(o, i);
+                }
+
+                int numTiles = 0;
+                for (int r = 0; r < PieceShape.BOX_SIDE_LENGTH; r++) {
+                    assertEquals(expectedRowMasks[r], shape.getRowMask(o, r));
+                    numTiles += Integer.bitCount(shape.getRowMask(o, r));
+                }
+                assertEquals(PieceShape.NUM_TILES, numTiles);
+            }
+        }
+    }
+
+    @Test
+    public void testPiecesShareShape() {
+        Game game = new Game(0, 0);
+        Piece piece1 = new TPiece(game);
+        Piece piece2 = new TPiece(game);
+
+        assertSame(PieceShape.T, piece1.getShape());
+        assertSame(piece1.getShape(), piece2.getShape());
+        assertSame(PieceShape.I, new IPiece(game).getShape());
+        assertSame(PieceShape.O, new OPiece(game).getShape());
+    }
+
+    @Test
+    public void testOrientationsOfOPieceAreIdentical() {
+        for (int o = 1; o < PieceShape.NUM_ORIENTATIONS; o++) {
+            for (int r = 0; r < PieceShape.BOX_SIDE_LENGTH; r++) {
+                assertEquals(PieceShape.O.getRowMask(0, r), PieceShape.O.getRowMask(o, r));
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import exceptions.IncorrectBoardSizeException;
 import model.Game;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import util.AllocationCounter;
 
 import java.awt.Point;
 import java.util.ArrayList;
@@ -12,11 +13,15 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 // Unit tests for the Piece class
 public abstract class PieceTest {
     protected static int TEST_GAME_WALL_HEIGHT = Game.HEIGHT / 2;
 
+    // Number of rounds of moves used when checking that moving a piece does not allocate memory
+    private static final int ALLOCATION_TEST_MOVES = 20000;
+
     protected Piece piece;
 
     // Do not call update on this game!
@@ -224,6 +229,63 @@ public abstract class PieceTest {
         assertEquals(tileLocations, piece.getTileLocations());
     }
 
+    @Test
+    public void testGetHardDropDistanceDoesNotChangeBoard() {
+        Set<Point> tileLocations = piece.getTileLocations();
+        int boardVersion = testGame.getBoardVersion();
+
+        int distance = piece.getHardDropDistance();
+        assertTrue(distance > 0);
+        assertEquals(distance, piece.getHardDropDistance());
+        assertEquals(boardVersion, testGame.getBoardVersion());
+        assertEquals(tileLocations, piece.getTileLocations());
+
+        // Every hard drop tile is a tile location moved down by the hard drop distance
+        for (Point p : piece.getHardDropTileLocations()) {
+            assertTrue(tileLocations.contains(new Point(p.x, p.y - distance)));
+            assertTrue(piece.hasHardDropTileAt(p.x, p.y));
+        }
+
+        // After the piece moves down, the distance shrinks by one
+        assertTrue(piece.moveDown());
+        assertEquals(distance - 1, piece.getHardDropDistance());
+    }
+
+    @Test
+    public void testGetHardDropDistanceUpdatesWhenBoardChanges() {
+        int distance = piece.getHardDropDistance();
+        int lowestTileY = 0;
+        for (Point p : piece.getTileLocations()) {
+            lowestTileY = Math.max(lowestTileY, p.y);
+        }
+
+        // Put a tile right under the piece's lowest tile
+        for (Point p : piece.getTileLocations()) {
+            if (p.y == lowestTileY) {
+                testGame.placeTileAt(p.x, p.y + 2);
+                break;
+            }
+        }
+        assertEquals(1, piece.getHardDropDistance());
+        assertTrue(distance > 1);
+    }
+
+    @Test
+    public void testMovesDoNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported());
+
+        // Warm up first so that class loading and compilation are not counted
+        moveBackAndForth(ALLOCATION_TEST_MOVES);
+
+        long bytes = AllocationCounter.bytesAllocatedBy(new Runnable() {
+            @Override
+            public void run() {
+                moveBackAndForth(ALLOCATION_TEST_MOVES);
+            }
+        });
+        assertTrue(bytes < ALLOCATION_TEST_MOVES, "Moving a piece allocated " + bytes + " bytes");
+    }
+
     @Test
     public abstract void testRotateInFreeSpace();
 
@@ -232,4 +294,21 @@ public abstract class PieceTest {
 
     @Test
     public abstract void testRotateWithObstructingTiles();
+
+    // MODIFIES: this
+    // EFFECTS: performs the given number of rounds of moves and rotations on piece, some of which fail
+    //          because the piece hits a wall or the tiles on the test game's board
+    private void moveBackAndForth(int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            piece.moveLeft();
+            piece.rotate();
+            piece.moveRight();
+            piece.moveRight();
+            piece.moveDown();
+            piece.moveLeft();
+            if (i % Game.HEIGHT == 0) {
+                piece.rotate();
+            }
+        }
+    }
 }
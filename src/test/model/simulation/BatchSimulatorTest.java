@@ -0,0 +1,107 @@
+package model.simulation;
+
+import model.Game;
+import model.Input;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the BatchSimulator class
+public class BatchSimulatorTest {
+    private static final int NUM_GAMES = 200;
+
+    private BatchSimulator randomSimulator;
+
+    @BeforeEach
+    public void setUp() {
+        randomSimulator = new BatchSimulator(0, RandomInputPolicy.factory(), 100000);
+    }
+
+    @Test
+    public void testRunCountsEveryGame() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SimulationResults results = randomSimulator.run(0, NUM_GAMES, pool);
+        pool.shutdown();
+
+        assertEquals(NUM_GAMES, results.getNumGames());
+        assertEquals(0, results.getNumGamesStopped());
+        assertEquals(NUM_GAMES, results.getScores().getCount());
+        assertEquals(NUM_GAMES, results.getLinesCleared().getCount());
+        assertEquals(NUM_GAMES, results.getLevels().getCount());
+        assertTrue(results.getNumUpdates() > NUM_GAMES);
+    }
+
+    @Test
+    public void testRunIsDeterministicAcrossThreadCounts() {
+        ForkJoinPool onePool = new ForkJoinPool(1);
+        ForkJoinPool fourPool = new ForkJoinPool(4);
+        SimulationResults sequentialResults = randomSimulator.run(1000, NUM_GAMES, onePool);
+        SimulationResults parallelResults = randomSimulator.run(1000, NUM_GAMES, fourPool);
+        onePool.shutdown();
+        fourPool.shutdown();
+
+        assertEquals(sequentialResults, parallelResults);
+        assertEquals(sequentialResults.getScores().getSum(), parallelResults.getScores().getSum());
+    }
+
+    @Test
+    public void testRunMatchesGamesPlayedOneByOne() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SimulationResults results = randomSimulator.run(7, 3, pool);
+        pool.shutdown();
+
+        long totalLines = 0;
+        for (long seed = 7; seed < 10; seed++) {
+            Game game = new Game(seed, 0);
+            InputPolicy policy = RandomInputPolicy.factory().create(seed);
+            while (!game.isGameOver()) {
+                policy.act(game);
+                game.update();
+            }
+            totalLines += game.getLinesCleared();
+        }
+        assertEquals(totalLines, results.getLinesCleared().getSum());
+    }
+
+    @Test
+    public void testRunStopsLongGames() {
+        InputPolicyFactory idleFactory = new InputPolicyFactory() {
+            @Override
+            public InputPolicy create(long gameSeed) {
+                return new InputPolicy() {
+                    @Override
+                    public void act(Game game) {
+                        game.handleInput(Input.MOVE_LEFT);
+                    }
+                };
+            }
+        };
+        BatchSimulator simulator = new BatchSimulator(0, idleFactory, 5);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        SimulationResults results = simulator.run(0, 10, pool);
+        pool.shutdown();
+
+        assertEquals(10, results.getNumGamesStopped());
+        assertEquals(50, results.getNumUpdates());
+    }
+
+    @Test
+    public void testConstructorInvalidArguments() {
+        try {
+            new BatchSimulator(-1, RandomInputPolicy.factory(), 10);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+
+        try {
+            new BatchSimulator(0, RandomInputPolicy.factory(), 0);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+}
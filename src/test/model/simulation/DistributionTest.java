@@ -0,0 +1,69 @@
+package model.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the Distribution class
+public class DistributionTest {
+
+    @Test
+    public void testEmptyDistribution() {
+        Distribution distribution = new Distribution(10, 5);
+        assertEquals(0, distribution.getCount());
+        assertEquals(0, distribution.getMean());
+        assertEquals(0, distribution.getMin());
+        assertEquals(0, distribution.getMax());
+        assertEquals(0, distribution.getPercentile(50));
+    }
+
+    @Test
+    public void testAdd() {
+        Distribution distribution = new Distribution(10, 5);
+        distribution.add(3);
+        distribution.add(15);
+        distribution.add(1000);
+
+        assertEquals(3, distribution.getCount());
+        assertEquals(1018, distribution.getSum());
+        assertEquals(3, distribution.getMin());
+        assertEquals(1000, distribution.getMax());
+        assertEquals(1, distribution.getBucketCount(0));
+        assertEquals(1, distribution.getBucketCount(1));
+        assertEquals(1, distribution.getBucketCount(4));
+        assertEquals(10, distribution.getPercentile(50));
+        assertEquals(40, distribution.getPercentile(100));
+    }
+
+    @Test
+    public void testMergeIsOrderIndependent() {
+        Distribution first = new Distribution(10, 5);
+        Distribution second = new Distribution(10, 5);
+        first.add(5);
+        first.add(25);
+        second.add(44);
+
+        Distribution merged1 = new Distribution(10, 5);
+        merged1.merge(first);
+        merged1.merge(second);
+        Distribution merged2 = new Distribution(10, 5);
+        merged2.merge(second);
+        merged2.merge(first);
+
+        assertEquals(merged1, merged2);
+        assertEquals(merged1.hashCode(), merged2.hashCode());
+        assertEquals(3, merged1.getCount());
+        assertEquals(5, merged1.getMin());
+        assertEquals(44, merged1.getMax());
+    }
+
+    @Test
+    public void testMergeDifferentBuckets() {
+        try {
+            new Distribution(10, 5).merge(new Distribution(5, 5));
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+}
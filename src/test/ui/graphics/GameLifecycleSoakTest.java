@@ -0,0 +1,98 @@
+package ui.graphics;
+
+import model.Game;
+import model.Input;
+import model.loop.GameLoop;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ui.sound.ThemeSongPlayer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Soak test that starts and disposes of a game session many times, the way TetrisGui restarts a game, and checks
+// that every restart tears the previous game down: no game loop or render threads, listeners or memory are left
+// behind. Every NUM_RESTARTS_PER_WINDOW restarts, the theme song player is disposed of, as when the window closes.
+//
+// The test takes about a minute, so it is tagged "soak" to be left out of a regular run (with the tag expression
+// "!soak").
+@Tag("soak")
+public class GameLifecycleSoakTest {
+    private static final int NUM_RESTARTS = 10000;
+    private static final int NUM_WARMUP_RESTARTS = 1000;
+    private static final int NUM_RESTARTS_PER_WINDOW = 1000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 16 * 1024 * 1024;
+    private static final long TIMEOUT_MILLISECONDS = 5000;
+
+    private final ThemeSongPlayer player = ThemeSongPlayer.getInstance();
+
+    @Test
+    public void testRestartsLeaveNothingBehind() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        runRestarts(NUM_WARMUP_RESTARTS);
+        long heapUsed = getHeapUsedAfterGc(memory);
+
+        runRestarts(NUM_RESTARTS);
+        assertEquals(0, countThreads("Game loop"));
+        assertEquals(0, countThreads("Board renderer"));
+        long heapGrowth = getHeapUsedAfterGc(memory) - heapUsed;
+        assertTrue(heapGrowth < MAX_HEAP_GROWTH_BYTES, "Heap grew by " + heapGrowth + " bytes");
+    }
+
+    // EFFECTS: starts and disposes of the given number of sessions, hard dropping the first piece of each game on
+    //          its loop, and checks that each session's threads are gone and its game has no listeners left once it
+    //          is disposed of. Disposes of the theme song player every NUM_RESTARTS_PER_WINDOW restarts.
+    private void runRestarts(int numRestarts) throws InterruptedException {
+        for (int i = 0; i < numRestarts; i++) {
+            Game game = new Game(i, 0);
+            GameLoop gameLoop = new GameLoop(game);
+            GameSession session = new GameSession(game, gameLoop, player, false, i % 2 == 0, false);
+            session.start();
+            assertTrue(gameLoop.submitInput(Input.HARD_DROP));
+            waitForFirstPieceToLock(gameLoop);
+            assertEquals(1, countThreads("Game loop"));
+
+            session.dispose();
+            assertFalse(gameLoop.isRunning());
+            // The loop thread has finished, so the game can be read here
+            assertNotEquals(0, game.getRowMask(Game.HEIGHT - 1));
+            assertEquals(0, game.getNumListeners());
+            if ((i + 1) % NUM_RESTARTS_PER_WINDOW == 0) {
+                player.dispose();
+            }
+        }
+    }
+
+    // EFFECTS: waits up to TIMEOUT_MILLISECONDS for the loop to publish a frame from one of its ticks. The first tick
+    //          handles the queued hard drop, which locks the first piece on the floor long before gravity would
+    //          move it, and the changed board is published at the end of that tick.
+    private static void waitForFirstPieceToLock(GameLoop gameLoop) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLISECONDS;
+        while (gameLoop.getLatestFrame().getTick() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertNotEquals(0, gameLoop.getLatestFrame().getTick(), "The loop did not tick");
+    }
+
+    // EFFECTS: returns the number of live threads with the given name
+    private static int countThreads(String name) {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the number of bytes of heap in use after asking for garbage collection
+    private static long getHeapUsedAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
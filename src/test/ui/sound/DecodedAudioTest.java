@@ -0,0 +1,75 @@
+package ui.sound;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the DecodedAudio class
+public class DecodedAudioTest {
+    private static final float SAMPLE_RATE = 8000;
+
+    @Test
+    public void testDecodeSignedPcm() throws Exception {
+        AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+        byte[] samples = makeSamples(400 * format.getFrameSize());
+        DecodedAudio audio = DecodedAudio.decode(new ByteArrayInputStream(toWav(format, samples)));
+
+        assertEquals(AudioFormat.Encoding.PCM_SIGNED, audio.getFormat().getEncoding());
+        assertEquals(2, audio.getFormat().getChannels());
+        assertEquals(400, audio.getNumFrames());
+        assertArrayEquals(samples, audio.getData());
+    }
+
+    @Test
+    public void testDecodeConvertsUnsignedPcm() throws Exception {
+        AudioFormat format = new AudioFormat(SAMPLE_RATE, 8, 1, false, false);
+        byte[] samples = makeSamples(300);
+        DecodedAudio audio = DecodedAudio.decode(new ByteArrayInputStream(toWav(format, samples)));
+
+        assertEquals(AudioFormat.Encoding.PCM_SIGNED, audio.getFormat().getEncoding());
+        assertEquals(300, audio.getNumFrames());
+    }
+
+    @Test
+    public void testDecodeInvalidFile() throws IOException {
+        try {
+            DecodedAudio.decode(new ByteArrayInputStream(makeSamples(1000)));
+            fail("UnsupportedAudioFileException should be thrown");
+        } catch (UnsupportedAudioFileException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testDecodeMissingResource() throws Exception {
+        try {
+            DecodedAudio.decodeResource("/no such sound.wav");
+            fail("NullPointerException should be thrown");
+        } catch (NullPointerException e) {
+            // this is expected
+        }
+    }
+
+    // EFFECTS: returns the given number of bytes of a repeating pattern
+    private static byte[] makeSamples(int numBytes) {
+        byte[] samples = new byte[numBytes];
+        for (int i = 0; i < numBytes; i++) {
+            samples[i] = (byte) (i * 7);
+        }
+        return samples;
+    }
+
+    // EFFECTS: returns a WAV file holding the given samples in the given format
+    private static byte[] toWav(AudioFormat format, byte[] samples) throws IOException {
+        AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(samples), format,
+                samples.length / format.getFrameSize());
+        ByteArrayOutputStream wav = new ByteArrayOutputStream();
+        AudioSystem.write(stream, AudioFileFormat.Type.WAVE, wav);
+        return wav.toByteArray();
+    }
+}
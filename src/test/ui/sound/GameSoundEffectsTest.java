@@ -0,0 +1,53 @@
+package ui.sound;
+
+import model.Game;
+import model.Input;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the GameSoundEffects class
+public class GameSoundEffectsTest {
+    private SoundEffectMixer mixer;
+    private Game game;
+    private byte[] chunk;
+
+    @BeforeEach
+    public void setUp() {
+        mixer = new SoundEffectMixer();
+        game = new Game(5000, 0);
+        game.addListener(new GameSoundEffects(mixer));
+        chunk = new byte[SoundEffectMixer.FRAMES_PER_CHUNK * 2];
+    }
+
+    @Test
+    public void testMovesAndRotationsPlayEffects() {
+        game.handleInput(Input.MOVE_LEFT);
+        game.handleInput(Input.SOFT_DROP);
+        game.handleInput(Input.ROTATE);
+        mixer.mix(chunk, 1);
+        assertEquals(2, mixer.getNumVoicesPlaying());
+    }
+
+    @Test
+    public void testBlockedMovePlaysNoEffect() {
+        for (int i = 0; i < Game.WIDTH; i++) {
+            game.handleInput(Input.MOVE_RIGHT);
+        }
+        // Let the moves finish playing
+        for (int i = 0; i < 100; i++) {
+            mixer.mix(chunk, SoundEffectMixer.FRAMES_PER_CHUNK);
+        }
+        game.handleInput(Input.MOVE_RIGHT);
+        mixer.mix(chunk, 1);
+        assertEquals(0, mixer.getNumVoicesPlaying());
+    }
+
+    @Test
+    public void testHardDropPlaysLockEffect() {
+        game.handleInput(Input.HARD_DROP);
+        mixer.mix(chunk, 1);
+        assertEquals(1, mixer.getNumVoicesPlaying());
+    }
+}
@@ -0,0 +1,176 @@
+package ui.sound;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.AllocationCounter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Unit tests for the SoundEffectMixer class. Apart from the test of the mixing thread, the effects are mixed into
+// arrays, so no line is opened.
+public class SoundEffectMixerTest {
+    private static final int NUM_ALLOCATION_TEST_CHUNKS = 10000;
+    private static final int TIMEOUT_MILLISECONDS = 5000;
+    private static final int IDLE_CHECK_MILLISECONDS = 100;
+
+    private SoundEffectMixer mixer;
+    private byte[] chunk;
+
+    @BeforeEach
+    public void setUp() {
+        mixer = new SoundEffectMixer();
+        chunk = new byte[SoundEffectMixer.FRAMES_PER_CHUNK * 2];
+    }
+
+    @Test
+    public void testLatency() {
+        assertTrue(mixer.getLatencyMilliseconds() < 15, mixer.getLatencyMilliseconds() + " ms");
+    }
+
+    @Test
+    public void testMixSilence() {
+        mixer.mix(chunk, SoundEffectMixer.FRAMES_PER_CHUNK);
+        for (int i = 0; i < SoundEffectMixer.FRAMES_PER_CHUNK; i++) {
+            assertEquals(0, getSample(chunk, i));
+        }
+        assertEquals(0, mixer.getNumVoicesPlaying());
+    }
+
+    @Test
+    public void testMixOneEffect() {
+        short[] samples = SoundEffect.LOCK.synthesize(SoundEffectMixer.SAMPLE_RATE);
+        mixer.play(SoundEffect.LOCK);
+
+        int numFramesMixed = 0;
+        while (numFramesMixed < samples.length) {
+            mixer.mix(chunk, SoundEffectMixer.FRAMES_PER_CHUNK);
+            for (int i = 0; i < SoundEffectMixer.FRAMES_PER_CHUNK; i++) {
+                int expected = numFramesMixed + i < samples.length ? samples[numFramesMixed + i] : 0;
+                assertEquals(expected, getSample(chunk, i));
+            }
+            numFramesMixed += SoundEffectMixer.FRAMES_PER_CHUNK;
+        }
+        // The voice is free once the effect has played
+        assertEquals(0, mixer.getNumVoicesPlaying());
+    }
+
+    @Test
+    public void testMixAddsAndClipsEffects() {
+        short[] samples = SoundEffect.LINE_CLEAR.synthesize(SoundEffectMixer.SAMPLE_RATE);
+        mixer.play(SoundEffect.LINE_CLEAR);
+        mixer.play(SoundEffect.LINE_CLEAR);
+        mixer.mix(chunk, SoundEffectMixer.FRAMES_PER_CHUNK);
+        assertEquals(2, mixer.getNumVoicesPlaying());
+        for (int i = 0; i < SoundEffectMixer.FRAMES_PER_CHUNK; i++) {
+            assertEquals(2 * samples[i], getSample(chunk, i));
+        }
+
+        for (int i = 0; i < SoundEffectMixer.NUM_VOICES; i++) {
+            mixer.play(SoundEffect.LINE_CLEAR);
+        }
+        mixer.mix(chunk, SoundEffectMixer.FRAMES_PER_CHUNK);
+        int peak = 0;
+        for (int i = 0; i < SoundEffectMixer.FRAMES_PER_CHUNK; i++) {
+            peak = Math.max(peak, Math.abs(getSample(chunk, i)));
+        }
+        assertTrue(peak >= Short.MAX_VALUE);
+    }
+
+    @Test
+    public void testVoiceStealing() {
+        for (int i = 0; i < SoundEffectMixer.NUM_VOICES; i++) {
+            mixer.play(SoundEffect.LEVEL_UP);
+            mixer.mix(chunk, 1);
+        }
+        assertEquals(SoundEffectMixer.NUM_VOICES, mixer.getNumVoicesPlaying());
+
+        // The new effect takes the voice that has played the longest, so the oldest effect stops
+        mixer.play(SoundEffect.MOVE);
+        mixer.mix(chunk, 1);
+        assertEquals(SoundEffectMixer.NUM_VOICES, mixer.getNumVoicesPlaying());
+    }
+
+    @Test
+    public void testMixTooManyFrames() {
+        try {
+            mixer.mix(new byte[4 * SoundEffectMixer.FRAMES_PER_CHUNK], SoundEffectMixer.FRAMES_PER_CHUNK + 1);
+            fail("IllegalArgumentException should be thrown");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void testThreadParksWhileIdle() throws InterruptedException {
+        final CountDownLatch errorLatch = new CountDownLatch(1);
+        mixer.setErrorListener(new AudioErrorListener() {
+            @Override
+            public void audioFailed(Exception error) {
+                errorLatch.countDown();
+            }
+        });
+        assertNull(mixer.getThreadState());
+        mixer.start();
+        try {
+            // Nothing has been played, so the thread parks instead of feeding a line
+            assertTrue(waitForThreadState(Thread.State.WAITING), "Thread state: " + mixer.getThreadState());
+            Thread.sleep(IDLE_CHECK_MILLISECONDS);
+            assertEquals(Thread.State.WAITING, mixer.getThreadState());
+
+            // Playing an effect wakes the thread: it either plays the effect and parks again once it has finished,
+            // or ends after telling the listener that no line can be opened (for example, without a sound device)
+            mixer.play(SoundEffect.MOVE);
+            boolean ended = errorLatch.await(TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
+            if (!ended) {
+                assertTrue(waitForThreadState(Thread.State.WAITING), "Thread state: " + mixer.getThreadState());
+            }
+        } finally {
+            mixer.dispose();
+        }
+        assertNull(mixer.getThreadState());
+    }
+
+    @Test
+    public void testPlayAndMixDoNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported());
+
+        // Warm up first so that class loading and compilation are not counted
+        playAndMix(NUM_ALLOCATION_TEST_CHUNKS);
+
+        long bytes = AllocationCounter.bytesAllocatedBy(new Runnable() {
+            @Override
+            public void run() {
+                playAndMix(NUM_ALLOCATION_TEST_CHUNKS);
+            }
+        });
+        assertTrue(bytes < NUM_ALLOCATION_TEST_CHUNKS, "Mixing allocated " + bytes + " bytes");
+    }
+
+    // EFFECTS: plays every effect, one per chunk, while mixing the given number of chunks
+    private void playAndMix(int numChunks) {
+        SoundEffect[] effects = SoundEffect.values();
+        for (int i = 0; i < numChunks; i++) {
+            mixer.play(effects[i % effects.length]);
+            mixer.mix(chunk, SoundEffectMixer.FRAMES_PER_CHUNK);
+        }
+    }
+
+    // EFFECTS: waits up to TIMEOUT_MILLISECONDS for the mixing thread to be in the given state, and returns true if it
+    //          is
+    private boolean waitForThreadState(Thread.State state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLISECONDS;
+        while (mixer.getThreadState() != state && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        return mixer.getThreadState() == state;
+    }
+
+    // EFFECTS: returns the 16-bit little-endian sample of the given frame
+    private static int getSample(byte[] data, int frame) {
+        return (short) ((data[2 * frame] & 0xFF) | (data[2 * frame + 1] << 8));
+    }
+}
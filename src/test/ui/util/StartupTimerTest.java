@@ -0,0 +1,57 @@
+package ui.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the StartupTimer class
+public class StartupTimerTest {
+    private StartupTimer timer;
+
+    @BeforeEach
+    public void setUp() {
+        timer = new StartupTimer();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, timer.getNumSteps());
+        assertEquals(0, timer.getElapsedMilliseconds());
+    }
+
+    @Test
+    public void testMarkAndFinish() throws InterruptedException {
+        timer.mark("first");
+        Thread.sleep(5);
+        assertTrue(timer.finish("second"));
+        assertEquals(2, timer.getNumSteps());
+        assertTrue(timer.getElapsedMilliseconds() >= 5);
+
+        // Steps after the timer has finished are ignored
+        assertFalse(timer.finish("third"));
+        timer.mark("fourth");
+        assertEquals(2, timer.getNumSteps());
+    }
+
+    @Test
+    public void testReport() throws InterruptedException {
+        timer.mark("on main thread");
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                timer.mark("on other thread");
+            }
+        }, "Other");
+        thread.start();
+        thread.join();
+        timer.finish("done");
+
+        String[] lines = timer.getReport().split("\\R");
+        assertEquals(5, lines.length);
+        assertTrue(lines[1].endsWith("JVM start to main"));
+        assertTrue(lines[2].contains("on main thread [" + Thread.currentThread().getName() + "]"));
+        assertTrue(lines[3].contains("on other thread [Other]"));
+        assertTrue(lines[4].contains("done [" + Thread.currentThread().getName() + "]"));
+    }
+}
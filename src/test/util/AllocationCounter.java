@@ -0,0 +1,33 @@
+package util;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+// Counts the bytes the calling thread allocates while it runs an operation, for tests that check that a hot path
+// does not allocate. Counting needs the HotSpot extension of ThreadMXBean, which other JVMs may not have; tests
+// should skip their checks when isSupported() is false.
+// https://docs.oracle.com/en/java/javase/11/docs/api/jdk.management/com/sun/management/ThreadMXBean.html
+// describes how to measure the number of bytes allocated by the current thread.
+public final class AllocationCounter {
+    // EFFECTS: this class only has static members, so no instance can be made
+    private AllocationCounter() {
+    }
+
+    // EFFECTS: returns true if this JVM can count the bytes a thread allocates
+    public static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof ThreadMXBean;
+    }
+
+    // MODIFIES: whatever the operation modifies
+    // EFFECTS: runs the given operation on the calling thread and returns the number of bytes the thread allocated
+    //          while it ran. The count includes a few bytes for the measurement itself, far fewer than one per
+    //          iteration of the operations the tests run. isSupported() must be true.
+    public static long bytesAllocatedBy(Runnable operation) {
+        ThreadMXBean bean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = bean.getThreadAllocatedBytes(threadId);
+        operation.run();
+        return bean.getThreadAllocatedBytes(threadId) - bytesBefore;
+    }
+}